@@ -0,0 +1,300 @@
+/*
+ * Copyright (C) 2012-2015 Christian Sterzl <christian.sterzl@gmail.com>
+ *
+ * This file is part of ValidationConstraints.
+ *
+ * ValidationConstraints is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * ValidationConstraints is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with ValidationConstraints.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package com.vcollaborate.validation.constraints.processor;
+
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+
+/**
+ * Generates a validator checking all constraints of a class. It is used by
+ * <code>NestedValidator</code> instead of a second bean validator.
+ * 
+ * <p>
+ * A validator is only generated if every constraint of the class is one of {@code @DateRange},
+ * {@code @Nested}, {@code @AllowedStrings}, {@code @AllowedIntegers}, {@code @Email} or
+ * {@code @Future} without groups, the class does not extend another class and none of its
+ * interfaces declares constraints.
+ * </p>
+ * 
+ * <p>
+ * Constraints added by XML mappings are not visible to the processor, thus they are not checked
+ * by generated validators. Don't let the processor run on classes with XML-mapped constraints.
+ * </p>
+ * 
+ * @author Christian Sterzl
+ * @since 1.3.1
+ */
+class ConstraintsGenerator extends ValidatorGenerator {
+
+  static final String SUFFIX = "$$ConstraintsValidator";
+
+  private static final String CONSTRAINT = "javax.validation.Constraint";
+  private static final String VALID = "javax.validation.Valid";
+
+  private static final Set<String> SUPPORTED = new LinkedHashSet<String>(Arrays.asList(NESTED,
+      ALLOWED_STRINGS, ALLOWED_INTEGERS, EMAIL, FUTURE));
+
+  private final Types types;
+  private final DateRangeGenerator dateRangeGenerator;
+
+  ConstraintsGenerator(final Elements elements, final Types types,
+      final DateRangeGenerator dateRangeGenerator) {
+    super(elements);
+    this.types = types;
+    this.dateRangeGenerator = dateRangeGenerator;
+  }
+
+  @Override
+  String suffix() {
+    return SUFFIX;
+  }
+
+  @Override
+  String generate(final TypeElement type) throws NotGeneratedException {
+    TypeMirror superclass = type.getSuperclass();
+    if (superclass.getKind() == TypeKind.DECLARED
+        && !((TypeElement) types.asElement(superclass)).getQualifiedName().contentEquals(
+            Object.class.getName())) {
+      throw new NotGeneratedException(type + " extends " + superclass + ".");
+    }
+    checkInterfaces(type, type);
+
+    StringBuilder constants = new StringBuilder();
+    StringBuilder checks = new StringBuilder();
+    StringBuilder methods = new StringBuilder();
+
+    for (AnnotationMirror mirror : type.getAnnotationMirrors()) {
+      if (name(mirror).equals(DATE_RANGE)) {
+        checkGroups(mirror);
+        dateRangeGenerator.generate(type);
+        constants.append("  private static final ").append(dateRangeGenerator.generatedName(type))
+            .append(" DATE_RANGE = new ").append(dateRangeGenerator.generatedName(type))
+            .append("();\n");
+        check(checks, "DATE_RANGE.isValid(instance)");
+      } else {
+        checkUnsupported(mirror);
+      }
+    }
+
+    for (Element member : type.getEnclosedElements()) {
+      if (member instanceof VariableElement) {
+        continue;
+      }
+      for (AnnotationMirror mirror : member.getAnnotationMirrors()) {
+        checkUnsupported(mirror);
+      }
+    }
+
+    int index = 0;
+    for (VariableElement field : fields(type)) {
+      for (AnnotationMirror mirror : field.getAnnotationMirrors()) {
+        String name = name(mirror);
+        if (!SUPPORTED.contains(name)) {
+          checkUnsupported(mirror);
+          continue;
+        }
+        checkGroups(mirror);
+        String value = access(type, field);
+        if (name.equals(ALLOWED_STRINGS)) {
+          allowedValues(methods, mirror, index, "String", "((String) value)");
+          check(checks, "allowedValues" + index + "(" + value + ")");
+        } else if (name.equals(ALLOWED_INTEGERS)) {
+          allowedValues(methods, mirror, index, "Integer", "((Integer) value).intValue()");
+          check(checks, "allowedValues" + index + "(" + value + ")");
+        } else if (name.equals(EMAIL)) {
+          email(constants, checks, mirror, index, field, value);
+        } else if (name.equals(FUTURE)) {
+          constants.append("  private static final ").append(PACKAGE)
+              .append(".FutureValidator FUTURE_").append(index).append(" = new ").append(PACKAGE)
+              .append(".FutureValidator(").append(value(mirror, "today")).append(clock(mirror))
+              .append(");\n");
+          check(checks, "FUTURE_" + index + ".isValid(" + value + ", null)");
+        } else {
+          TypeElement nested = (TypeElement) types.asElement((DeclaredType) value(mirror,
+              "value"));
+          typeName(nested);
+          constants.append("  private static final ").append(PACKAGE)
+              .append(".nested.NestedValidator NESTED_").append(index).append(" = new ")
+              .append(PACKAGE).append(".nested.NestedValidator(")
+              .append(types.erasure(nested.asType())).append(".class);\n");
+          check(checks, "NESTED_" + index + ".isValid(" + value + ", null)");
+        }
+        index++;
+      }
+    }
+
+    StringBuilder source = new StringBuilder();
+    header(source, type);
+    if (constants.length() > 0) {
+      source.append(constants).append('\n');
+    }
+    source.append("  @Override\n");
+    source.append("  public boolean isValid(final ").append(typeName(type))
+        .append(" instance) {\n");
+    source.append(checks);
+    source.append("    return true;\n");
+    source.append("  }\n");
+    source.append(methods);
+    source.append("}\n");
+    return source.toString();
+  }
+
+  private void allowedValues(final StringBuilder methods, final AnnotationMirror mirror,
+      final int index, final String type, final String switchValue) {
+    methods.append('\n');
+    methods.append("  private static boolean allowedValues").append(index)
+        .append("(final Object value) {\n");
+    methods.append("    if (value == null) {\n");
+    methods.append("      return ").append(value(mirror, "nullAllowed")).append(";\n");
+    methods.append("    }\n");
+    methods.append("    if (!(value instanceof ").append(type).append(")) {\n");
+    methods.append("      return false;\n");
+    methods.append("    }\n");
+    methods.append("    switch (").append(switchValue).append(") {\n");
+    Set<Object> cases = new LinkedHashSet<Object>();
+    for (AnnotationValue allowed : values(mirror, "value")) {
+      cases.add(allowed.getValue());
+    }
+    for (Object allowed : cases) {
+      methods.append("      case ").append(elements.getConstantExpression(allowed))
+          .append(":\n");
+    }
+    if (!cases.isEmpty()) {
+      methods.append("        return true;\n");
+    }
+    methods.append("      default:\n");
+    methods.append("        return false;\n");
+    methods.append("    }\n");
+    methods.append("  }\n");
+  }
+
+  private void email(final StringBuilder constants, final StringBuilder checks,
+      final AnnotationMirror mirror, final int index, final VariableElement field,
+      final String value) throws NotGeneratedException {
+    TypeMirror charSequence = elements.getTypeElement(CharSequence.class.getName()).asType();
+    if (!types.isAssignable(field.asType(), charSequence)) {
+      throw new NotGeneratedException("@Email on " + field + " is not a CharSequence.");
+    }
+
+    StringBuilder flags = new StringBuilder();
+    for (AnnotationValue flag : values(mirror, "flags")) {
+      flags.append(flags.length() == 0 ? "" : " | ").append("java.util.regex.Pattern.")
+          .append(((VariableElement) flag.getValue()).getSimpleName());
+    }
+
+    constants.append("  private static final ").append(PACKAGE).append(".EmailValidator EMAIL_")
+        .append(index).append(" = new ").append(PACKAGE).append(".EmailValidator(")
+        .append(PACKAGE).append(".email.EmailRules.of(").append(value(mirror, "requiressuffix"))
+        .append(", ").append(elements.getConstantExpression(value(mirror, "regexp"))).append(", ")
+        .append(flags.length() == 0 ? "0" : flags);
+    String allowed = (String) value(mirror, "allowedDomains");
+    String blocked = (String) value(mirror, "blockedDomains");
+    if (!allowed.isEmpty() || !blocked.isEmpty()) {
+      constants.append(", ").append(elements.getConstantExpression(allowed)).append(", ")
+          .append(elements.getConstantExpression(blocked));
+    }
+    constants.append("));\n");
+    check(checks, "EMAIL_" + index + ".isValid(" + value + ", null)");
+  }
+
+  /**
+   * @return the clock provider argument of the {@code FutureValidator} constructor or nothing for
+   *         the default provider
+   */
+  private String clock(final AnnotationMirror mirror) throws NotGeneratedException {
+    TypeElement provider = (TypeElement) types.asElement((DeclaredType) value(mirror, "clock"));
+    if (provider.getQualifiedName().contentEquals(PACKAGE + ".temporal.ClockProvider")) {
+      return "";
+    }
+    typeName(provider);
+    return ", " + PACKAGE + ".temporal.Clocks.provider(" + types.erasure(provider.asType())
+        + ".class)";
+  }
+
+  private static void check(final StringBuilder checks, final String condition) {
+    checks.append("    if (!").append(condition).append(") {\n");
+    checks.append("      return false;\n");
+    checks.append("    }\n");
+  }
+
+  private void checkGroups(final AnnotationMirror mirror) throws NotGeneratedException {
+    if (!values(mirror, "groups").isEmpty()) {
+      throw new NotGeneratedException("@" + name(mirror) + " defines groups.");
+    }
+  }
+
+  /**
+   * Bean validation inherits class and getter constraints from interfaces, which the generated
+   * validator wouldn't check.
+   */
+  private void checkInterfaces(final TypeElement type, final TypeElement subtype)
+      throws NotGeneratedException {
+    for (TypeMirror mirror : type.getInterfaces()) {
+      TypeElement implemented = (TypeElement) types.asElement(mirror);
+      if (hasConstraints(implemented)) {
+        throw new NotGeneratedException(subtype + " inherits constraints from " + implemented
+            + ".");
+      }
+      for (Element member : implemented.getEnclosedElements()) {
+        if (hasConstraints(member)) {
+          throw new NotGeneratedException(subtype + " inherits constraints from " + member
+              + " of " + implemented + ".");
+        }
+      }
+      checkInterfaces(implemented, subtype);
+    }
+  }
+
+  private static boolean hasConstraints(final Element element) {
+    for (AnnotationMirror mirror : element.getAnnotationMirrors()) {
+      if (name(mirror).equals(VALID)
+          || annotation(mirror.getAnnotationType().asElement(), CONSTRAINT) != null) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static void checkUnsupported(final AnnotationMirror mirror)
+      throws NotGeneratedException {
+    String name = name(mirror);
+    if (name.equals(VALID) || name.startsWith(PACKAGE + ".")
+        && !name.equals(START_DATE) && !name.equals(END_DATE)) {
+      throw new NotGeneratedException("@" + name + " is not supported here.");
+    }
+    Element annotationType = mirror.getAnnotationType().asElement();
+    if (annotation(annotationType, CONSTRAINT) != null) {
+      throw new NotGeneratedException("@" + name + " is not supported.");
+    }
+  }
+}
@@ -0,0 +1,190 @@
+/*
+ * Copyright (C) 2012-2015 Christian Sterzl <christian.sterzl@gmail.com>
+ *
+ * This file is part of ValidationConstraints.
+ *
+ * ValidationConstraints is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * ValidationConstraints is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with ValidationConstraints.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package com.vcollaborate.validation.constraints.processor;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+
+/**
+ * Generates a validator checking the {@code @DateRange} of a class. Start and end dates are paired
+ * at compile time the same way <code>DateRangeValidator</code> pairs them at runtime.
+ * 
+ * @author Christian Sterzl
+ * @since 1.3.1
+ */
+class DateRangeGenerator extends ValidatorGenerator {
+
+  static final String SUFFIX = "$$DateRangeValidator";
+
+  private static final String DATE_RANGE_VALIDATOR = PACKAGE
+      + ".daterange.DateRangeValidator.isValidRange";
+  private static final String BUSINESS_RANGE_VALIDATOR = PACKAGE
+      + ".daterange.DateRangeValidator.isValidBusinessRange";
+  private static final String ALLOWED_DAY_RANGES = PACKAGE + ".daterange.AllowedDayRanges";
+  private static final String EPOCH_MILLIS = PACKAGE + ".temporal.EpochMillis.of";
+  private static final String PARSE_ISO = PACKAGE + ".temporal.IsoDateTime.parse";
+
+  DateRangeGenerator(final Elements elements) {
+    super(elements);
+  }
+
+  @Override
+  String suffix() {
+    return SUFFIX;
+  }
+
+  @Override
+  String generate(final TypeElement type) throws NotGeneratedException {
+    Map<Integer, Element> startsById = new LinkedHashMap<Integer, Element>();
+    Map<Integer, List<Element>> endsById = new LinkedHashMap<Integer, List<Element>>();
+
+    for (TypeElement declaring : hierarchy(type)) {
+      Set<String> startProperties = new HashSet<String>();
+      Set<String> endProperties = new HashSet<String>();
+      for (ExecutableElement method : ElementFilter.methodsIn(declaring.getEnclosedElements())) {
+        if (!method.getParameters().isEmpty() || method.getModifiers().contains(Modifier.STATIC)) {
+          continue;
+        }
+        AnnotationMirror startDate = annotation(method, START_DATE);
+        if (startDate != null) {
+          startsById.put((Integer) value(startDate, "id"), method);
+          startProperties.add(propertyName(method));
+        }
+        AnnotationMirror endDate = annotation(method, END_DATE);
+        if (endDate != null) {
+          addEnd(endsById, (Integer) value(endDate, "id"), method);
+          endProperties.add(propertyName(method));
+        }
+      }
+
+      // Annotations of record components are on the field and the accessor
+      for (VariableElement field : fields(declaring)) {
+        String name = field.getSimpleName().toString();
+        AnnotationMirror startDate = annotation(field, START_DATE);
+        if (startDate != null && !startProperties.contains(name)) {
+          startsById.put((Integer) value(startDate, "id"), field);
+        }
+        AnnotationMirror endDate = annotation(field, END_DATE);
+        if (endDate != null && !endProperties.contains(name)) {
+          addEnd(endsById, (Integer) value(endDate, "id"), field);
+        }
+      }
+    }
+
+    StringBuilder constants = new StringBuilder();
+    StringBuilder checks = new StringBuilder();
+    int index = 0;
+    for (Map.Entry<Integer, List<Element>> ends : endsById.entrySet()) {
+      Element start = startsById.get(ends.getKey());
+      if (start == null || ends.getValue().size() > 1) {
+        continue;
+      }
+      Element end = ends.getValue().get(0);
+      AnnotationMirror endDate = annotation(end, END_DATE);
+
+      constants.append("  private static final ").append(ALLOWED_DAY_RANGES)
+          .append(" ALLOWED_DAY_RANGES_").append(index).append(" = ").append(ALLOWED_DAY_RANGES)
+          .append(".of(");
+      List<? extends AnnotationValue> allowed = values(endDate, "allowedDayRanges");
+      for (int i = 0; i < allowed.size(); i++) {
+        constants.append(i == 0 ? "" : ", ").append(allowed.get(i).getValue()).append('L');
+      }
+      constants.append(");\n");
+
+      checks.append("    if (!").append(DATE_RANGE_VALIDATOR).append('(')
+          .append(millis(type, start)).append(", ").append(millis(type, end)).append(", ")
+          .append(value(endDate, "minimumDaysRange")).append("L, ALLOWED_DAY_RANGES_")
+          .append(index).append(")) {\n");
+      checks.append("      return false;\n");
+      checks.append("    }\n");
+      long minimumBusinessDays = (Long) value(endDate, "minimumBusinessDays");
+      if (minimumBusinessDays > 0) {
+        checks.append("    if (!").append(BUSINESS_RANGE_VALIDATOR).append('(')
+            .append(millis(type, start)).append(", ").append(millis(type, end)).append(", ")
+            .append(minimumBusinessDays).append("L, ")
+            .append(elements.getConstantExpression(value(endDate, "businessCalendar")))
+            .append(")) {\n");
+        checks.append("      return false;\n");
+        checks.append("    }\n");
+      }
+      index++;
+    }
+
+    StringBuilder source = new StringBuilder();
+    header(source, type);
+    if (constants.length() > 0) {
+      source.append(constants).append('\n');
+    }
+    source.append("  @Override\n");
+    source.append("  public boolean isValid(final ").append(typeName(type))
+        .append(" instance) {\n");
+    source.append(checks);
+    source.append("    return true;\n");
+    source.append("  }\n");
+    source.append("}\n");
+    return source.toString();
+  }
+
+  private static void addEnd(final Map<Integer, List<Element>> endsById, final Integer id,
+      final Element end) {
+    if (!endsById.containsKey(id)) {
+      endsById.put(id, new ArrayList<Element>());
+    }
+    endsById.get(id).add(end);
+  }
+
+  private String millis(final TypeElement type, final Element accessor)
+      throws NotGeneratedException {
+    String value;
+    TypeMirror valueType;
+    if (accessor instanceof ExecutableElement) {
+      value = call(type, (ExecutableElement) accessor);
+      valueType = ((ExecutableElement) accessor).getReturnType();
+    } else {
+      value = access(type, (VariableElement) accessor);
+      valueType = accessor.asType();
+    }
+    if (valueType.getKind() == TypeKind.LONG) {
+      return value;
+    }
+    if (valueType.toString().equals(String.class.getName())
+        || valueType.toString().equals(CharSequence.class.getName())) {
+      return PARSE_ISO + "(" + value + ")";
+    }
+    return EPOCH_MILLIS + "(" + value + ")";
+  }
+}
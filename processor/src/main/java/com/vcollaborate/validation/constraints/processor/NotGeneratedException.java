@@ -0,0 +1,40 @@
+/*
+ * Copyright (C) 2012-2015 Christian Sterzl <christian.sterzl@gmail.com>
+ *
+ * This file is part of ValidationConstraints.
+ *
+ * ValidationConstraints is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * ValidationConstraints is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with ValidationConstraints.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package com.vcollaborate.validation.constraints.processor;
+
+/**
+ * Thrown if no validator can be generated for a class. The class is validated by reflection then.
+ * 
+ * @author Christian Sterzl
+ * @since 1.3.1
+ */
+class NotGeneratedException extends Exception {
+
+  private static final long serialVersionUID = 1L;
+
+  /**
+   * @param reason
+   *          why no validator can be generated
+   */
+  NotGeneratedException(final String reason) {
+    super(reason);
+  }
+}
@@ -0,0 +1,286 @@
+/*
+ * Copyright (C) 2012-2015 Christian Sterzl <christian.sterzl@gmail.com>
+ *
+ * This file is part of ValidationConstraints.
+ *
+ * ValidationConstraints is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * ValidationConstraints is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with ValidationConstraints.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package com.vcollaborate.validation.constraints.processor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+
+/**
+ * Base class of the generators. Generators write the source of one validator for one class.
+ * 
+ * @author Christian Sterzl
+ * @since 1.3.1
+ */
+abstract class ValidatorGenerator {
+
+  static final String PACKAGE = "com.vcollaborate.validation.constraints";
+  static final String DATE_RANGE = PACKAGE + ".daterange.DateRange";
+  static final String START_DATE = PACKAGE + ".daterange.StartDate";
+  static final String END_DATE = PACKAGE + ".daterange.EndDate";
+  static final String NESTED = PACKAGE + ".nested.Nested";
+  static final String ALLOWED_STRINGS = PACKAGE + ".allowedvalues.AllowedStrings";
+  static final String ALLOWED_INTEGERS = PACKAGE + ".allowedvalues.AllowedIntegers";
+  static final String EMAIL = PACKAGE + ".Email";
+  static final String FUTURE = PACKAGE + ".Future";
+
+  static final String GENERATED_VALIDATOR = PACKAGE + ".generated.GeneratedValidator";
+
+  protected final Elements elements;
+
+  ValidatorGenerator(final Elements elements) {
+    this.elements = elements;
+  }
+
+  /**
+   * @return the suffix of the generated class, see
+   *         com.vcollaborate.validation.constraints.generated.GeneratedValidators
+   */
+  abstract String suffix();
+
+  /**
+   * @param type
+   *          the validated class
+   * @return the source of the generated validator
+   * @throws NotGeneratedException
+   *           if no validator can be generated for the class
+   */
+  abstract String generate(TypeElement type) throws NotGeneratedException;
+
+  /**
+   * @param type
+   *          the validated class
+   * @return the qualified name of the generated validator
+   */
+  final String generatedName(final TypeElement type) {
+    return elements.getBinaryName(type) + suffix();
+  }
+
+  /**
+   * @param type
+   *          the validated class
+   * @return the simple name of the generated validator
+   */
+  final String generatedSimpleName(final TypeElement type) {
+    String packageName = packageName(type);
+    String name = generatedName(type);
+    return packageName.isEmpty() ? name : name.substring(packageName.length() + 1);
+  }
+
+  final String packageName(final TypeElement type) {
+    return elements.getPackageOf(type).getQualifiedName().toString();
+  }
+
+  /**
+   * Writes the package declaration and the head of the generated class.
+   */
+  final void header(final StringBuilder source, final TypeElement type)
+      throws NotGeneratedException {
+    String packageName = packageName(type);
+    if (!packageName.isEmpty()) {
+      source.append("package ").append(packageName).append(";\n\n");
+    }
+    source.append("/**\n");
+    source.append(" * Generated by ").append(ValidatorProcessor.class.getName())
+        .append(". Do not edit.\n");
+    source.append(" */\n");
+    source.append("public final class ").append(generatedSimpleName(type)).append(" implements ")
+        .append(GENERATED_VALIDATOR).append('<').append(typeName(type)).append("> {\n\n");
+  }
+
+  /**
+   * @return the name of the type usable in the generated source
+   * @throws NotGeneratedException
+   *           if the type is not accessible from its package
+   */
+  final String typeName(final TypeElement type) throws NotGeneratedException {
+    for (Element element = type; element instanceof TypeElement; element = element
+        .getEnclosingElement()) {
+      TypeElement enclosing = (TypeElement) element;
+      if (enclosing.getModifiers().contains(Modifier.PRIVATE)) {
+        throw new NotGeneratedException(enclosing + " is private.");
+      }
+      if (enclosing.getNestingKind() == NestingKind.LOCAL
+          || enclosing.getNestingKind() == NestingKind.ANONYMOUS) {
+        throw new NotGeneratedException(enclosing + " is a local or anonymous class.");
+      }
+    }
+    StringBuilder name = new StringBuilder(type.getQualifiedName());
+    int typeParameters = type.getTypeParameters().size();
+    if (typeParameters > 0) {
+      name.append('<');
+      for (int i = 0; i < typeParameters; i++) {
+        name.append(i == 0 ? "?" : ", ?");
+      }
+      name.append('>');
+    }
+    return name.toString();
+  }
+
+  /**
+   * @return an expression reading the field of the variable <code>instance</code>
+   * @throws NotGeneratedException
+   *           if the field is not accessible from the package of the type and has no accessible
+   *           getter
+   */
+  final String access(final TypeElement type, final VariableElement field)
+      throws NotGeneratedException {
+    TypeElement declaring = (TypeElement) field.getEnclosingElement();
+    String name = field.getSimpleName().toString();
+    if (isAccessible(type, field)) {
+      if (field.getModifiers().contains(Modifier.STATIC)) {
+        return declaring.getQualifiedName() + "." + name;
+      }
+      return "instance." + name;
+    }
+    String capitalized = Character.toUpperCase(name.charAt(0)) + name.substring(1);
+    for (ExecutableElement method : ElementFilter.methodsIn(declaring.getEnclosedElements())) {
+      String methodName = method.getSimpleName().toString();
+      if ((methodName.equals("get" + capitalized) || methodName.equals("is" + capitalized))
+          && method.getParameters().isEmpty() && isAccessible(type, method)
+          && !method.getModifiers().contains(Modifier.STATIC)) {
+        return "instance." + methodName + "()";
+      }
+    }
+    throw new NotGeneratedException("Field " + name + " is not accessible and has no getter.");
+  }
+
+  /**
+   * @return true if the member can be accessed from the generated class in the package of the type
+   */
+  private boolean isAccessible(final TypeElement type, final Element member) {
+    if (member.getModifiers().contains(Modifier.PRIVATE)) {
+      return false;
+    }
+    if (member.getModifiers().contains(Modifier.PUBLIC)) {
+      return true;
+    }
+    return elements.getPackageOf(member).equals(elements.getPackageOf(type));
+  }
+
+  /**
+   * @return the annotation with the given name or <code>null</code>
+   */
+  static AnnotationMirror annotation(final Element element, final String name) {
+    for (AnnotationMirror mirror : element.getAnnotationMirrors()) {
+      if (name(mirror).equals(name)) {
+        return mirror;
+      }
+    }
+    return null;
+  }
+
+  static String name(final AnnotationMirror mirror) {
+    return ((TypeElement) mirror.getAnnotationType().asElement()).getQualifiedName().toString();
+  }
+
+  /**
+   * @return the value of the annotation attribute, the default value if not set
+   */
+  final Object value(final AnnotationMirror mirror, final String attribute) {
+    Map<? extends ExecutableElement, ? extends AnnotationValue> values = elements
+        .getElementValuesWithDefaults(mirror);
+    for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : values
+        .entrySet()) {
+      if (entry.getKey().getSimpleName().contentEquals(attribute)) {
+        return entry.getValue().getValue();
+      }
+    }
+    throw new IllegalArgumentException(name(mirror) + " has no attribute " + attribute);
+  }
+
+  /**
+   * @return the values of an array attribute
+   */
+  @SuppressWarnings("unchecked")
+  final List<? extends AnnotationValue> values(final AnnotationMirror mirror,
+      final String attribute) {
+    return (List<? extends AnnotationValue>) value(mirror, attribute);
+  }
+
+  /**
+   * @return the fields of the class in declaration order
+   */
+  static List<VariableElement> fields(final TypeElement type) {
+    return ElementFilter.fieldsIn(type.getEnclosedElements());
+  }
+
+  /**
+   * @return the class and its superclasses except {@link Object}, the superclasses first
+   */
+  static List<TypeElement> hierarchy(final TypeElement type) {
+    List<TypeElement> hierarchy = new ArrayList<TypeElement>();
+    TypeMirror superclass = type.getSuperclass();
+    if (superclass.getKind() == TypeKind.DECLARED) {
+      TypeElement parent = (TypeElement) ((DeclaredType) superclass).asElement();
+      if (!parent.getQualifiedName().contentEquals(Object.class.getName())) {
+        hierarchy.addAll(hierarchy(parent));
+      }
+    }
+    hierarchy.add(type);
+    return hierarchy;
+  }
+
+  /**
+   * @return an expression calling the getter on the variable <code>instance</code>
+   * @throws NotGeneratedException
+   *           if the getter is not accessible from the package of the type
+   */
+  final String call(final TypeElement type, final ExecutableElement getter)
+      throws NotGeneratedException {
+    if (!isAccessible(type, getter)) {
+      throw new NotGeneratedException("Method " + getter.getSimpleName() + " is not accessible.");
+    }
+    return "instance." + getter.getSimpleName() + "()";
+  }
+
+  /**
+   * @return the name of the property of a getter, the name of the method itself if it is no bean
+   *         getter, like the accessors of records
+   */
+  static String propertyName(final ExecutableElement getter) {
+    String name = getter.getSimpleName().toString();
+    int prefix = name.startsWith("get") ? 3 : name.startsWith("is") ? 2 : 0;
+    if (prefix == 0 || name.length() == prefix || !Character.isUpperCase(name.charAt(prefix))) {
+      return name;
+    }
+    return Character.toLowerCase(name.charAt(prefix)) + name.substring(prefix + 1);
+  }
+
+  static boolean isClass(final Element element) {
+    return element.getKind() == ElementKind.CLASS;
+  }
+}
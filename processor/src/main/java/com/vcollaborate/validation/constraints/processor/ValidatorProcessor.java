@@ -0,0 +1,157 @@
+/*
+ * Copyright (C) 2012-2015 Christian Sterzl <christian.sterzl@gmail.com>
+ *
+ * This file is part of ValidationConstraints.
+ *
+ * ValidationConstraints is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * ValidationConstraints is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with ValidationConstraints.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package com.vcollaborate.validation.constraints.processor;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.DeclaredType;
+import javax.tools.Diagnostic.Kind;
+import javax.tools.JavaFileObject;
+
+/**
+ * Generates validators, which read the fields of a class directly instead of discovering them by
+ * reflection at runtime.
+ * 
+ * <p>
+ * For every class annotated with {@code @DateRange} a <code>$$DateRangeValidator</code> is
+ * generated, which is picked up by <code>DateRangeValidator</code>. For every class using one of the
+ * constraints of validation.constraints, and for every class referenced by {@code @Nested}, a
+ * <code>$$ConstraintsValidator</code> is generated, which is picked up by
+ * <code>NestedValidator</code>. If a validator can't be generated, e.g. because the class is private,
+ * a note is reported and the class is validated by reflection as before.
+ * </p>
+ * 
+ * @author Christian Sterzl
+ * @since 1.3.1
+ */
+@SupportedAnnotationTypes({ ValidatorGenerator.DATE_RANGE, ValidatorGenerator.NESTED,
+    ValidatorGenerator.ALLOWED_STRINGS, ValidatorGenerator.ALLOWED_INTEGERS,
+    ValidatorGenerator.EMAIL, ValidatorGenerator.FUTURE })
+public class ValidatorProcessor extends AbstractProcessor {
+
+  private DateRangeGenerator dateRangeGenerator;
+  private ConstraintsGenerator constraintsGenerator;
+
+  private final Set<String> generated = new HashSet<String>();
+
+  @Override
+  public synchronized void init(final ProcessingEnvironment processingEnv) {
+    super.init(processingEnv);
+    dateRangeGenerator = new DateRangeGenerator(processingEnv.getElementUtils());
+    constraintsGenerator = new ConstraintsGenerator(processingEnv.getElementUtils(),
+        processingEnv.getTypeUtils(), dateRangeGenerator);
+  }
+
+  @Override
+  public SourceVersion getSupportedSourceVersion() {
+    return SourceVersion.latestSupported();
+  }
+
+  @Override
+  public boolean process(final Set<? extends TypeElement> annotations,
+      final RoundEnvironment roundEnv) {
+    Set<TypeElement> dateRanges = new LinkedHashSet<TypeElement>();
+    Set<TypeElement> constrained = new LinkedHashSet<TypeElement>();
+
+    for (TypeElement annotation : annotations) {
+      boolean nested = annotation.getQualifiedName().contentEquals(ValidatorGenerator.NESTED);
+      for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+        if (ValidatorGenerator.isClass(element)) {
+          dateRanges.add((TypeElement) element);
+          constrained.add((TypeElement) element);
+        } else if (element.getKind() == ElementKind.FIELD) {
+          constrained.add((TypeElement) element.getEnclosingElement());
+          if (nested) {
+            TypeElement target = nestedTarget(element, roundEnv);
+            if (target != null) {
+              constrained.add(target);
+            }
+          }
+        }
+      }
+    }
+
+    for (TypeElement type : dateRanges) {
+      generate(dateRangeGenerator, type);
+    }
+    for (TypeElement type : constrained) {
+      generate(constraintsGenerator, type);
+    }
+    return false;
+  }
+
+  /**
+   * @return the class referenced by {@code @Nested} if it is compiled in this round
+   */
+  private TypeElement nestedTarget(final Element field, final RoundEnvironment roundEnv) {
+    AnnotationMirror mirror = ValidatorGenerator.annotation(field, ValidatorGenerator.NESTED);
+    Object value = constraintsGenerator.value(mirror, "value");
+    if (!(value instanceof DeclaredType)) {
+      return null;
+    }
+    TypeElement target = (TypeElement) ((DeclaredType) value).asElement();
+    Element outermost = target;
+    while (outermost.getEnclosingElement() instanceof TypeElement) {
+      outermost = outermost.getEnclosingElement();
+    }
+    return roundEnv.getRootElements().contains(outermost) ? target : null;
+  }
+
+  private void generate(final ValidatorGenerator generator, final TypeElement type) {
+    String name = generator.generatedName(type);
+    if (!generated.add(name)) {
+      return;
+    }
+    String source;
+    try {
+      source = generator.generate(type);
+    } catch (NotGeneratedException e) {
+      processingEnv.getMessager().printMessage(Kind.NOTE,
+          "No " + generator.suffix() + " generated: " + e.getMessage(), type);
+      return;
+    }
+    try {
+      JavaFileObject file = processingEnv.getFiler().createSourceFile(name, type);
+      Writer writer = file.openWriter();
+      try {
+        writer.write(source);
+      } finally {
+        writer.close();
+      }
+    } catch (IOException e) {
+      processingEnv.getMessager().printMessage(Kind.ERROR,
+          "Can't write " + name + ": " + e.getMessage(), type);
+    }
+  }
+}
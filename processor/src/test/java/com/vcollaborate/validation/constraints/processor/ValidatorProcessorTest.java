@@ -0,0 +1,307 @@
+/*
+ * Copyright (C) 2012-2015 Christian Sterzl <christian.sterzl@gmail.com>
+ *
+ * This file is part of ValidationConstraints.
+ *
+ * ValidationConstraints is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * ValidationConstraints is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with ValidationConstraints.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package com.vcollaborate.validation.constraints.processor;
+
+import com.vcollaborate.validation.constraints.daterange.DateRangeValidator;
+import com.vcollaborate.validation.constraints.generated.GeneratedValidator;
+import com.vcollaborate.validation.constraints.generated.GeneratedValidators;
+
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.reflect.Field;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+
+public class ValidatorProcessorTest {
+
+  private static final String BOOKING = "package sample;\n"
+      + "import com.vcollaborate.validation.constraints.Email;\n"
+      + "import com.vcollaborate.validation.constraints.Future;\n"
+      + "import com.vcollaborate.validation.constraints.allowedvalues.AllowedIntegers;\n"
+      + "import com.vcollaborate.validation.constraints.allowedvalues.AllowedStrings;\n"
+      + "import com.vcollaborate.validation.constraints.daterange.DateRange;\n"
+      + "import com.vcollaborate.validation.constraints.daterange.EndDate;\n"
+      + "import com.vcollaborate.validation.constraints.daterange.StartDate;\n"
+      + "import com.vcollaborate.validation.constraints.nested.Nested;\n"
+      + "import com.vcollaborate.validation.constraints.temporal.ClockProvider;\n"
+      + "import java.time.Clock;\n"
+      + "import java.time.Instant;\n"
+      + "import java.time.ZoneOffset;\n"
+      + "import java.util.Date;\n"
+      + "@DateRange\n"
+      + "public class Booking {\n"
+      + "  @StartDate Date start;\n"
+      + "  @EndDate(minimumDaysRange = 2) Date end;\n"
+      + "  @StartDate(id = 1) long from;\n"
+      + "  @EndDate(id = 1, allowedDayRanges = { 7, 14 }) long to = 604800000L;\n"
+      + "  @StartDate(id = 2) String checkIn;\n"
+      + "  @EndDate(id = 2, minimumDaysRange = 1) String checkOut;\n"
+      + "  @AllowedStrings({ \"open\", \"closed\", \"open\" }) String status;\n"
+      + "  @AllowedIntegers(value = { 1, 2 }, nullAllowed = false) Integer persons = 1;\n"
+      + "  @Email String mail;\n"
+      + "  @Nested(Room.class) Room room;\n"
+      + "  @Future(clock = Epoch.class) Date due;\n"
+      + "  public static class Epoch implements ClockProvider {\n"
+      + "    public Clock getClock() { return Clock.fixed(Instant.EPOCH, ZoneOffset.UTC); }\n"
+      + "  }\n"
+      + "  private static class Hidden {\n"
+      + "    @AllowedStrings(\"x\") String value;\n"
+      + "  }\n"
+      + "}\n";
+
+  private static final String ROOM = "package sample;\n"
+      + "import com.vcollaborate.validation.constraints.allowedvalues.AllowedStrings;\n"
+      + "public class Room {\n"
+      + "  @AllowedStrings({ \"single\", \"double\" }) private String name;\n"
+      + "  public Room(String name) { this.name = name; }\n"
+      + "  public String getName() { return name; }\n"
+      + "}\n";
+
+  private static final String STAY = "package sample;\n"
+      + "import com.vcollaborate.validation.constraints.daterange.StartDate;\n"
+      + "import java.util.Date;\n"
+      + "public abstract class Stay {\n"
+      + "  @StartDate Date arrival;\n"
+      + "}\n";
+
+  private static final String LONG_STAY = "package sample;\n"
+      + "import com.vcollaborate.validation.constraints.daterange.DateRange;\n"
+      + "import com.vcollaborate.validation.constraints.daterange.EndDate;\n"
+      + "import java.util.Date;\n"
+      + "@DateRange\n"
+      + "public class LongStay extends Stay {\n"
+      + "  private Date departure;\n"
+      + "  @EndDate(minimumDaysRange = 7, minimumBusinessDays = 6)\n"
+      + "  public Date getDeparture() { return departure; }\n"
+      + "}\n";
+
+  private static final String RATED = "package sample;\n"
+      + "import com.vcollaborate.validation.constraints.Email;\n"
+      + "public interface Rated {\n"
+      + "  @Email String getAuthor();\n"
+      + "}\n";
+
+  private static final String REVIEW = "package sample;\n"
+      + "import com.vcollaborate.validation.constraints.allowedvalues.AllowedStrings;\n"
+      + "public class Review implements Rated {\n"
+      + "  @AllowedStrings({ \"draft\", \"published\" }) String status;\n"
+      + "  String author;\n"
+      + "  public String getAuthor() { return author; }\n"
+      + "}\n";
+
+  private static File directory;
+  private static URLClassLoader classLoader;
+
+  @BeforeClass
+  public static void compile() throws Exception {
+    directory = Files.createTempDirectory("processor").toFile();
+    File sources = new File(directory, "sample");
+    sources.mkdirs();
+    write(new File(sources, "Booking.java"), BOOKING);
+    write(new File(sources, "Room.java"), ROOM);
+    write(new File(sources, "Stay.java"), STAY);
+    write(new File(sources, "LongStay.java"), LONG_STAY);
+    write(new File(sources, "Rated.java"), RATED);
+    write(new File(sources, "Review.java"), REVIEW);
+
+    JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+    StandardJavaFileManager fileManager = compiler.getStandardFileManager(null, null, null);
+    Iterable<? extends JavaFileObject> units = fileManager.getJavaFileObjects(new File(sources,
+        "Booking.java"), new File(sources, "Room.java"), new File(sources, "Stay.java"),
+        new File(sources, "LongStay.java"), new File(sources, "Rated.java"),
+        new File(sources, "Review.java"));
+    String classpath = path(DateRangeValidator.class) + File.pathSeparator
+        + path(javax.validation.Constraint.class);
+
+    boolean compiled = compiler.getTask(null, fileManager, null,
+        Arrays.asList("-classpath", classpath, "-d", directory.getPath(), "-s",
+            directory.getPath(), "-processor", ValidatorProcessor.class.getName()), null, units)
+        .call();
+    fileManager.close();
+    Assert.assertTrue(compiled);
+
+    classLoader = new URLClassLoader(new URL[] { directory.toURI().toURL() },
+        ValidatorProcessorTest.class.getClassLoader());
+  }
+
+  @AfterClass
+  public static void delete() throws Exception {
+    if (classLoader != null) {
+      classLoader.close();
+    }
+    if (directory != null) {
+      delete(directory);
+    }
+  }
+
+  @Test
+  public void shouldGenerateDateRangeValidator() throws Exception {
+    Class<?> booking = classLoader.loadClass("sample.Booking");
+    Assert.assertNotNull(GeneratedValidators.dateRange(booking));
+    Assert.assertNotNull(classLoader.loadClass("sample.Booking$$DateRangeValidator"));
+
+    Object instance = booking.newInstance();
+    Assert.assertTrue(new DateRangeValidator().isValid(instance, null));
+
+    set(instance, "start", new Date(0));
+    set(instance, "end", new Date(TimeUnit.DAYS.toMillis(2)));
+    set(instance, "to", TimeUnit.DAYS.toMillis(7));
+    Assert.assertTrue(new DateRangeValidator().isValid(instance, null));
+
+    set(instance, "to", TimeUnit.DAYS.toMillis(8));
+    Assert.assertFalse(new DateRangeValidator().isValid(instance, null));
+
+    set(instance, "to", TimeUnit.DAYS.toMillis(14));
+    set(instance, "end", new Date(TimeUnit.DAYS.toMillis(1)));
+    Assert.assertFalse(new DateRangeValidator().isValid(instance, null));
+
+    set(instance, "end", new Date(TimeUnit.DAYS.toMillis(2)));
+    set(instance, "checkIn", "2015-03-01T12:00Z");
+    set(instance, "checkOut", "2015-03-02T12:00Z");
+    Assert.assertTrue(new DateRangeValidator().isValid(instance, null));
+
+    set(instance, "checkOut", "2015-03-01T13:00+01:00");
+    Assert.assertFalse(new DateRangeValidator().isValid(instance, null));
+  }
+
+  @Test
+  public void shouldGenerateDateRangeValidatorWithInheritedFieldsAndGetters() throws Exception {
+    Class<?> longStay = classLoader.loadClass("sample.LongStay");
+    GeneratedValidator<Object> validator = GeneratedValidators.dateRange(longStay);
+    Assert.assertNotNull(validator);
+
+    Object instance = longStay.newInstance();
+    set(instance, "arrival", new Date(0));
+    set(instance, "departure", new Date(TimeUnit.DAYS.toMillis(1)));
+    Assert.assertFalse(validator.isValid(instance));
+
+    // 7 days contain 5 business days only
+    set(instance, "departure", new Date(TimeUnit.DAYS.toMillis(7)));
+    Assert.assertFalse(validator.isValid(instance));
+
+    set(instance, "departure", new Date(TimeUnit.DAYS.toMillis(8)));
+    Assert.assertTrue(validator.isValid(instance));
+  }
+
+  @Test
+  public void shouldGenerateConstraintsValidator() throws Exception {
+    Class<?> booking = classLoader.loadClass("sample.Booking");
+    Class<?> room = classLoader.loadClass("sample.Room");
+    GeneratedValidator<Object> validator = GeneratedValidators.constraints(booking);
+    Assert.assertNotNull(validator);
+    Assert.assertNotNull(GeneratedValidators.constraints(room));
+
+    Object instance = booking.newInstance();
+    Assert.assertTrue(validator.isValid(instance));
+
+    set(instance, "status", "closed");
+    set(instance, "mail", "test@v-collaborate.com");
+    set(instance, "room", room.getConstructor(String.class).newInstance("double"));
+    Assert.assertTrue(validator.isValid(instance));
+
+    set(instance, "status", "unknown");
+    Assert.assertFalse(validator.isValid(instance));
+
+    set(instance, "status", null);
+    set(instance, "persons", null);
+    Assert.assertFalse(validator.isValid(instance));
+
+    set(instance, "persons", 2);
+    set(instance, "mail", "test@v-collaborate");
+    Assert.assertFalse(validator.isValid(instance));
+
+    set(instance, "mail", null);
+    set(instance, "room", room.getConstructor(String.class).newInstance("suite"));
+    Assert.assertFalse(validator.isValid(instance));
+
+    set(instance, "room", null);
+    set(instance, "due", new Date(1));
+    Assert.assertTrue(validator.isValid(instance));
+
+    set(instance, "due", new Date(0));
+    Assert.assertFalse(validator.isValid(instance));
+  }
+
+  @Test
+  public void shouldNotGenerateForPrivateClasses() throws Exception {
+    Class<?> hidden = classLoader.loadClass("sample.Booking$Hidden");
+    Assert.assertNull(GeneratedValidators.constraints(hidden));
+  }
+
+  @Test
+  public void shouldNotGenerateForClassesInheritingConstraintsFromInterfaces() throws Exception {
+    Class<?> review = classLoader.loadClass("sample.Review");
+    Assert.assertNull(GeneratedValidators.constraints(review));
+  }
+
+  private static void set(final Object instance, final String name, final Object value)
+      throws Exception {
+    for (Class<?> type = instance.getClass(); type != null; type = type.getSuperclass()) {
+      try {
+        Field field = type.getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(instance, value);
+        return;
+      } catch (NoSuchFieldException e) {
+        // Try the superclass
+      }
+    }
+    throw new NoSuchFieldException(name);
+  }
+
+  private static String path(final Class<?> type) throws Exception {
+    return new File(type.getProtectionDomain().getCodeSource().getLocation().toURI()).getPath();
+  }
+
+  private static void delete(final File file) {
+    File[] children = file.listFiles();
+    if (children != null) {
+      for (File child : children) {
+        delete(child);
+      }
+    }
+    file.delete();
+  }
+
+  private static void write(final File file, final String content) throws IOException {
+    Writer writer = Files.newBufferedWriter(file.toPath());
+    try {
+      writer.write(content);
+    } finally {
+      writer.close();
+    }
+  }
+}
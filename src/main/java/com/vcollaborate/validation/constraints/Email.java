@@ -31,9 +31,7 @@ import java.lang.annotation.Retention;
 import java.lang.annotation.Target;
 
 import javax.validation.Constraint;
-import javax.validation.OverridesAttribute;
 import javax.validation.Payload;
-import javax.validation.ReportAsSingleViolation;
 import javax.validation.constraints.Pattern;
 
 /**
@@ -43,6 +41,16 @@ import javax.validation.constraints.Pattern;
  * {@link #requiressuffix()}, thus only email adresses with a domain suffix will be valid. To
  * achieve the behaviour of {@link org.hibernate.validator.constraints.Email} set this parameter to
  * false.
+ * 
+ * <p>
+ * The additional {@link #regexp()} is checked by the {@link EmailValidator} itself instead of a
+ * composed {@link Pattern}. Validators of equal configurations share one compiled expression.
+ * </p>
+ * 
+ * <p>
+ * The domain of the address can be restricted with lists of {@link #allowedDomains()} and
+ * {@link #blockedDomains()}, which are loaded once per class loader and resource.
+ * </p>
  *
  * @author Christian Sterzl
  * @since 1.2.6
@@ -51,8 +59,6 @@ import javax.validation.constraints.Pattern;
 @Constraint(validatedBy = EmailValidator.class)
 @Target({ METHOD, FIELD, ANNOTATION_TYPE, CONSTRUCTOR, PARAMETER })
 @Retention(RUNTIME)
-@ReportAsSingleViolation
-@Pattern(regexp = "")
 public @interface Email {
   String message() default "{org.hibernate.validator.constraints.Email.message}";
 
@@ -64,14 +70,12 @@ public @interface Email {
    * Returns an additional regular expression the annotated string must match. The default is any
    * string ('.*')
    */
-  @OverridesAttribute(constraint = Pattern.class, name = "regexp")
   String regexp() default ".*";
 
   /**
    * Returns used in combination with {@link #regexp()} in order to specify a regular expression
    * option.
    */
-  @OverridesAttribute(constraint = Pattern.class, name = "flags")
   Pattern.Flag[] flags() default {};
 
   /**
@@ -79,6 +83,22 @@ public @interface Email {
    */
   boolean requiressuffix() default true;
 
+  /**
+   * Returns the name of a resource listing the domains of valid addresses, one per line. A listed
+   * domain allows its subdomains too. The default is an empty string, which allows all domains.
+   * 
+   * @see com.vcollaborate.validation.constraints.email.DomainList
+   */
+  String allowedDomains() default "";
+
+  /**
+   * Returns the name of a resource listing domains, whose addresses and the addresses of their
+   * subdomains are invalid. The default is an empty string, which blocks no domain.
+   * 
+   * @see com.vcollaborate.validation.constraints.email.DomainList
+   */
+  String blockedDomains() default "";
+
   /**
    * Defines several {@code @Email} annotations on the same element.
    */
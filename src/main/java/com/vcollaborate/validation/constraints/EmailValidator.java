@@ -19,14 +19,21 @@
 
 package com.vcollaborate.validation.constraints;
 
-import java.net.IDN;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import com.vcollaborate.validation.constraints.email.EmailRules;
+import com.vcollaborate.validation.constraints.email.EmailScanner;
 
 import javax.validation.ConstraintValidator;
 import javax.validation.ConstraintValidatorContext;
+import javax.validation.constraints.Pattern;
 
 /**
+ * Validates email addresses with the {@link EmailScanner}, which scans them in a single pass and
+ * converts them with {@link java.net.IDN} only if they contain a non-ASCII character.
+ * 
+ * <p>
+ * A validator only points to the canonical {@link EmailRules} of its configuration, so the
+ * additional regular expression is compiled once for all usages with equal attributes.
+ * </p>
  *
  * @author Christian Sterzl
  * @since 1.2.6
@@ -35,37 +42,46 @@ import javax.validation.ConstraintValidatorContext;
  * @see com.vcollaborate.validation.constraints.Email
  */
 public class EmailValidator implements ConstraintValidator<Email, CharSequence> {
-  private static String ATOM = "[a-z0-9!#$%&'*+/=?^_`{|}~-]";
-  private static String DOMAIN = "(" + ATOM + "+(\\." + ATOM + "+)*";
-  private static String DOMAIN_WITHSUFFIX = "(" + ATOM + "+(\\." + ATOM + "+)+";
-  private static String IP_DOMAIN = "\\[[0-9]{1,3}\\.[0-9]{1,3}\\.[0-9]{1,3}\\.[0-9]{1,3}\\]";
+  private EmailRules rules = EmailRules.of(true);
 
-  private Pattern pattern = Pattern.compile("^" + ATOM + "+(\\."
-      + ATOM + "+)*@" + DOMAIN + "|" + IP_DOMAIN + ")$", Pattern.CASE_INSENSITIVE);
+  /**
+   * Creates a validator, which is initialized by {@link #initialize(Email)}.
+   */
+  public EmailValidator() {
+  }
 
-  private Pattern patternWithSuffix = Pattern.compile("^" + ATOM
-      + "+(\\." + ATOM + "+)*@" + DOMAIN_WITHSUFFIX + "|" + IP_DOMAIN + ")$",
-      Pattern.CASE_INSENSITIVE);
+  /**
+   * Creates an initialized validator.
+   * 
+   * @param requiresSuffix
+   *          see {@link Email#requiressuffix()}
+   */
+  public EmailValidator(boolean requiresSuffix) {
+    this.rules = EmailRules.of(requiresSuffix);
+  }
 
-  Email annotation;
+  /**
+   * Creates an initialized validator.
+   * 
+   * @param rules
+   *          the rules of the configuration
+   */
+  public EmailValidator(EmailRules rules) {
+    this.rules = rules;
+  }
 
   @Override
   public void initialize(Email annotation) {
-    this.annotation = annotation;
+    int flags = 0;
+    for (Pattern.Flag flag : annotation.flags()) {
+      flags |= flag.getValue();
+    }
+    this.rules = EmailRules.of(annotation.requiressuffix(), annotation.regexp(), flags,
+        annotation.allowedDomains(), annotation.blockedDomains());
   }
 
   @Override
   public boolean isValid(CharSequence value, ConstraintValidatorContext context) {
-    if (value == null || value.length() == 0) {
-      return true;
-    }
-    String asciiString = IDN.toASCII(value.toString());
-    Matcher matcher;
-    if (annotation.requiressuffix()) {
-      matcher = patternWithSuffix.matcher(asciiString);
-    } else {
-      matcher = pattern.matcher(asciiString);
-    }
-    return matcher.matches();
+    return rules.isValid(value);
   }
 }
@@ -19,6 +19,9 @@
 
 package com.vcollaborate.validation.constraints;
 
+import com.vcollaborate.validation.constraints.temporal.ClockProvider;
+import com.vcollaborate.validation.constraints.temporal.Clocks;
+
 import java.lang.annotation.ElementType;
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
@@ -33,7 +36,12 @@ import javax.validation.Payload;
  * The annotated element must be a date in the future or if {@link #today()} is set to true, the
  * date has to be in the future or today.
  * 
- * <code>null</code> elements are considered valid.
+ * Arrays and {@link Iterable}s of dates are valid if each element is valid. The elements are
+ * compared with the same instant and each invalid element is reported at its index.
+ * 
+ * <code>null</code> elements are considered valid. <code>long</code> and {@link Long} values of
+ * {@link Long#MIN_VALUE} stand for <code>null</code> (see
+ * {@link com.vcollaborate.validation.constraints.temporal.EpochMillis#NULL}) and are valid too.
  * 
  * @author Christian Sterzl
  * @since 1.2.4
@@ -49,4 +57,10 @@ public @interface Future {
   Class<? extends Payload>[] payload() default {};
 
   boolean today() default false;
+
+  /**
+   * @return the provider of the clock to compare with, {@link ClockProvider} itself refers to the
+   *         default provider of {@link Clocks}
+   */
+  Class<? extends ClockProvider> clock() default ClockProvider.class;
 }
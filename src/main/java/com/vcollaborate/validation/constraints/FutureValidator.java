@@ -19,13 +19,27 @@
 
 package com.vcollaborate.validation.constraints;
 
-import org.joda.time.DateMidnight;
-import org.joda.time.DateTime;
+import com.vcollaborate.validation.constraints.temporal.ClockProvider;
+import com.vcollaborate.validation.constraints.temporal.Clocks;
+import com.vcollaborate.validation.constraints.temporal.DayBoundary;
+import com.vcollaborate.validation.constraints.temporal.EpochMillis;
+
+import java.time.Clock;
+import java.time.Instant;
 
 import javax.validation.ConstraintValidator;
 import javax.validation.ConstraintValidatorContext;
 
 /**
+ * The value is compared with the millis of the clock of {@link Future#clock()}. The start of today
+ * is cached per zone by {@link DayBoundary} until the day changes, thus both modes compare a single
+ * long.
+ * 
+ * <p>
+ * The elements of arrays and {@link Iterable}s are compared with the same instant, which is read
+ * once per call. <code>long[]</code>, <code>Date[]</code> and {@link Instant}s are compared without
+ * conversion.
+ * </p>
  * 
  * @author Christian Sterzl
  * @since 1.2.4
@@ -34,6 +48,37 @@ import javax.validation.ConstraintValidatorContext;
 public class FutureValidator implements ConstraintValidator<Future, Object> {
 
   private boolean today = false;
+  private ClockProvider clockProvider = Clocks.DEFAULT;
+  private DayBoundary dayBoundary;
+
+  /**
+   * Creates a validator, which is initialized by {@link #initialize(Future)}.
+   */
+  public FutureValidator() {
+  }
+
+  /**
+   * Creates an initialized validator.
+   * 
+   * @param today
+   *          see {@link Future#today()}
+   */
+  public FutureValidator(final boolean today) {
+    this.today = today;
+  }
+
+  /**
+   * Creates an initialized validator.
+   * 
+   * @param today
+   *          see {@link Future#today()}
+   * @param clockProvider
+   *          the provider of the clock to compare with
+   */
+  public FutureValidator(final boolean today, final ClockProvider clockProvider) {
+    this.today = today;
+    this.clockProvider = clockProvider;
+  }
 
   /**
    * {@inheritDoc}
@@ -42,6 +87,7 @@ public class FutureValidator implements ConstraintValidator<Future, Object> {
    */
   public final void initialize(final Future constraintAnnotation) {
     this.today = constraintAnnotation.today();
+    this.clockProvider = Clocks.provider(constraintAnnotation.clock());
   }
 
   /**
@@ -51,10 +97,33 @@ public class FutureValidator implements ConstraintValidator<Future, Object> {
    *      javax.validation.ConstraintValidatorContext)
    */
   public final boolean isValid(final Object value, final ConstraintValidatorContext context) {
-    DateTime dateTime = new DateTime(value);
+    if (value == null) {
+      return true;
+    }
+    if (TemporalValues.isMultiple(value)) {
+      return TemporalValues.isValidEach(value, earliest(), Long.MAX_VALUE, context, "@Future");
+    }
+    long millis = EpochMillis.of(value);
+    return millis == EpochMillis.NULL || millis >= earliest();
+  }
+
+  /**
+   * @return the earliest valid instant in milliseconds since the epoch
+   */
+  private long earliest() {
+    Clock clock = clockProvider.getClock();
     if (!today) {
-      return dateTime.isAfterNow();
+      return clock.millis() + 1;
+    }
+    return startOfToday(clock);
+  }
+
+  private long startOfToday(final Clock clock) {
+    DayBoundary boundary = dayBoundary;
+    if (boundary == null || !boundary.getZone().equals(clock.getZone())) {
+      boundary = DayBoundary.of(clock.getZone());
+      dayBoundary = boundary;
     }
-    return dateTime.isAfter(new DateMidnight()) || dateTime.isEqual(new DateMidnight());
+    return boundary.startOfDay(clock.millis());
   }
 }
@@ -0,0 +1,61 @@
+/*
+ * Copyright (C) 2012-2015 Christian Sterzl <christian.sterzl@gmail.com>
+ *
+ * This file is part of ValidationConstraints.
+ *
+ * ValidationConstraints is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * ValidationConstraints is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with ValidationConstraints.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.vcollaborate.validation.constraints;
+
+import com.vcollaborate.validation.constraints.temporal.ClockProvider;
+import com.vcollaborate.validation.constraints.temporal.Clocks;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import javax.validation.Constraint;
+import javax.validation.Payload;
+
+/**
+ * This class is basically a copy of {@link javax.validation.constraints.Past}.
+ * 
+ * The annotated element must be a date in the past. It supports the same types as {@link Future}.
+ * 
+ * Arrays and {@link Iterable}s of dates are valid if each element is valid. The elements are
+ * compared with the same instant and each invalid element is reported at its index.
+ * 
+ * <code>null</code> elements are considered valid.
+ * 
+ * @author Christian Sterzl
+ * @since 1.3.1
+ */
+@Constraint(validatedBy = PastValidator.class)
+@Target(ElementType.FIELD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Past {
+  String message() default "{javax.validation.constraints.Past.message}";
+
+  Class<?>[] groups() default {};
+
+  Class<? extends Payload>[] payload() default {};
+
+  /**
+   * @return the provider of the clock to compare with, {@link ClockProvider} itself refers to the
+   *         default provider of {@link Clocks}
+   */
+  Class<? extends ClockProvider> clock() default ClockProvider.class;
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright (C) 2012-2015 Christian Sterzl <christian.sterzl@gmail.com>
+ *
+ * This file is part of ValidationConstraints.
+ *
+ * ValidationConstraints is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * ValidationConstraints is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with ValidationConstraints.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.vcollaborate.validation.constraints;
+
+import com.vcollaborate.validation.constraints.temporal.ClockProvider;
+import com.vcollaborate.validation.constraints.temporal.Clocks;
+import com.vcollaborate.validation.constraints.temporal.TimeWindow;
+
+/**
+ * Validates {@link Past}, the window from the beginning of time up to now exclusive.
+ * 
+ * @author Christian Sterzl
+ * @since 1.3.1
+ */
+public class PastValidator extends TemporalWindowValidator<Past> {
+
+  private static final TimeWindow WINDOW = TimeWindow.of(Long.MIN_VALUE, -1);
+
+  /**
+   * Creates a validator, which is initialized by {@link #initialize(Past)}.
+   */
+  public PastValidator() {
+  }
+
+  /**
+   * Creates an initialized validator.
+   * 
+   * @param clockProvider
+   *          the provider of the clock to compare with
+   */
+  public PastValidator(final ClockProvider clockProvider) {
+    super(WINDOW, clockProvider);
+  }
+
+  /**
+   * {@inheritDoc}
+   * 
+   * @see javax.validation.ConstraintValidator#initialize(java.lang.annotation.Annotation)
+   */
+  public final void initialize(final Past constraintAnnotation) {
+    initialize(WINDOW, Clocks.provider(constraintAnnotation.clock()));
+  }
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright (C) 2012-2015 Christian Sterzl <christian.sterzl@gmail.com>
+ *
+ * This file is part of ValidationConstraints.
+ *
+ * ValidationConstraints is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * ValidationConstraints is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with ValidationConstraints.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.vcollaborate.validation.constraints;
+
+import com.vcollaborate.validation.constraints.temporal.EpochMillis;
+
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+import java.util.RandomAccess;
+
+import javax.validation.ConstraintValidatorContext;
+
+/**
+ * Checks the elements of arrays and {@link Iterable}s against the same bounds.
+ * <code>long[]</code>, <code>Date[]</code> and {@link Instant}s are compared without conversion.
+ * 
+ * @author Christian Sterzl
+ * @since 1.3.1
+ */
+final class TemporalValues {
+
+  private TemporalValues() {
+  }
+
+  /**
+   * @return true if the value is an array or an {@link Iterable}
+   */
+  static boolean isMultiple(final Object value) {
+    return value instanceof Iterable || value.getClass().isArray();
+  }
+
+  /**
+   * Checks each element against the same bounds. Without context the check stops at the first
+   * invalid element, otherwise each invalid element is reported at its index.
+   * 
+   * @param values
+   *          an array or an {@link Iterable}
+   * @param lower
+   *          the first valid instant in milliseconds since the epoch
+   * @param upper
+   *          the last valid instant in milliseconds since the epoch
+   * @param context
+   *          the context or <code>null</code>
+   * @param constraint
+   *          the name of the constraint for error messages
+   * @return true if all elements are valid
+   */
+  static boolean isValidEach(final Object values, final long lower, final long upper,
+      final ConstraintValidatorContext context, final String constraint) {
+    boolean valid = true;
+    if (values instanceof long[]) {
+      long[] array = (long[]) values;
+      for (int i = 0; i < array.length; i++) {
+        if (array[i] < lower || array[i] > upper) {
+          if (context == null) {
+            return false;
+          }
+          valid = report(context, valid, i);
+        }
+      }
+    } else if (values instanceof Date[]) {
+      Date[] array = (Date[]) values;
+      for (int i = 0; i < array.length; i++) {
+        if (array[i] != null && (array[i].getTime() < lower || array[i].getTime() > upper)) {
+          if (context == null) {
+            return false;
+          }
+          valid = report(context, valid, i);
+        }
+      }
+    } else if (values instanceof Object[]) {
+      Object[] array = (Object[]) values;
+      for (int i = 0; i < array.length; i++) {
+        if (!isValid(array[i], lower, upper)) {
+          if (context == null) {
+            return false;
+          }
+          valid = report(context, valid, i);
+        }
+      }
+    } else if (values instanceof List && values instanceof RandomAccess) {
+      List<?> list = (List<?>) values;
+      for (int i = 0, size = list.size(); i < size; i++) {
+        if (!isValid(list.get(i), lower, upper)) {
+          if (context == null) {
+            return false;
+          }
+          valid = report(context, valid, i);
+        }
+      }
+    } else if (values instanceof Iterable) {
+      int i = 0;
+      for (Object element : (Iterable<?>) values) {
+        if (!isValid(element, lower, upper)) {
+          if (context == null) {
+            return false;
+          }
+          valid = report(context, valid, i);
+        }
+        i++;
+      }
+    } else {
+      throw new IllegalArgumentException(constraint + " supports arrays of objects and long only, "
+          + "not " + values.getClass().getName());
+    }
+    return valid;
+  }
+
+  /**
+   * Reports the element at the index with the message of the constraint.
+   * 
+   * @return false
+   */
+  private static boolean report(final ConstraintValidatorContext context, final boolean first,
+      final int index) {
+    if (first) {
+      context.disableDefaultConstraintViolation();
+    }
+    context.buildConstraintViolationWithTemplate(context.getDefaultConstraintMessageTemplate())
+        .addBeanNode().inIterable().atIndex(index).addConstraintViolation();
+    return false;
+  }
+
+  private static boolean isValid(final Object element, final long lower, final long upper) {
+    long millis;
+    if (element instanceof Instant) {
+      millis = ((Instant) element).toEpochMilli();
+    } else {
+      millis = EpochMillis.of(element);
+      if (millis == EpochMillis.NULL) {
+        return true;
+      }
+    }
+    return millis >= lower && millis <= upper;
+  }
+}
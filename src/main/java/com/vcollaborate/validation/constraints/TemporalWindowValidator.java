@@ -0,0 +1,122 @@
+/*
+ * Copyright (C) 2012-2015 Christian Sterzl <christian.sterzl@gmail.com>
+ *
+ * This file is part of ValidationConstraints.
+ *
+ * ValidationConstraints is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * ValidationConstraints is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with ValidationConstraints.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.vcollaborate.validation.constraints;
+
+import com.vcollaborate.validation.constraints.temporal.ClockProvider;
+import com.vcollaborate.validation.constraints.temporal.EpochMillis;
+import com.vcollaborate.validation.constraints.temporal.TimeWindow;
+
+import java.lang.annotation.Annotation;
+
+import javax.validation.ConstraintValidator;
+import javax.validation.ConstraintValidatorContext;
+
+/**
+ * Validates that a date is within a {@link TimeWindow} relative to now.
+ * 
+ * <p>
+ * Now is read from the clock once per call. The absolute bounds of the window are kept until now
+ * changes, thus values validated within the same millisecond share them. The elements of arrays
+ * and {@link Iterable}s are compared with the same bounds, which are read once per call.
+ * </p>
+ * 
+ * @param <A>
+ *          the constraint
+ * @author Christian Sterzl
+ * @since 1.3.1
+ */
+public abstract class TemporalWindowValidator<A extends Annotation> implements
+    ConstraintValidator<A, Object> {
+
+  private TimeWindow window;
+  private ClockProvider clockProvider;
+  private volatile TimeWindow.Bounds bounds;
+
+  /**
+   * Creates a validator, which is initialized by {@link #initialize(Annotation)}.
+   */
+  protected TemporalWindowValidator() {
+  }
+
+  /**
+   * Creates an initialized validator.
+   * 
+   * @param window
+   *          the window relative to now
+   * @param clockProvider
+   *          the provider of the clock to compare with
+   */
+  protected TemporalWindowValidator(final TimeWindow window, final ClockProvider clockProvider) {
+    initialize(window, clockProvider);
+  }
+
+  /**
+   * @param window
+   *          the window relative to now
+   * @param clockProvider
+   *          the provider of the clock to compare with
+   */
+  protected final void initialize(final TimeWindow window, final ClockProvider clockProvider) {
+    this.window = window;
+    this.clockProvider = clockProvider;
+    this.bounds = window.at(clockProvider.getClock().millis());
+  }
+
+  /**
+   * {@inheritDoc}
+   * 
+   * @see javax.validation.ConstraintValidator#isValid(java.lang.Object,
+   *      javax.validation.ConstraintValidatorContext)
+   */
+  public final boolean isValid(final Object value, final ConstraintValidatorContext context) {
+    if (value == null) {
+      return true;
+    }
+    if (TemporalValues.isMultiple(value)) {
+      TimeWindow.Bounds current = bounds();
+      return TemporalValues.isValidEach(value, current.lower(), current.upper(), context,
+          "@" + constraint());
+    }
+    long millis = EpochMillis.of(value);
+    return millis == EpochMillis.NULL || bounds().contains(millis);
+  }
+
+  /**
+   * @return the bounds of the window at the current millis of the clock
+   */
+  private TimeWindow.Bounds bounds() {
+    long now = clockProvider.getClock().millis();
+    TimeWindow.Bounds current = bounds;
+    if (current.now() != now) {
+      current = window.at(now);
+      bounds = current;
+    }
+    return current;
+  }
+
+  /**
+   * @return the simple name of the validated constraint
+   */
+  private String constraint() {
+    String name = getClass().getSimpleName();
+    return name.endsWith("Validator") ? name.substring(0, name.length() - "Validator".length())
+        : name;
+  }
+}
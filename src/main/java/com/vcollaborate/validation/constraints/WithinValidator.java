@@ -0,0 +1,74 @@
+/*
+ * Copyright (C) 2012-2015 Christian Sterzl <christian.sterzl@gmail.com>
+ *
+ * This file is part of ValidationConstraints.
+ *
+ * ValidationConstraints is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * ValidationConstraints is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with ValidationConstraints.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.vcollaborate.validation.constraints;
+
+import com.vcollaborate.validation.constraints.temporal.ClockProvider;
+import com.vcollaborate.validation.constraints.temporal.Clocks;
+import com.vcollaborate.validation.constraints.temporal.TimeWindow;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Validates {@link Within}, the window from now up to the given duration in the future or from the
+ * given duration in the past up to now.
+ * 
+ * @author Christian Sterzl
+ * @since 1.3.1
+ */
+public class WithinValidator extends TemporalWindowValidator<Within> {
+
+  /**
+   * Creates a validator, which is initialized by {@link #initialize(Within)}.
+   */
+  public WithinValidator() {
+  }
+
+  /**
+   * Creates an initialized validator.
+   * 
+   * @param value
+   *          see {@link Within#value()}
+   * @param unit
+   *          see {@link Within#unit()}
+   * @param past
+   *          see {@link Within#past()}
+   * @param clockProvider
+   *          the provider of the clock to compare with
+   */
+  public WithinValidator(final long value, final TimeUnit unit, final boolean past,
+      final ClockProvider clockProvider) {
+    super(window(value, unit, past), clockProvider);
+  }
+
+  /**
+   * {@inheritDoc}
+   * 
+   * @see javax.validation.ConstraintValidator#initialize(java.lang.annotation.Annotation)
+   */
+  public final void initialize(final Within constraintAnnotation) {
+    initialize(window(constraintAnnotation.value(), constraintAnnotation.unit(),
+        constraintAnnotation.past()), Clocks.provider(constraintAnnotation.clock()));
+  }
+
+  private static TimeWindow window(final long value, final TimeUnit unit, final boolean past) {
+    long millis = unit.toMillis(value);
+    return past ? TimeWindow.of(-millis, 0) : TimeWindow.of(0, millis);
+  }
+}
@@ -0,0 +1,189 @@
+/*
+ * Copyright (C) 2012-2015 Christian Sterzl <christian.sterzl@gmail.com>
+ *
+ * This file is part of ValidationConstraints.
+ *
+ * ValidationConstraints is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * ValidationConstraints is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with ValidationConstraints.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package com.vcollaborate.validation.constraints.daterange;
+
+import java.util.Arrays;
+
+/**
+ * The compiled form of {@link EndDate#allowedDayRanges()}.
+ * 
+ * <p>
+ * The allowed ranges are compiled once per field into the representation fitting best:
+ * </p>
+ * <ul>
+ * <li>an arithmetic progression, e.g. every multiple of 7, answered by one division,</li>
+ * <li>a bitset if the ranges are dense, answered by one bit test,</li>
+ * <li>a sorted array otherwise, answered by a binary search.</li>
+ * </ul>
+ * 
+ * @author Christian Sterzl
+ * @since 1.3.1
+ */
+public abstract class AllowedDayRanges {
+
+  /**
+   * No allowed ranges, thus {@link EndDate#minimumDaysRange()} applies.
+   */
+  public static final AllowedDayRanges NONE = new Sorted(new long[0]);
+
+  private static final int MAX_BITSET_WORDS = 1 << 14;
+
+  AllowedDayRanges() {
+  }
+
+  /**
+   * @param allowedDayRanges
+   *          the allowed ranges in days in any order, duplicates are allowed
+   * @return the compiled ranges
+   */
+  public static AllowedDayRanges of(final long... allowedDayRanges) {
+    if (allowedDayRanges.length == 0) {
+      return NONE;
+    }
+    long[] sorted = distinct(allowedDayRanges);
+    long first = sorted[0];
+    long last = sorted[sorted.length - 1];
+
+    if (sorted.length == 1) {
+      return new Progression(first, last, 1);
+    }
+    long step = sorted[1] - sorted[0];
+    boolean progression = step > 0;
+    for (int i = 2; progression && i < sorted.length; i++) {
+      progression = sorted[i] - sorted[i - 1] == step;
+    }
+    if (progression) {
+      return new Progression(first, last, step);
+    }
+
+    long span = last - first;
+    if (span >= 0 && span / 64 < Math.min(MAX_BITSET_WORDS, 2L * sorted.length)) {
+      return new Bits(first, sorted);
+    }
+    return new Sorted(sorted);
+  }
+
+  private static long[] distinct(final long[] values) {
+    long[] sorted = values.clone();
+    Arrays.sort(sorted);
+    int length = 1;
+    for (int i = 1; i < sorted.length; i++) {
+      if (sorted[i] != sorted[length - 1]) {
+        sorted[length++] = sorted[i];
+      }
+    }
+    return Arrays.copyOf(sorted, length);
+  }
+
+  /**
+   * @return true if no ranges are allowed explicitly
+   */
+  public final boolean isEmpty() {
+    return this == NONE;
+  }
+
+  /**
+   * @param days
+   *          a range in days
+   * @return true if the range is allowed
+   */
+  public abstract boolean contains(long days);
+
+  /**
+   * first, first + step, ..., last.
+   */
+  private static final class Progression extends AllowedDayRanges {
+    private final long first;
+    private final long last;
+    private final long step;
+
+    Progression(final long first, final long last, final long step) {
+      this.first = first;
+      this.last = last;
+      this.step = step;
+    }
+
+    @Override
+    public boolean contains(final long days) {
+      return days >= first && days <= last && (days - first) % step == 0;
+    }
+
+    @Override
+    public String toString() {
+      return "AllowedDayRanges[" + first + ".." + last + " step " + step + "]";
+    }
+  }
+
+  /**
+   * One bit per day starting at offset.
+   */
+  private static final class Bits extends AllowedDayRanges {
+    private final long offset;
+    private final long[] words;
+
+    Bits(final long offset, final long[] sorted) {
+      this.offset = offset;
+      this.words = new long[(int) ((sorted[sorted.length - 1] - offset) >>> 6) + 1];
+      for (long value : sorted) {
+        long bit = value - offset;
+        words[(int) (bit >>> 6)] |= 1L << bit;
+      }
+    }
+
+    @Override
+    public boolean contains(final long days) {
+      if (days < offset) {
+        return false;
+      }
+      long bit = days - offset;
+      if (bit < 0 || bit >>> 6 >= words.length) {
+        return false;
+      }
+      return (words[(int) (bit >>> 6)] & (1L << bit)) != 0;
+    }
+
+    @Override
+    public String toString() {
+      return "AllowedDayRanges[bits from " + offset + ", " + words.length + " words]";
+    }
+  }
+
+  /**
+   * A sorted array without duplicates.
+   */
+  private static final class Sorted extends AllowedDayRanges {
+    private final long[] sorted;
+
+    Sorted(final long[] sorted) {
+      this.sorted = sorted;
+    }
+
+    @Override
+    public boolean contains(final long days) {
+      return Arrays.binarySearch(sorted, days) >= 0;
+    }
+
+    @Override
+    public String toString() {
+      return "AllowedDayRanges" + Arrays.toString(sorted);
+    }
+  }
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright (C) 2012-2015 Christian Sterzl <christian.sterzl@gmail.com>
+ *
+ * This file is part of ValidationConstraints.
+ *
+ * ValidationConstraints is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * ValidationConstraints is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with ValidationConstraints.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.vcollaborate.validation.constraints.daterange;
+
+import javax.validation.ConstraintValidator;
+import javax.validation.ConstraintValidatorContext;
+
+/**
+ * Validates the range of a bean against the {@link IntervalIndex} of its
+ * {@link IntervalIndexProvider}.
+ * 
+ * @author Christian Sterzl
+ * @since 1.3.1
+ */
+public class AvailableInValidator implements ConstraintValidator<AvailableIn, Object> {
+
+  private IntervalIndexProvider indexProvider;
+
+  /**
+   * {@inheritDoc}
+   * 
+   * @see javax.validation.ConstraintValidator#initialize(java.lang.annotation.Annotation)
+   */
+  public final void initialize(final AvailableIn annotation) {
+    try {
+      indexProvider = annotation.indexProvider().newInstance();
+    } catch (InstantiationException e) {
+      throw new IllegalStateException(
+          "Index provider " + annotation.indexProvider() + " can not be instantiated.", e);
+    } catch (IllegalAccessException e) {
+      throw new IllegalStateException(
+          "Index provider " + annotation.indexProvider() + " is not accessible.", e);
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   * 
+   * @see javax.validation.ConstraintValidator#isValid(java.lang.Object,
+   *      javax.validation.ConstraintValidatorContext)
+   */
+  public final boolean isValid(final Object instance, final ConstraintValidatorContext ctx) {
+    if (instance == null) {
+      return true;
+    }
+    IntervalIndex<?> index = indexProvider.indexFor(instance);
+    return index == null || !index.collides(instance);
+  }
+}
@@ -0,0 +1,250 @@
+/*
+ * Copyright (C) 2012-2015 Christian Sterzl <christian.sterzl@gmail.com>
+ *
+ * This file is part of ValidationConstraints.
+ *
+ * ValidationConstraints is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * ValidationConstraints is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with ValidationConstraints.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.vcollaborate.validation.constraints.daterange;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Counts business days, i.e. days which are neither weekend days nor holidays, in O(1).
+ * 
+ * <p>
+ * The years containing holidays are compiled into a bitset with one bit per business day and a
+ * table with the number of business days before each word of the bitset. Days outside of these
+ * years are counted by the weekday alone.
+ * </p>
+ * 
+ * <p>
+ * A calendar can be loaded from a file with one holiday per line in ISO format
+ * (<code>2015-12-25</code>). Empty lines and lines starting with <code>#</code> are ignored. A line
+ * <code>weekend=FRIDAY,SATURDAY</code> replaces the default weekend of Saturday and Sunday.
+ * </p>
+ * 
+ * <p>
+ * Calendars are immutable and can be shared, see {@link BusinessCalendars}.
+ * </p>
+ * 
+ * @author Christian Sterzl
+ * @since 1.3.1
+ */
+public final class BusinessCalendar {
+
+  /**
+   * Saturday and Sunday are weekend days, there are no holidays.
+   */
+  public static final BusinessCalendar WEEKENDS = of(EnumSet.of(DayOfWeek.SATURDAY,
+      DayOfWeek.SUNDAY), Collections.<LocalDate>emptySet());
+
+  private static final long MILLIS_PER_DAY = 86400000L;
+  private static final String WEEKEND = "weekend=";
+  private static final int MAX_YEARS = 1000;
+  private static final long MAX_DAYS = MAX_YEARS * 366L;
+
+  /**
+   * 1969-12-29, the Monday before the epoch.
+   */
+  private static final long EPOCH_MONDAY = -3;
+
+  /**
+   * The number of business days among the first n days of a week starting on Monday.
+   */
+  private final long[] weekPrefix = new long[8];
+
+  private final long firstDay;
+  private final long lastDay;
+  private final long[] bits;
+  private final long[] wordPrefix;
+  private final long businessDaysBeforeFirstDay;
+  private final long businessDaysBeforeLastDay;
+
+  private BusinessCalendar(final Set<DayOfWeek> weekend, final Collection<LocalDate> holidays) {
+    for (int day = 0; day < 7; day++) {
+      boolean business = !weekend.contains(DayOfWeek.MONDAY.plus(day));
+      weekPrefix[day + 1] = weekPrefix[day] + (business ? 1 : 0);
+    }
+
+    int firstYear = Integer.MAX_VALUE;
+    int lastYear = Integer.MIN_VALUE;
+    for (LocalDate holiday : holidays) {
+      firstYear = Math.min(firstYear, holiday.getYear());
+      lastYear = Math.max(lastYear, holiday.getYear());
+    }
+    if (holidays.isEmpty()) {
+      firstDay = 0;
+      lastDay = 0;
+    } else {
+      firstDay = LocalDate.of(firstYear, 1, 1).toEpochDay();
+      lastDay = LocalDate.of(lastYear + 1, 1, 1).toEpochDay();
+    }
+
+    if (lastDay - firstDay > MAX_DAYS) {
+      throw new IllegalArgumentException("The holidays span more than " + MAX_YEARS + " years.");
+    }
+    int days = (int) (lastDay - firstDay);
+    bits = new long[(days + 63) >>> 6];
+    for (int day = 0; day < days; day++) {
+      if (isBusinessWeekday(firstDay + day)) {
+        bits[day >>> 6] |= 1L << day;
+      }
+    }
+    for (LocalDate holiday : holidays) {
+      int day = (int) (holiday.toEpochDay() - firstDay);
+      bits[day >>> 6] &= ~(1L << day);
+    }
+    wordPrefix = new long[bits.length + 1];
+    for (int word = 0; word < bits.length; word++) {
+      wordPrefix[word + 1] = wordPrefix[word] + Long.bitCount(bits[word]);
+    }
+
+    businessDaysBeforeFirstDay = weekdayBusinessDaysBefore(firstDay);
+    businessDaysBeforeLastDay = businessDaysBeforeFirstDay + wordPrefix[bits.length];
+  }
+
+  /**
+   * @param weekend
+   *          the days of the week which are no business days
+   * @param holidays
+   *          the days which are no business days
+   * @return the calendar
+   */
+  public static BusinessCalendar of(final Set<DayOfWeek> weekend,
+      final Collection<LocalDate> holidays) {
+    return new BusinessCalendar(weekend, holidays);
+  }
+
+  /**
+   * Loads a calendar from a file, see the format above.
+   * 
+   * @param file
+   *          the file encoded in UTF-8
+   * @return the calendar
+   * @throws IOException
+   *           if the file can't be read
+   * @throws IllegalArgumentException
+   *           if a line is neither a date nor a weekend definition
+   */
+  public static BusinessCalendar load(final Path file) throws IOException {
+    Set<DayOfWeek> weekend = EnumSet.of(DayOfWeek.SATURDAY, DayOfWeek.SUNDAY);
+    List<LocalDate> holidays = new ArrayList<LocalDate>();
+    BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8);
+    try {
+      for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+        line = line.trim();
+        if (line.isEmpty() || line.startsWith("#")) {
+          continue;
+        }
+        if (line.startsWith(WEEKEND)) {
+          weekend = EnumSet.noneOf(DayOfWeek.class);
+          for (String day : line.substring(WEEKEND.length()).split(",")) {
+            if (!day.trim().isEmpty()) {
+              weekend.add(DayOfWeek.valueOf(day.trim().toUpperCase()));
+            }
+          }
+          continue;
+        }
+        try {
+          holidays.add(LocalDate.parse(line));
+        } catch (DateTimeParseException e) {
+          throw new IllegalArgumentException("Invalid line in " + file + ": " + line, e);
+        }
+      }
+    } finally {
+      reader.close();
+    }
+    return of(weekend, holidays);
+  }
+
+  /**
+   * @param startDay
+   *          the first day as days since the epoch, inclusive
+   * @param endDay
+   *          the last day as days since the epoch, exclusive
+   * @return the number of business days between both days, negative if the end is before the start
+   */
+  public long businessDays(final long startDay, final long endDay) {
+    return businessDaysBefore(endDay) - businessDaysBefore(startDay);
+  }
+
+  /**
+   * Counts the business days between two instants in the default time zone. The day of the end is
+   * not counted.
+   * 
+   * @param startDate
+   *          the start in milliseconds since the epoch
+   * @param endDate
+   *          the end in milliseconds since the epoch
+   * @return the number of business days between both instants
+   */
+  public long businessDaysBetween(final long startDate, final long endDate) {
+    ZoneId zone = ZoneId.systemDefault();
+    return businessDays(epochDay(startDate, zone), epochDay(endDate, zone));
+  }
+
+  private static long epochDay(final long millis, final ZoneId zone) {
+    long offset = zone.getRules().getOffset(Instant.ofEpochMilli(millis))
+        .getTotalSeconds() * 1000L;
+    return Math.floorDiv(millis + offset, MILLIS_PER_DAY);
+  }
+
+  /**
+   * @return the number of business days from the Monday before the epoch to the given day,
+   *         negative for days before that Monday
+   */
+  private long businessDaysBefore(final long day) {
+    if (day <= firstDay) {
+      return weekdayBusinessDaysBefore(day);
+    }
+    if (day >= lastDay) {
+      return businessDaysBeforeLastDay + weekdayBusinessDaysBefore(day)
+          - weekdayBusinessDaysBefore(lastDay);
+    }
+    int index = (int) (day - firstDay);
+    int word = index >>> 6;
+    return businessDaysBeforeFirstDay + wordPrefix[word]
+        + Long.bitCount(bits[word] & ((1L << index) - 1));
+  }
+
+  private boolean isBusinessWeekday(final long day) {
+    int dayOfWeek = (int) Math.floorMod(day - EPOCH_MONDAY, 7);
+    return weekPrefix[dayOfWeek + 1] > weekPrefix[dayOfWeek];
+  }
+
+  /**
+   * Counts the business days by the weekday alone.
+   */
+  private long weekdayBusinessDaysBefore(final long day) {
+    long days = day - EPOCH_MONDAY;
+    return Math.floorDiv(days, 7) * weekPrefix[7] + weekPrefix[(int) Math.floorMod(days, 7)];
+  }
+}
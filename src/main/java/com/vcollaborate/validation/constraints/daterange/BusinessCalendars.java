@@ -0,0 +1,94 @@
+/*
+ * Copyright (C) 2012-2015 Christian Sterzl <christian.sterzl@gmail.com>
+ *
+ * This file is part of ValidationConstraints.
+ *
+ * ValidationConstraints is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * ValidationConstraints is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with ValidationConstraints.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.vcollaborate.validation.constraints.daterange;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * The {@link BusinessCalendar}s referenced by {@link EndDate#businessCalendar()}, shared by all
+ * validators.
+ * 
+ * <p>
+ * The empty name is {@link BusinessCalendar#WEEKENDS}, unless another calendar is registered with
+ * it.
+ * </p>
+ * 
+ * @author Christian Sterzl
+ * @since 1.3.1
+ */
+public final class BusinessCalendars {
+
+  private static final ConcurrentMap<String, BusinessCalendar> CALENDARS =
+      new ConcurrentHashMap<String, BusinessCalendar>();
+
+  static {
+    CALENDARS.put("", BusinessCalendar.WEEKENDS);
+  }
+
+  private BusinessCalendars() {
+  }
+
+  /**
+   * Registers a calendar, replacing the calendar registered with the same name.
+   * 
+   * @param name
+   *          the name used in {@link EndDate#businessCalendar()}
+   * @param calendar
+   *          the calendar
+   */
+  public static void register(final String name, final BusinessCalendar calendar) {
+    CALENDARS.put(name, calendar);
+  }
+
+  /**
+   * Loads a calendar from a file with {@link BusinessCalendar#load(Path)} and registers it.
+   * 
+   * @param name
+   *          the name used in {@link EndDate#businessCalendar()}
+   * @param file
+   *          the file
+   * @return the loaded calendar
+   * @throws IOException
+   *           if the file can't be read
+   */
+  public static BusinessCalendar load(final String name, final Path file) throws IOException {
+    BusinessCalendar calendar = BusinessCalendar.load(file);
+    register(name, calendar);
+    return calendar;
+  }
+
+  /**
+   * @param name
+   *          the name of the calendar
+   * @return the calendar
+   * @throws IllegalStateException
+   *           if no calendar is registered with the name
+   */
+  public static BusinessCalendar get(final String name) {
+    BusinessCalendar calendar = CALENDARS.get(name);
+    if (calendar == null) {
+      throw new IllegalStateException("No business calendar registered with name " + name + ".");
+    }
+    return calendar;
+  }
+}
@@ -40,4 +40,10 @@ public @interface DateRange {
   Class<? extends Payload>[] payload() default {};
 
   String message() default "Invalid range between dates";
+
+  /**
+   * @return true to report a violation for each invalid pair at the {@link EndDate} field of the
+   *         pair instead of one violation for the class
+   */
+  boolean reportEachId() default false;
 }
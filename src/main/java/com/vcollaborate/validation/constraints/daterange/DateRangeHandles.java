@@ -0,0 +1,133 @@
+/*
+ * Copyright (C) 2012-2015 Christian Sterzl <christian.sterzl@gmail.com>
+ *
+ * This file is part of ValidationConstraints.
+ *
+ * ValidationConstraints is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * ValidationConstraints is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with ValidationConstraints.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package com.vcollaborate.validation.constraints.daterange;
+
+import com.vcollaborate.validation.constraints.daterange.DateRangeMetadata.DateRangePair;
+import com.vcollaborate.validation.constraints.temporal.EpochMillis;
+import com.vcollaborate.validation.constraints.temporal.IsoDateTime;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+
+/**
+ * Composes the validation of all {@link DateRangePair}s of a class into one {@link MethodHandle} of
+ * type <code>(Object)boolean</code>.
+ * 
+ * <p>
+ * The handle is composed once per class and cached in the {@link ClassValue} entry of the bean's
+ * {@link DateRangeMetadata}, thus validating a bean invokes one handle instead of reflecting over
+ * its fields. This helps for beans from libraries, which can't be processed by
+ * validation.constraints.processor.
+ * </p>
+ * 
+ * @author Christian Sterzl
+ * @since 1.3.1
+ */
+final class DateRangeHandles {
+
+  /**
+   * {@link EpochMillis#of(Object)}.
+   */
+  static final MethodHandle EPOCH_MILLIS;
+
+  /**
+   * {@link IsoDateTime#parse(CharSequence)}.
+   */
+  static final MethodHandle PARSE_ISO;
+
+  private static final MethodHandle IS_VALID_RANGE;
+  private static final MethodHandle IS_VALID_BUSINESS_RANGE;
+  private static final MethodHandle TRUE = constant(true);
+  private static final MethodHandle FALSE = constant(false);
+
+  static {
+    MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+    try {
+      EPOCH_MILLIS = lookup.findStatic(EpochMillis.class, "of", MethodType.methodType(long.class,
+          Object.class));
+      PARSE_ISO = lookup.findStatic(IsoDateTime.class, "parse", MethodType.methodType(long.class,
+          CharSequence.class));
+      IS_VALID_RANGE = lookup.findStatic(DateRangeValidator.class, "isValidRange", MethodType
+          .methodType(boolean.class, long.class, long.class, long.class, AllowedDayRanges.class));
+      IS_VALID_BUSINESS_RANGE = lookup.findStatic(DateRangeValidator.class,
+          "isValidBusinessRange", MethodType.methodType(boolean.class, long.class, long.class,
+              long.class, String.class));
+    } catch (ReflectiveOperationException e) {
+      throw new ExceptionInInitializerError(e);
+    }
+  }
+
+  private DateRangeHandles() {
+  }
+
+  /**
+   * @param pairs
+   *          the pairs of a class
+   * @return a handle of type <code>(Object)boolean</code>, which is true if all pairs are valid
+   */
+  static MethodHandle validation(final DateRangePair[] pairs) {
+    MethodHandle validation = TRUE;
+    for (int i = pairs.length - 1; i >= 0; i--) {
+      DateRangePair pair = pairs[i];
+      if (pair.duplicatedEndDate) {
+        continue;
+      }
+      if (pair.end.minimumBusinessDays > 0) {
+        validation = MethodHandles.guardWithTest(check(pair, MethodHandles.insertArguments(
+            IS_VALID_BUSINESS_RANGE, 2, pair.end.minimumBusinessDays,
+            pair.end.businessCalendar)), validation, FALSE);
+      }
+      validation = MethodHandles.guardWithTest(check(pair, MethodHandles.insertArguments(
+          IS_VALID_RANGE, 2, pair.end.minimumDaysRange, pair.end.allowedDayRanges)), validation,
+          FALSE);
+    }
+    return validation;
+  }
+
+  /**
+   * Adapts a check of type <code>(long,long)boolean</code> to the bean of a pair.
+   */
+  private static MethodHandle check(final DateRangePair pair, final MethodHandle check) {
+    MethodHandle filtered = MethodHandles.filterArguments(check, 0, pair.start.millis,
+        pair.end.millis);
+    return MethodHandles.permuteArguments(filtered, MethodType.methodType(boolean.class,
+        Object.class), 0, 0);
+  }
+
+  /**
+   * Rethrows unchecked exceptions thrown by a handle and wraps everything else.
+   */
+  static RuntimeException rethrow(final Throwable e) {
+    if (e instanceof RuntimeException) {
+      throw (RuntimeException) e;
+    }
+    if (e instanceof Error) {
+      throw (Error) e;
+    }
+    throw new RuntimeException("This should never happen. If so, please report a bug!", e);
+  }
+
+  private static MethodHandle constant(final boolean value) {
+    return MethodHandles.dropArguments(MethodHandles.constant(boolean.class, value), 0,
+        Object.class);
+  }
+}
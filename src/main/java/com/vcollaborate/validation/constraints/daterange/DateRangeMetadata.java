@@ -0,0 +1,439 @@
+/*
+ * Copyright (C) 2012-2015 Christian Sterzl <christian.sterzl@gmail.com>
+ *
+ * This file is part of ValidationConstraints.
+ *
+ * ValidationConstraints is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * ValidationConstraints is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with ValidationConstraints.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package com.vcollaborate.validation.constraints.daterange;
+
+import com.vcollaborate.validation.constraints.generated.GeneratedValidator;
+import com.vcollaborate.validation.constraints.generated.GeneratedValidators;
+import com.vcollaborate.validation.constraints.temporal.EpochMillis;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.AccessibleObject;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The resolved {@link StartDate} and {@link EndDate} fields of a class annotated with
+ * {@link DateRange}.
+ * 
+ * <p>
+ * Instances are computed once per class and cached in a {@link ClassValue}, thus the cache does not
+ * prevent a class and its classloader from being unloaded.
+ * </p>
+ * 
+ * <p>
+ * The fields of the superclasses are included, the fields of a superclass first. They are taken
+ * from the cached metadata of the superclass, thus each class of a hierarchy is scanned once and
+ * its fields are resolved once, no matter how many subclasses it has.
+ * </p>
+ * 
+ * <p>
+ * Getters may be annotated instead of fields, e.g. to read lazily loaded proxies. The annotations
+ * of a record component are found on its field and its accessor, the accessor is used then.
+ * </p>
+ * 
+ * <p>
+ * The fields are read through {@link MethodHandle}s, which are resolved and access checked once
+ * when the class is scanned. Start and end dates with the same id are paired when the class is
+ * scanned too, and all pairs are composed into one {@link MethodHandle} by
+ * {@link DateRangeHandles}.
+ * </p>
+ * 
+ * @author Christian Sterzl
+ * @since 1.3.1
+ */
+final class DateRangeMetadata {
+
+  private static final LongAdder HITS = new LongAdder();
+  private static final LongAdder MISSES = new LongAdder();
+
+  private static final ClassValue<DateRangeMetadata> CACHE = new ClassValue<DateRangeMetadata>() {
+    @Override
+    protected DateRangeMetadata computeValue(final Class<?> type) {
+      MISSES.increment();
+      return new DateRangeMetadata(type);
+    }
+  };
+
+  private final StartDateField[] startDateFields;
+  private final EndDateField[] endDateFields;
+  private final DateRangePair[] pairs;
+  private final DateRangePair[] sequence;
+  private final MethodHandle validation;
+  private final GeneratedValidator<Object> generated;
+
+  /** Cleared by the first lookup after the class was scanned. */
+  private volatile boolean unseen = true;
+
+  private DateRangeMetadata(final Class<?> type) {
+    List<StartDateField> starts = new ArrayList<StartDateField>();
+    List<EndDateField> ends = new ArrayList<EndDateField>();
+
+    Class<?> superclass = type.getSuperclass();
+    if (superclass != null && superclass != Object.class) {
+      DateRangeMetadata parent = forClass(superclass);
+      starts.addAll(Arrays.asList(parent.startDateFields));
+      ends.addAll(Arrays.asList(parent.endDateFields));
+    }
+
+    Set<String> startProperties = new HashSet<String>();
+    Set<String> endProperties = new HashSet<String>();
+    for (Method method : type.getDeclaredMethods()) {
+      if (!isAccessor(method)) {
+        continue;
+      }
+      StartDate startDate = method.getAnnotation(StartDate.class);
+      if (startDate != null) {
+        starts.add(new StartDateField(method, startDate));
+        startProperties.add(DateField.propertyName(method));
+      }
+      EndDate endDate = method.getAnnotation(EndDate.class);
+      if (endDate != null) {
+        ends.add(new EndDateField(method, endDate));
+        endProperties.add(DateField.propertyName(method));
+      }
+    }
+
+    // Annotations of record components are on the field and the accessor
+    for (Field field : type.getDeclaredFields()) {
+      StartDate startDate = field.getAnnotation(StartDate.class);
+      if (startDate != null && !startProperties.contains(field.getName())) {
+        starts.add(new StartDateField(field, startDate));
+      }
+      EndDate endDate = field.getAnnotation(EndDate.class);
+      if (endDate != null && !endProperties.contains(field.getName())) {
+        ends.add(new EndDateField(field, endDate));
+      }
+    }
+
+    this.startDateFields = starts.toArray(new StartDateField[starts.size()]);
+    this.endDateFields = ends.toArray(new EndDateField[ends.size()]);
+    this.pairs = pairs(startDateFields, endDateFields);
+    this.sequence = sequence(pairs);
+    this.validation = DateRangeHandles.validation(pairs);
+    this.generated = GeneratedValidators.dateRange(type);
+  }
+
+  private static boolean isAccessor(final Method method) {
+    return method.getParameterTypes().length == 0 && method.getReturnType() != void.class
+        && !Modifier.isStatic(method.getModifiers()) && !method.isBridge()
+        && !method.isSynthetic();
+  }
+
+  private static DateRangePair[] pairs(final StartDateField[] starts, final EndDateField[] ends) {
+    Map<Integer, StartDateField> startsById = new LinkedHashMap<Integer, StartDateField>();
+    for (StartDateField start : starts) {
+      startsById.put(start.id, start);
+    }
+
+    Map<Integer, DateRangePair> pairsById = new LinkedHashMap<Integer, DateRangePair>();
+    for (EndDateField end : ends) {
+      StartDateField start = startsById.get(end.id);
+      if (start == null) {
+        continue;
+      }
+      DateRangePair pair = pairsById.get(end.id);
+      if (pair == null) {
+        pairsById.put(end.id, new DateRangePair(start, end, false));
+      } else if (!pair.duplicatedEndDate) {
+        pairsById.put(end.id, new DateRangePair(start, pair.end, true));
+      }
+    }
+
+    return pairsById.values().toArray(new DateRangePair[pairsById.size()]);
+  }
+
+  private static DateRangePair[] sequence(final DateRangePair[] pairs) {
+    List<DateRangePair> sequence = new ArrayList<DateRangePair>();
+    for (DateRangePair pair : pairs) {
+      if (!pair.duplicatedEndDate) {
+        sequence.add(pair);
+      }
+    }
+    DateRangePair[] sorted = sequence.toArray(new DateRangePair[sequence.size()]);
+    Arrays.sort(sorted, new Comparator<DateRangePair>() {
+      @Override
+      public int compare(final DateRangePair left, final DateRangePair right) {
+        return left.start.id < right.start.id ? -1 : left.start.id == right.start.id ? 0 : 1;
+      }
+    });
+    return sorted;
+  }
+
+  /**
+   * Returns the cached metadata of the given class and computes it on the first call.
+   * 
+   * @param type
+   *          the class annotated with {@link DateRange}
+   * @return the metadata, never null
+   */
+  static DateRangeMetadata forClass(final Class<?> type) {
+    DateRangeMetadata metadata = CACHE.get(type);
+    if (metadata.unseen) {
+      metadata.unseen = false;
+    }
+    return metadata;
+  }
+
+  /**
+   * Like {@link #forClass(Class)}, but counts a hit if the class was looked up before.
+   * 
+   * @param type
+   *          the class validated by {@link DateRangeValidator}
+   * @return the metadata, never null
+   */
+  static DateRangeMetadata forValidation(final Class<?> type) {
+    DateRangeMetadata metadata = CACHE.get(type);
+    if (metadata.unseen) {
+      metadata.unseen = false;
+    } else {
+      HITS.increment();
+    }
+    return metadata;
+  }
+
+  /**
+   * @return the number of validations by {@link DateRangeValidator} which found the class already
+   *         cached, including classes scanned as the superclass of another class
+   */
+  static long hits() {
+    return HITS.sum();
+  }
+
+  /**
+   * @return the number of classes scanned, superclasses included
+   */
+  static long misses() {
+    return MISSES.sum();
+  }
+
+  StartDateField[] startDateFields() {
+    return startDateFields;
+  }
+
+  EndDateField[] endDateFields() {
+    return endDateFields;
+  }
+
+  DateRangePair[] pairs() {
+    return pairs;
+  }
+
+  /**
+   * @return the pairs ordered by their id, without pairs with more than one end date
+   */
+  DateRangePair[] sequence() {
+    return sequence;
+  }
+
+  /**
+   * @param id
+   *          the id of {@link StartDate} and {@link EndDate}
+   * @return the pair with the given id or <code>null</code>
+   */
+  DateRangePair pair(final int id) {
+    for (DateRangePair pair : pairs) {
+      if (pair.start.id == id) {
+        return pair;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Validates all pairs with one {@link MethodHandle} composed for the class.
+   * 
+   * @param instance
+   *          the validated object
+   * @return true if all pairs are valid
+   */
+  boolean isValid(final Object instance) {
+    try {
+      return (boolean) validation.invokeExact(instance);
+    } catch (Throwable e) {
+      throw DateRangeHandles.rethrow(e);
+    }
+  }
+
+  /**
+   * @return the validator generated at compile time for the class or <code>null</code>
+   */
+  GeneratedValidator<Object> generated() {
+    return generated;
+  }
+
+  /**
+   * A field or getter annotated with {@link StartDate} or {@link EndDate}.
+   */
+  abstract static class DateField {
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+    private static final MethodType MILLIS_TYPE = MethodType.methodType(long.class, Object.class);
+    private static final MethodType TEXT_TYPE = MethodType.methodType(CharSequence.class,
+        Object.class);
+
+    final String name;
+    final int id;
+    final MethodHandle millis;
+
+    DateField(final Field field, final int id) {
+      this.name = field.getName();
+      this.id = id;
+      this.millis = millis(field, field.getType());
+    }
+
+    DateField(final Method getter, final int id) {
+      this.name = propertyName(getter);
+      this.id = id;
+      this.millis = millis(getter, getter.getReturnType());
+    }
+
+    /**
+     * @return the name of the property of a getter, the name of the method itself if it is no bean
+     *         getter, like the accessors of records
+     */
+    static String propertyName(final Method getter) {
+      String name = getter.getName();
+      int prefix = name.startsWith("get") ? 3 : name.startsWith("is") ? 2 : 0;
+      if (prefix == 0 || name.length() == prefix
+          || !Character.isUpperCase(name.charAt(prefix))) {
+        return name;
+      }
+      return Character.toLowerCase(name.charAt(prefix)) + name.substring(prefix + 1);
+    }
+
+    private static MethodHandle millis(final AccessibleObject accessor, final Class<?> type) {
+      accessor.setAccessible(true);
+      try {
+        MethodHandle getter;
+        if (accessor instanceof Field) {
+          getter = MethodHandles.lookup().unreflectGetter((Field) accessor);
+        } else {
+          getter = MethodHandles.lookup().unreflect((Method) accessor);
+        }
+        if (type == long.class) {
+          return getter.asType(MILLIS_TYPE);
+        }
+        if (CharSequence.class.isAssignableFrom(type)) {
+          return MethodHandles.filterReturnValue(getter.asType(TEXT_TYPE),
+              DateRangeHandles.PARSE_ISO);
+        }
+        return MethodHandles.filterReturnValue(getter.asType(GETTER_TYPE),
+            DateRangeHandles.EPOCH_MILLIS);
+      } catch (IllegalAccessException e) {
+        throw new IllegalStateException(accessor + " is not accessible.", e);
+      }
+    }
+
+    /**
+     * @param instance
+     *          the validated object
+     * @return the value of this field in milliseconds since the epoch or {@link EpochMillis#NULL}
+     */
+    final long millisOf(final Object instance) {
+      try {
+        return (long) millis.invokeExact(instance);
+      } catch (Throwable e) {
+        throw DateRangeHandles.rethrow(e);
+      }
+    }
+  }
+
+  /**
+   * A field or getter annotated with {@link StartDate}.
+   */
+  static final class StartDateField extends DateField {
+
+    StartDateField(final Field field, final StartDate annotation) {
+      super(field, annotation.id());
+    }
+
+    StartDateField(final Method getter, final StartDate annotation) {
+      super(getter, annotation.id());
+    }
+  }
+
+  /**
+   * A field or getter annotated with {@link EndDate}.
+   */
+  static final class EndDateField extends DateField {
+    final long minimumDaysRange;
+    final AllowedDayRanges allowedDayRanges;
+    final long minimumBusinessDays;
+    final String businessCalendar;
+
+    EndDateField(final Field field, final EndDate annotation) {
+      super(field, annotation.id());
+      this.minimumDaysRange = annotation.minimumDaysRange();
+      this.allowedDayRanges = AllowedDayRanges.of(annotation.allowedDayRanges());
+      this.minimumBusinessDays = annotation.minimumBusinessDays();
+      this.businessCalendar = annotation.businessCalendar();
+    }
+
+    EndDateField(final Method getter, final EndDate annotation) {
+      super(getter, annotation.id());
+      this.minimumDaysRange = annotation.minimumDaysRange();
+      this.allowedDayRanges = AllowedDayRanges.of(annotation.allowedDayRanges());
+      this.minimumBusinessDays = annotation.minimumBusinessDays();
+      this.businessCalendar = annotation.businessCalendar();
+    }
+
+    /**
+     * @param startDate
+     *          the start in milliseconds since the epoch or {@link EpochMillis#NULL}
+     * @param endDate
+     *          the end in milliseconds since the epoch or {@link EpochMillis#NULL}
+     * @return true if the range to this end date is valid
+     */
+    boolean isValidRange(final long startDate, final long endDate) {
+      return DateRangeValidator.isValidRange(startDate, endDate, minimumDaysRange,
+          allowedDayRanges)
+          && (minimumBusinessDays <= 0 || DateRangeValidator.isValidBusinessRange(startDate,
+              endDate, minimumBusinessDays, businessCalendar));
+    }
+  }
+
+  /**
+   * A start date and the end date with the same id.
+   */
+  static final class DateRangePair {
+    final StartDateField start;
+    final EndDateField end;
+    final boolean duplicatedEndDate;
+
+    DateRangePair(final StartDateField start, final EndDateField end,
+        final boolean duplicatedEndDate) {
+      this.start = start;
+      this.end = end;
+      this.duplicatedEndDate = duplicatedEndDate;
+    }
+  }
+}
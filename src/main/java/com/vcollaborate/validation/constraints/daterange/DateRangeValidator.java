@@ -19,15 +19,8 @@
 
 package com.vcollaborate.validation.constraints.daterange;
 
-import org.joda.time.DateTime;
-import org.joda.time.Duration;
-import org.joda.time.convert.ConverterManager;
-
-import java.lang.annotation.Annotation;
-import java.lang.reflect.Field;
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
+import com.vcollaborate.validation.constraints.daterange.DateRangeMetadata.DateRangePair;
+import com.vcollaborate.validation.constraints.temporal.EpochMillis;
 
 import javax.validation.ConstraintValidator;
 import javax.validation.ConstraintValidatorContext;
@@ -35,16 +28,27 @@ import javax.validation.ConstraintValidatorContext;
 /**
  * Validates if two given dates are within a valid date range.
  * 
+ * If the annotation processor of validation.constraints.processor generated a validator for the
+ * class, the generated validator is used instead of the fields discovered by reflection.
+ * 
+ * The pairs are checked in the order of their end dates and the validation stops at the first
+ * invalid pair. If {@link DateRange#reportEachId()} is set, each pair is checked once instead to
+ * report each invalid pair.
+ * 
  * @author Christian Sterzl
  */
 public class DateRangeValidator implements ConstraintValidator<DateRange, Object> {
 
-  private static final double MILLILSPERDAY = 86400000.0;
+  private static final long MILLIS_PER_DAY = 86400000L;
 
   static {
-	ConverterManager.getInstance().addInstantConverter(new ZonedDateTimeConverter());
+    if (EpochMillis.isJodaTimeAvailable()) {
+      JavaTimeConverters.register();
+    }
   }
-  
+
+  private boolean reportEachId;
+
   /**
    * {@inheritDoc}
    * 
@@ -52,74 +56,118 @@ public class DateRangeValidator implements ConstraintValidator<DateRange, Object
    *      javax.validation.ConstraintValidatorContext)
    */
   public final boolean isValid(final Object instance, final ConstraintValidatorContext ctx) {
-    List<Field> startDateFields = new ArrayList<Field>();
-    List<Field> endDateFields = new ArrayList<Field>();
-
-    annotatedFields(instance, startDateFields, endDateFields);
-
-    if (startDateFields.isEmpty() || endDateFields.isEmpty()) {
-      return true;
+    DateRangeMetadata metadata = DateRangeMetadata.forValidation(instance.getClass());
+    if (reportEachId && ctx != null) {
+      return reportInvalidPairs(metadata, instance, ctx);
     }
+    if (metadata.generated() != null) {
+      return metadata.generated().isValid(instance);
+    }
+    return metadata.isValid(instance);
+  }
 
-    HashMap<Integer, Interval> intervals = new HashMap<Integer, Interval>();
-
-    try {
-      for (Field field : startDateFields) {
-        int idAnnotated = idFromStartDate(field);
-        intervals.put(idAnnotated, new Interval(calendarInstanceFromField(instance, field)));
-      }
-
-      for (Field field : endDateFields) {
-        int idAnnotated = idFromEndDate(field);
-        long expectedInterval = field.getAnnotation(EndDate.class).minimumDaysRange();
-        long[] allowedRanges = field.getAnnotation(EndDate.class).allowedDayRanges();
-        Interval intervalWithStartDate = intervals.get(idAnnotated);
-
-        intervalWithStartDate.intervalLimitInformation(calendarInstanceFromField(instance, field),
-            expectedInterval, allowedRanges);
+  /**
+   * Checks each pair once and adds a violation for each invalid pair at its {@link EndDate}
+   * property instead of the default violation.
+   * 
+   * @return true if all pairs are valid
+   */
+  private static boolean reportInvalidPairs(final DateRangeMetadata metadata,
+      final Object instance, final ConstraintValidatorContext ctx) {
+    boolean valid = true;
+    for (DateRangePair pair : metadata.sequence()) {
+      if (!pair.end.isValidRange(pair.start.millisOf(instance), pair.end.millisOf(instance))) {
+        if (valid) {
+          ctx.disableDefaultConstraintViolation();
+          valid = false;
+        }
+        ctx.buildConstraintViolationWithTemplate(ctx.getDefaultConstraintMessageTemplate())
+            .addPropertyNode(pair.end.name).addConstraintViolation();
       }
-    } catch (IllegalAccessException e) {
-      throw new RuntimeException("This should never happen. If so, please report a bug!", e);
     }
+    return valid;
+  }
 
-    for (Interval interval : intervals.values()) {
-      if (!interval.isValid()) {
-        return false;
-      }
+  /**
+   * Checks one pair of dates. If allowedDayRanges is empty, minimumDaysRange will be used,
+   * otherwise the information in allowedDayRanges, but not both.
+   * 
+   * @param startDate
+   *          the lower range boundary in milliseconds since the epoch or {@link EpochMillis#NULL}
+   * @param endDate
+   *          the upper range boundary in milliseconds since the epoch or {@link EpochMillis#NULL}
+   * @param minimumDaysRange
+   *          the minimum range
+   * @param allowedDayRanges
+   *          the compiled allowed ranges, {@link AllowedDayRanges#NONE} if there are none
+   * @return true if the expected minimum range is lower than the exact range or the exact interval
+   *         is contained in the list of allowed ranges or one of boundaries is null otherwise false
+   */
+  public static boolean isValidRange(final long startDate, final long endDate,
+      final long minimumDaysRange, final AllowedDayRanges allowedDayRanges) {
+    if (startDate == EpochMillis.NULL || endDate == EpochMillis.NULL) {
+      return true;
+    }
+    long duration = endDate - startDate;
+    if (duration < 0) {
+      return false;
     }
 
-    return true;
-  }
+    long durationInDays = days(duration);
 
-  private void annotatedFields(final Object instance, final List<Field> startDateFields,
-      final List<Field> endDateFields) {
-    Field[] allModelFields = instance.getClass().getDeclaredFields();
-    for (Field field : allModelFields) {
-      if (hasAnnotation(field, StartDate.class)) {
-        startDateFields.add(field);
-      }
-      if (hasAnnotation(field, EndDate.class)) {
-        endDateFields.add(field);
-      }
+    if (allowedDayRanges.isEmpty()) {
+      return durationInDays >= minimumDaysRange;
     }
+    return allowedDayRanges.contains(durationInDays);
   }
 
-  private int idFromStartDate(final Field field) {
-    return field.getAnnotation(StartDate.class).id();
+  /**
+   * Checks the business days between two dates.
+   * 
+   * @param startDate
+   *          the lower range boundary in milliseconds since the epoch or {@link EpochMillis#NULL}
+   * @param endDate
+   *          the upper range boundary in milliseconds since the epoch or {@link EpochMillis#NULL}
+   * @param minimumBusinessDays
+   *          the minimum number of business days
+   * @param businessCalendar
+   *          the name of the calendar in {@link BusinessCalendars}
+   * @return true if there are at least minimumBusinessDays business days between both dates or one
+   *         of boundaries is null otherwise false
+   */
+  public static boolean isValidBusinessRange(final long startDate, final long endDate,
+      final long minimumBusinessDays, final String businessCalendar) {
+    if (startDate == EpochMillis.NULL || endDate == EpochMillis.NULL) {
+      return true;
+    }
+    return BusinessCalendars.get(businessCalendar).businessDaysBetween(startDate, endDate)
+        >= minimumBusinessDays;
   }
 
-  private int idFromEndDate(final Field field) {
-    return field.getAnnotation(EndDate.class).id();
+  /**
+   * @param duration
+   *          a positive duration in milliseconds
+   * @return the duration in days, rounded to the nearest day
+   */
+  static long days(final long duration) {
+    // Rounding fixes #1
+    return (duration + MILLIS_PER_DAY / 2) / MILLIS_PER_DAY;
   }
 
-  private Object calendarInstanceFromField(final Object instance, final Field field)
-      throws IllegalAccessException {
-    field.setAccessible(true);
-    return field.get(instance);
+  /**
+   * @return the number of validations by this validator which found the annotated fields of the
+   *         validated class in the metadata cache
+   */
+  public static long metadataCacheHits() {
+    return DateRangeMetadata.hits();
   }
 
-  private boolean hasAnnotation(final Field field, final Class<? extends Annotation> annotation) {
-    return field.getAnnotation(annotation) != null;
+  /**
+   * @return the number of classes scanned for annotated fields, superclasses of the validated
+   *         classes included
+   */
+  public static long metadataCacheMisses() {
+    return DateRangeMetadata.misses();
   }
 
   /**
@@ -128,84 +176,6 @@ public class DateRangeValidator implements ConstraintValidator<DateRange, Object
    * @see javax.validation.ConstraintValidator#initialize(java.lang.annotation.Annotation)
    */
   public void initialize(final DateRange annotation) {
-
-  }
-
-  private class Interval {
-    private DateTime startDate;
-    private DateTime endDate;
-    private long expectedDaysInterval;
-    private long[] allowedRanges = {};
-    private boolean duplicatedEndDate;
-
-    /**
-     * 
-     * @param startDate
-     *          the lower range boundary
-     */
-    public Interval(final Object startDate) {
-      if (startDate != null) {
-        this.startDate = new DateTime(startDate);
-      }
-    }
-
-    /**
-     * 
-     * @return true if the expected minimum range is lower than the exact range or the exact
-     *         interval is contained in the list of allowed ranges or one of boundaries is null or
-     *         the end date can't be determined otherwise false
-     */
-    public boolean isValid() {
-      if (duplicatedEndDate || endDate == null || startDate == null) {
-        return true;
-      }
-      Duration duration = new Duration(startDate, endDate);
-      if(duration.getMillis() < 0) return false;
-
-      // Rounding fixes #1
-      long durationInDays = Math.round(duration.getMillis() / MILLILSPERDAY);
-
-      if (this.allowedRanges.length == 0) {
-        return durationInDays >= expectedDaysInterval;
-      } else {
-        for (int i = 0; i < this.allowedRanges.length; i++) {
-          if (this.allowedRanges[i] == durationInDays) {
-            return true;
-          }
-        }
-        return false;
-      }
-    }
-
-    /**
-     * Writes the variables needed to determine if an interval is valid or not. Call this method for
-     * each upper boundary.
-     * 
-     * If allowedRanges is empty, expectedDaysInterval will be used, otherwise the information in
-     * allowedRanges, but not both.
-     * 
-     * @param endDate
-     *          the upper boundary
-     * @param expectedDaysInterval
-     *          the minimum range
-     * @param allowedRanges
-     *          an empty array or a list of allowed ranges
-     */
-    public void intervalLimitInformation(final Object endDate, final long expectedDaysInterval,
-        final long[] allowedRanges) {
-
-      if (this.endDate == null) {
-        if (endDate != null) {
-          this.endDate = new DateTime(endDate);
-        }
-        if (allowedRanges.length == 0) {
-          this.expectedDaysInterval = expectedDaysInterval;
-        } else {
-          this.allowedRanges = allowedRanges;
-        }
-      } else {
-        duplicatedEndDate = true;
-      }
-    }
+    reportEachId = annotation.reportEachId();
   }
 }
@@ -0,0 +1,61 @@
+/*
+ * Copyright (C) 2012-2015 Christian Sterzl <christian.sterzl@gmail.com>
+ *
+ * This file is part of ValidationConstraints.
+ *
+ * ValidationConstraints is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * ValidationConstraints is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with ValidationConstraints.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.vcollaborate.validation.constraints.daterange;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import javax.validation.Constraint;
+import javax.validation.Payload;
+
+/**
+ * Validates that the ranges given by the {@link StartDate}s and {@link EndDate}s of a class form a
+ * sequence in the order of their ids, e.g. the legs of an itinerary.
+ * 
+ * <p>
+ * Each range has to be valid like with {@link DateRange}, and each range has to end before or when
+ * the range with the next higher id starts. Ranges with a null boundary are skipped.
+ * </p>
+ * 
+ * @author Christian Sterzl
+ * @since 1.3.1
+ */
+@Constraint(validatedBy = DateSequenceValidator.class)
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface DateSequence {
+  Class<?>[] groups() default {};
+
+  Class<? extends Payload>[] payload() default {};
+
+  String message() default "Invalid sequence of dates";
+
+  /**
+   * @return true if each range has to start exactly when the previous one ends
+   */
+  boolean contiguous() default false;
+
+  /**
+   * @return the maximum gap in days between a range and the next one
+   */
+  long maximumGapDays() default Long.MAX_VALUE;
+}
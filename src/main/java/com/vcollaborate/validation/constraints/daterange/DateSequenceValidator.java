@@ -0,0 +1,99 @@
+/*
+ * Copyright (C) 2012-2015 Christian Sterzl <christian.sterzl@gmail.com>
+ *
+ * This file is part of ValidationConstraints.
+ *
+ * ValidationConstraints is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * ValidationConstraints is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with ValidationConstraints.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.vcollaborate.validation.constraints.daterange;
+
+import com.vcollaborate.validation.constraints.daterange.DateRangeMetadata.DateRangePair;
+import com.vcollaborate.validation.constraints.temporal.EpochMillis;
+
+import javax.validation.ConstraintValidator;
+import javax.validation.ConstraintValidatorContext;
+
+/**
+ * Validates a {@link DateSequence} in one pass over the pairs of the class, which are ordered by
+ * their id once when the class is scanned.
+ * 
+ * <p>
+ * The first invalid range or gap is reported at the {@link EndDate} of the range or at the
+ * {@link StartDate} following the gap.
+ * </p>
+ * 
+ * @author Christian Sterzl
+ * @since 1.3.1
+ */
+public class DateSequenceValidator implements ConstraintValidator<DateSequence, Object> {
+
+  private boolean contiguous;
+  private long maximumGapDays;
+
+  /**
+   * {@inheritDoc}
+   * 
+   * @see javax.validation.ConstraintValidator#initialize(java.lang.annotation.Annotation)
+   */
+  public final void initialize(final DateSequence annotation) {
+    this.contiguous = annotation.contiguous();
+    this.maximumGapDays = annotation.maximumGapDays();
+  }
+
+  /**
+   * {@inheritDoc}
+   * 
+   * @see javax.validation.ConstraintValidator#isValid(java.lang.Object,
+   *      javax.validation.ConstraintValidatorContext)
+   */
+  public final boolean isValid(final Object instance, final ConstraintValidatorContext ctx) {
+    if (instance == null) {
+      return true;
+    }
+    long previousEnd = EpochMillis.NULL;
+    for (DateRangePair pair : DateRangeMetadata.forClass(instance.getClass()).sequence()) {
+      long start = pair.start.millisOf(instance);
+      long end = pair.end.millisOf(instance);
+      if (start == EpochMillis.NULL || end == EpochMillis.NULL) {
+        previousEnd = EpochMillis.NULL;
+        continue;
+      }
+      if (previousEnd != EpochMillis.NULL && !isValidGap(start - previousEnd)) {
+        return report(ctx, pair.start.name);
+      }
+      if (!pair.end.isValidRange(start, end)) {
+        return report(ctx, pair.end.name);
+      }
+      previousEnd = end;
+    }
+    return true;
+  }
+
+  private boolean isValidGap(final long gap) {
+    if (gap < 0 || contiguous && gap != 0) {
+      return false;
+    }
+    return DateRangeValidator.days(gap) <= maximumGapDays;
+  }
+
+  private static boolean report(final ConstraintValidatorContext ctx, final String property) {
+    if (ctx != null) {
+      ctx.disableDefaultConstraintViolation();
+      ctx.buildConstraintViolationWithTemplate(ctx.getDefaultConstraintMessageTemplate())
+          .addPropertyNode(property).addConstraintViolation();
+    }
+    return false;
+  }
+}
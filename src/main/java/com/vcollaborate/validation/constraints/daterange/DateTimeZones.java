@@ -0,0 +1,90 @@
+/*
+ * Copyright (C) 2012-2015 Christian Sterzl <christian.sterzl@gmail.com>
+ *
+ * This file is part of ValidationConstraints.
+ *
+ * ValidationConstraints is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * ValidationConstraints is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with ValidationConstraints.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.vcollaborate.validation.constraints.daterange;
+
+import org.joda.time.DateTimeZone;
+
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.TimeZone;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Resolves {@link ZoneId}s into {@link DateTimeZone}s and caches them.
+ * 
+ * <p>
+ * The cache is bounded to {@value #MAX_SIZE} zones. Zones beyond that are resolved on every call.
+ * Zones unknown to joda-time are resolved to the default zone of joda-time once.
+ * </p>
+ * 
+ * @author Christian Sterzl
+ * @since 1.3.1
+ */
+final class DateTimeZones {
+
+  static final int MAX_SIZE = 256;
+
+  private static final ConcurrentMap<ZoneId, DateTimeZone> CACHE =
+      new ConcurrentHashMap<ZoneId, DateTimeZone>();
+
+  private DateTimeZones() {
+  }
+
+  /**
+   * @param zoneId
+   *          the zone
+   * @return the matching joda-time zone
+   */
+  static DateTimeZone of(final ZoneId zoneId) {
+    DateTimeZone zone = CACHE.get(zoneId);
+    if (zone == null) {
+      zone = resolve(zoneId);
+      if (CACHE.size() < MAX_SIZE) {
+        CACHE.putIfAbsent(zoneId, zone);
+      }
+    }
+    return zone;
+  }
+
+  /**
+   * @return the number of cached zones
+   */
+  static int size() {
+    return CACHE.size();
+  }
+
+  private static DateTimeZone resolve(final ZoneId zoneId) {
+    ZoneId normalized = zoneId.normalized();
+    if (normalized instanceof ZoneOffset) {
+      return DateTimeZone.forOffsetMillis(((ZoneOffset) normalized).getTotalSeconds() * 1000);
+    }
+    try {
+      return DateTimeZone.forID(zoneId.getId());
+    } catch (IllegalArgumentException e) {
+      // Not a tz database id, try the aliases of TimeZone
+    }
+    try {
+      return DateTimeZone.forTimeZone(TimeZone.getTimeZone(zoneId));
+    } catch (IllegalArgumentException e) {
+      return DateTimeZone.getDefault();
+    }
+  }
+}
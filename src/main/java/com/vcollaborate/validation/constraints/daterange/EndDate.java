@@ -25,9 +25,14 @@ import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
 
 /**
+ * Marks the end of a date range, which starts at the {@link StartDate} with the same {@link #id()}.
+ * 
+ * Like a <code>null</code> end, a <code>long</code> or {@link Long} end of {@link Long#MIN_VALUE}
+ * makes the range valid.
+ * 
  * @author Christian Sterzl
  */
-@Target(ElementType.FIELD)
+@Target({ ElementType.FIELD, ElementType.METHOD })
 @Retention(RetentionPolicy.RUNTIME)
 public @interface EndDate {
 
@@ -36,4 +41,16 @@ public @interface EndDate {
   long minimumDaysRange() default Long.MAX_VALUE;
 
   long[] allowedDayRanges() default {};
+
+  /**
+   * @return the minimum number of business days between the start date and this date, which is
+   *         checked in addition to the other ranges, the day of this date is not counted
+   */
+  long minimumBusinessDays() default 0;
+
+  /**
+   * @return the name of the calendar registered in {@link BusinessCalendars}, the default calendar
+   *         knows weekends only
+   */
+  String businessCalendar() default "";
 }
@@ -0,0 +1,379 @@
+/*
+ * Copyright (C) 2012-2015 Christian Sterzl <christian.sterzl@gmail.com>
+ *
+ * This file is part of ValidationConstraints.
+ *
+ * ValidationConstraints is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * ValidationConstraints is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with ValidationConstraints.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.vcollaborate.validation.constraints.daterange;
+
+import com.vcollaborate.validation.constraints.daterange.DateRangeMetadata.DateRangePair;
+import com.vcollaborate.validation.constraints.temporal.EpochMillis;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * An index of the ranges of beans, answering if a range collides with any indexed range in
+ * O(log n + k) with k being the number of colliding ranges.
+ * 
+ * <p>
+ * The range of a bean is given by its {@link StartDate} and {@link EndDate} with the id of the
+ * index. It is read when the bean is added, thus a bean has to be removed before its range is
+ * changed. Like {@link NonOverlappingRanges}, ranges collide if one starts before the other one ends,
+ * ranges touching each other do not collide. Beans with a null boundary are not indexed.
+ * </p>
+ * 
+ * <p>
+ * The ranges are kept in an AVL tree ordered by their start, where each node knows the maximum end
+ * of its subtree. Beans are compared by identity. The index can be read and changed concurrently.
+ * </p>
+ * 
+ * @param <T>
+ *          the type of the indexed beans
+ * @author Christian Sterzl
+ * @since 1.3.1
+ */
+public final class IntervalIndex<T> {
+
+  private final int id;
+  private final ReadWriteLock lock = new ReentrantReadWriteLock();
+  private final Map<T, Node<T>> nodes = new IdentityHashMap<T, Node<T>>();
+  private Node<T> root;
+  private long sequence;
+
+  /**
+   * Creates an empty index of the ranges with the default id 0.
+   */
+  public IntervalIndex() {
+    this(0);
+  }
+
+  /**
+   * Creates an empty index.
+   * 
+   * @param id
+   *          the id of the {@link StartDate} and {@link EndDate} of the indexed beans
+   */
+  public IntervalIndex(final int id) {
+    this.id = id;
+  }
+
+  /**
+   * Creates an index of the given beans.
+   * 
+   * @param beans
+   *          the beans to index
+   * @param id
+   *          the id of the {@link StartDate} and {@link EndDate} of the beans
+   * @param <T>
+   *          the type of the beans
+   * @return the index
+   */
+  public static <T> IntervalIndex<T> of(final Iterable<? extends T> beans, final int id) {
+    IntervalIndex<T> index = new IntervalIndex<T>(id);
+    for (T bean : beans) {
+      index.add(bean);
+    }
+    return index;
+  }
+
+  /**
+   * @param bean
+   *          the bean to index
+   * @return true if the bean was added, false if it is indexed already or its range has a null
+   *         boundary
+   * @throws IllegalArgumentException
+   *           if the bean has no {@link StartDate} and {@link EndDate} with the id of the index
+   */
+  public boolean add(final T bean) {
+    long[] range = range(bean);
+    if (range == null) {
+      return false;
+    }
+    lock.writeLock().lock();
+    try {
+      if (nodes.containsKey(bean)) {
+        return false;
+      }
+      Node<T> node = new Node<T>(range[0], range[1], sequence++, bean);
+      nodes.put(bean, node);
+      root = insert(root, node);
+      return true;
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * @param bean
+   *          the bean to remove
+   * @return true if the bean was indexed
+   */
+  public boolean remove(final T bean) {
+    lock.writeLock().lock();
+    try {
+      Node<T> node = nodes.remove(bean);
+      if (node == null) {
+        return false;
+      }
+      root = remove(root, node);
+      return true;
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * @return the number of indexed beans
+   */
+  public int size() {
+    lock.readLock().lock();
+    try {
+      return nodes.size();
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * @param start
+   *          the start in milliseconds since the epoch
+   * @param end
+   *          the end in milliseconds since the epoch
+   * @return true if the range collides with any indexed range
+   */
+  public boolean collides(final long start, final long end) {
+    return collides(start, end, null);
+  }
+
+  /**
+   * Checks the range of a bean against the other indexed ranges. The bean itself may be indexed, so
+   * changes of an indexed bean can be validated before the bean is indexed again.
+   * 
+   * @param bean
+   *          the bean
+   * @return true if the range of the bean collides with the range of any other indexed bean, false
+   *         if not or if its range has a null boundary
+   * @throws IllegalArgumentException
+   *           if the bean has no {@link StartDate} and {@link EndDate} with the id of the index
+   */
+  public boolean collides(final Object bean) {
+    long[] range = range(bean);
+    return range != null && collides(range[0], range[1], bean);
+  }
+
+  private boolean collides(final long start, final long end, final Object ignored) {
+    lock.readLock().lock();
+    try {
+      return collides(root, start, end, ignored);
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * @param start
+   *          the start in milliseconds since the epoch
+   * @param end
+   *          the end in milliseconds since the epoch
+   * @return the beans with a range colliding with the given range ordered by their start
+   */
+  public List<T> collisions(final long start, final long end) {
+    List<T> collisions = new ArrayList<T>();
+    lock.readLock().lock();
+    try {
+      collect(root, start, end, collisions);
+    } finally {
+      lock.readLock().unlock();
+    }
+    return collisions;
+  }
+
+  private long[] range(final Object bean) {
+    DateRangePair pair = DateRangeMetadata.forClass(bean.getClass()).pair(id);
+    if (pair == null) {
+      throw new IllegalArgumentException(
+          bean.getClass() + " has no @StartDate and @EndDate with id " + id + ".");
+    }
+    long start = pair.start.millisOf(bean);
+    long end = pair.end.millisOf(bean);
+    if (start == EpochMillis.NULL || end == EpochMillis.NULL) {
+      return null;
+    }
+    return new long[] { start, end };
+  }
+
+  private static <T> boolean collides(final Node<T> node, final long start, final long end,
+      final Object ignored) {
+    if (node == null || node.maxEnd <= start) {
+      return false;
+    }
+    if (collides(node.left, start, end, ignored)) {
+      return true;
+    }
+    if (node.start >= end) {
+      return false;
+    }
+    if (start < node.end && node.value != ignored) {
+      return true;
+    }
+    return collides(node.right, start, end, ignored);
+  }
+
+  private static <T> void collect(final Node<T> node, final long start, final long end,
+      final List<T> collisions) {
+    if (node == null || node.maxEnd <= start) {
+      return;
+    }
+    collect(node.left, start, end, collisions);
+    if (node.start >= end) {
+      return;
+    }
+    if (start < node.end) {
+      collisions.add(node.value);
+    }
+    collect(node.right, start, end, collisions);
+  }
+
+  private static <T> Node<T> insert(final Node<T> node, final Node<T> added) {
+    if (node == null) {
+      return added;
+    }
+    if (added.compareTo(node) < 0) {
+      node.left = insert(node.left, added);
+    } else {
+      node.right = insert(node.right, added);
+    }
+    return balance(node);
+  }
+
+  private static <T> Node<T> remove(final Node<T> node, final Node<T> removed) {
+    if (node == removed) {
+      if (node.left == null) {
+        return node.right;
+      }
+      if (node.right == null) {
+        return node.left;
+      }
+      Node<T> successor = node.right;
+      while (successor.left != null) {
+        successor = successor.left;
+      }
+      successor.right = removeFirst(node.right);
+      successor.left = node.left;
+      return balance(successor);
+    }
+    if (removed.compareTo(node) < 0) {
+      node.left = remove(node.left, removed);
+    } else {
+      node.right = remove(node.right, removed);
+    }
+    return balance(node);
+  }
+
+  private static <T> Node<T> removeFirst(final Node<T> node) {
+    if (node.left == null) {
+      return node.right;
+    }
+    node.left = removeFirst(node.left);
+    return balance(node);
+  }
+
+  private static <T> Node<T> balance(final Node<T> node) {
+    node.update();
+    int balance = height(node.left) - height(node.right);
+    if (balance > 1) {
+      if (height(node.left.left) < height(node.left.right)) {
+        node.left = rotateLeft(node.left);
+      }
+      return rotateRight(node);
+    }
+    if (balance < -1) {
+      if (height(node.right.right) < height(node.right.left)) {
+        node.right = rotateRight(node.right);
+      }
+      return rotateLeft(node);
+    }
+    return node;
+  }
+
+  private static <T> Node<T> rotateRight(final Node<T> node) {
+    Node<T> left = node.left;
+    node.left = left.right;
+    left.right = node;
+    node.update();
+    left.update();
+    return left;
+  }
+
+  private static <T> Node<T> rotateLeft(final Node<T> node) {
+    Node<T> right = node.right;
+    node.right = right.left;
+    right.left = node;
+    node.update();
+    right.update();
+    return right;
+  }
+
+  private static int height(final Node<?> node) {
+    return node == null ? 0 : node.height;
+  }
+
+  /**
+   * An indexed range ordered by its start and the order it was added.
+   */
+  private static final class Node<T> implements Comparable<Node<T>> {
+    private final long start;
+    private final long end;
+    private final long sequence;
+    private final T value;
+    private long maxEnd;
+    private int height;
+    private Node<T> left;
+    private Node<T> right;
+
+    Node(final long start, final long end, final long sequence, final T value) {
+      this.start = start;
+      this.end = end;
+      this.sequence = sequence;
+      this.value = value;
+      update();
+    }
+
+    void update() {
+      height = 1 + Math.max(height(left), height(right));
+      maxEnd = end;
+      if (left != null && left.maxEnd > maxEnd) {
+        maxEnd = left.maxEnd;
+      }
+      if (right != null && right.maxEnd > maxEnd) {
+        maxEnd = right.maxEnd;
+      }
+    }
+
+    @Override
+    public int compareTo(final Node<T> other) {
+      if (start != other.start) {
+        return start < other.start ? -1 : 1;
+      }
+      return sequence < other.sequence ? -1 : sequence == other.sequence ? 0 : 1;
+    }
+  }
+}
@@ -0,0 +1,42 @@
+/*
+ * Copyright (C) 2012-2015 Christian Sterzl <christian.sterzl@gmail.com>
+ *
+ * This file is part of ValidationConstraints.
+ *
+ * ValidationConstraints is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * ValidationConstraints is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with ValidationConstraints.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.vcollaborate.validation.constraints.daterange;
+
+/**
+ * Provides the {@link IntervalIndex} a bean annotated with {@link AvailableIn} is validated against,
+ * e.g. the index of the reservations of the resource the bean reserves.
+ * 
+ * <p>
+ * Implementations need a public constructor without arguments and are instantiated once per
+ * validator.
+ * </p>
+ * 
+ * @author Christian Sterzl
+ * @since 1.3.1
+ */
+public interface IntervalIndexProvider {
+
+  /**
+   * @param bean
+   *          the validated bean
+   * @return the index to validate the bean against or <code>null</code> if there is none
+   */
+  IntervalIndex<?> indexFor(Object bean);
+}
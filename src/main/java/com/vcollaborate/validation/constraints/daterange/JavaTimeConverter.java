@@ -0,0 +1,66 @@
+/*
+ * Copyright (C) 2012-2015 Christian Sterzl <christian.sterzl@gmail.com>
+ *
+ * This file is part of ValidationConstraints.
+ *
+ * ValidationConstraints is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * ValidationConstraints is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with ValidationConstraints.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.vcollaborate.validation.constraints.daterange;
+
+import com.vcollaborate.validation.constraints.temporal.EpochMillis;
+
+import org.joda.time.Chronology;
+import org.joda.time.DateTimeZone;
+import org.joda.time.chrono.ISOChronology;
+import org.joda.time.convert.InstantConverter;
+
+/**
+ * Base of the joda-time {@link InstantConverter}s for the <code>java.time</code> types.
+ * 
+ * <p>
+ * The instant is computed by {@link EpochMillis}, the zone of the chronology is looked up in the
+ * cache of {@link DateTimeZones}.
+ * </p>
+ * 
+ * @author Christian Sterzl
+ * @since 1.3.1
+ */
+abstract class JavaTimeConverter implements InstantConverter {
+
+  /**
+   * @param object
+   *          a value of the supported type
+   * @return the zone of the value
+   */
+  abstract DateTimeZone zone(Object object);
+
+  @Override
+  public Chronology getChronology(final Object object, final DateTimeZone zone) {
+    return ISOChronology.getInstance(zone);
+  }
+
+  @Override
+  public Chronology getChronology(final Object object, final Chronology chrono) {
+    if (chrono != null) {
+      return chrono;
+    }
+    return ISOChronology.getInstance(zone(object));
+  }
+
+  @Override
+  public long getInstantMillis(final Object object, final Chronology chrono) {
+    return EpochMillis.of(object);
+  }
+}
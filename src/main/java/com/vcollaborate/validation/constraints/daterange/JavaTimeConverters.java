@@ -0,0 +1,63 @@
+/*
+ * Copyright (C) 2012-2015 Christian Sterzl <christian.sterzl@gmail.com>
+ *
+ * This file is part of ValidationConstraints.
+ *
+ * ValidationConstraints is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * ValidationConstraints is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with ValidationConstraints.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.vcollaborate.validation.constraints.daterange;
+
+import org.joda.time.DateTime;
+import org.joda.time.convert.ConverterManager;
+
+/**
+ * Registers the joda-time converters for the <code>java.time</code> types, thus
+ * {@link DateTime#DateTime(Object)} accepts {@link java.time.ZonedDateTime},
+ * {@link java.time.OffsetDateTime}, {@link java.time.LocalDateTime}, {@link java.time.LocalDate}
+ * and {@link java.time.Instant}.
+ * 
+ * <p>
+ * {@link DateRangeValidator} registers the converters when it is loaded and joda-time is on the
+ * classpath. Code converting <code>java.time</code> values before may call {@link #register()}
+ * itself.
+ * </p>
+ * 
+ * @author Christian Sterzl
+ * @since 1.3.1
+ */
+public final class JavaTimeConverters {
+
+  private static boolean registered;
+
+  private JavaTimeConverters() {
+  }
+
+  /**
+   * Registers the converters with the {@link ConverterManager} of joda-time. Further calls do
+   * nothing.
+   */
+  public static synchronized void register() {
+    if (registered) {
+      return;
+    }
+    ConverterManager converters = ConverterManager.getInstance();
+    converters.addInstantConverter(new ZonedDateTimeConverter());
+    converters.addInstantConverter(new OffsetDateTimeConverter());
+    converters.addInstantConverter(new LocalDateTimeConverter());
+    converters.addInstantConverter(new LocalDateConverter());
+    converters.addInstantConverter(new JavaInstantConverter());
+    registered = true;
+  }
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright (C) 2012-2015 Christian Sterzl <christian.sterzl@gmail.com>
+ *
+ * This file is part of ValidationConstraints.
+ *
+ * ValidationConstraints is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * ValidationConstraints is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with ValidationConstraints.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.vcollaborate.validation.constraints.daterange;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import javax.validation.Constraint;
+import javax.validation.Payload;
+
+/**
+ * Validates that at most {@link #value()} ranges of the elements of an array or {@link Iterable}
+ * are active at the same time.
+ * 
+ * <p>
+ * The range of an element is given by its {@link StartDate} and {@link EndDate} with the given id.
+ * A range is active from its start until its end, thus ranges touching each other are not active at
+ * the same time. Null elements, elements without such a pair and ranges with a null boundary are
+ * ignored.
+ * </p>
+ * 
+ * <p>
+ * The element whose start first exceeds the maximum is reported at its index.
+ * <code>{exceededAt}</code> in the message is replaced with its start in ISO-8601 format.
+ * </p>
+ * 
+ * @author Christian Sterzl
+ * @since 1.3.1
+ */
+@Constraint(validatedBy = MaxConcurrentRangesValidator.class)
+@Target({ ElementType.FIELD, ElementType.METHOD })
+@Retention(RetentionPolicy.RUNTIME)
+public @interface MaxConcurrentRanges {
+  Class<?>[] groups() default {};
+
+  Class<? extends Payload>[] payload() default {};
+
+  String message() default "More than {value} ranges are active at {exceededAt}";
+
+  /**
+   * @return the maximum number of ranges active at the same time
+   */
+  int value();
+
+  int id() default 0;
+}
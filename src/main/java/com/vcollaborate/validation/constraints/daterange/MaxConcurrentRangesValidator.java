@@ -0,0 +1,86 @@
+/*
+ * Copyright (C) 2012-2015 Christian Sterzl <christian.sterzl@gmail.com>
+ *
+ * This file is part of ValidationConstraints.
+ *
+ * ValidationConstraints is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * ValidationConstraints is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with ValidationConstraints.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.vcollaborate.validation.constraints.daterange;
+
+import java.time.Instant;
+
+import javax.validation.ConstraintValidator;
+import javax.validation.ConstraintValidatorContext;
+
+/**
+ * Validates that at most a maximum of ranges of the elements of an array or {@link Iterable} are
+ * active at the same time.
+ * 
+ * <p>
+ * The ranges are read once into primitive arrays by {@link RangeList}. Their starts are swept in
+ * order against their sorted ends, counting the active ranges, which takes O(n log n).
+ * </p>
+ * 
+ * @author Christian Sterzl
+ * @since 1.3.1
+ */
+public class MaxConcurrentRangesValidator implements
+    ConstraintValidator<MaxConcurrentRanges, Object> {
+
+  private static final String EXCEEDED_AT = "{exceededAt}";
+
+  private int maximum;
+  private int id;
+  private String message;
+
+  /**
+   * {@inheritDoc}
+   * 
+   * @see javax.validation.ConstraintValidator#initialize(java.lang.annotation.Annotation)
+   */
+  public final void initialize(final MaxConcurrentRanges annotation) {
+    this.maximum = annotation.value();
+    this.id = annotation.id();
+    this.message = annotation.message();
+  }
+
+  /**
+   * {@inheritDoc}
+   * 
+   * @see javax.validation.ConstraintValidator#isValid(java.lang.Object,
+   *      javax.validation.ConstraintValidatorContext)
+   */
+  public final boolean isValid(final Object elements, final ConstraintValidatorContext ctx) {
+    if (elements == null) {
+      return true;
+    }
+    RangeList ranges = RangeList.of(elements, id);
+    if (ranges.size() <= maximum) {
+      return true;
+    }
+    int exceeding = ranges.firstExceeding(maximum);
+    if (exceeding < 0) {
+      return true;
+    }
+
+    if (ctx != null) {
+      ctx.disableDefaultConstraintViolation();
+      ctx.buildConstraintViolationWithTemplate(
+          message.replace(EXCEEDED_AT, Instant.ofEpochMilli(ranges.start(exceeding)).toString()))
+          .addBeanNode().inIterable().atIndex(ranges.index(exceeding)).addConstraintViolation();
+    }
+    return false;
+  }
+}
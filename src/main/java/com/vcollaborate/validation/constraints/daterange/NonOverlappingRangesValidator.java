@@ -0,0 +1,79 @@
+/*
+ * Copyright (C) 2012-2015 Christian Sterzl <christian.sterzl@gmail.com>
+ *
+ * This file is part of ValidationConstraints.
+ *
+ * ValidationConstraints is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * ValidationConstraints is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with ValidationConstraints.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.vcollaborate.validation.constraints.daterange;
+
+import javax.validation.ConstraintValidator;
+import javax.validation.ConstraintValidatorContext;
+
+/**
+ * Validates that the ranges of the elements of an array or {@link Iterable} do not overlap.
+ * 
+ * <p>
+ * The ranges are read once into primitive arrays by {@link RangeList}. If they are already sorted by
+ * their start, they are swept in one pass, otherwise they are sorted by their start first.
+ * </p>
+ * 
+ * @author Christian Sterzl
+ * @since 1.3.1
+ */
+public class NonOverlappingRangesValidator implements
+    ConstraintValidator<NonOverlappingRanges, Object> {
+
+  private static final String OVERLAPPED_INDEX = "{overlappedIndex}";
+
+  private int id;
+  private String message;
+
+  /**
+   * {@inheritDoc}
+   * 
+   * @see javax.validation.ConstraintValidator#initialize(java.lang.annotation.Annotation)
+   */
+  public final void initialize(final NonOverlappingRanges annotation) {
+    this.id = annotation.id();
+    this.message = annotation.message();
+  }
+
+  /**
+   * {@inheritDoc}
+   * 
+   * @see javax.validation.ConstraintValidator#isValid(java.lang.Object,
+   *      javax.validation.ConstraintValidatorContext)
+   */
+  public final boolean isValid(final Object elements, final ConstraintValidatorContext ctx) {
+    if (elements == null) {
+      return true;
+    }
+    int[] overlaps = RangeList.of(elements, id).overlaps();
+    if (overlaps.length == 0) {
+      return true;
+    }
+
+    if (ctx != null) {
+      ctx.disableDefaultConstraintViolation();
+      for (int i = 0; i < overlaps.length; i += 2) {
+        ctx.buildConstraintViolationWithTemplate(
+            message.replace(OVERLAPPED_INDEX, Integer.toString(overlaps[i])))
+            .addBeanNode().inIterable().atIndex(overlaps[i + 1]).addConstraintViolation();
+      }
+    }
+    return false;
+  }
+}
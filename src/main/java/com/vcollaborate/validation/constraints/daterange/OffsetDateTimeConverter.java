@@ -0,0 +1,43 @@
+/*
+ * Copyright (C) 2012-2015 Christian Sterzl <christian.sterzl@gmail.com>
+ *
+ * This file is part of ValidationConstraints.
+ *
+ * ValidationConstraints is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * ValidationConstraints is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with ValidationConstraints.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.vcollaborate.validation.constraints.daterange;
+
+import org.joda.time.DateTimeZone;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Converts {@link OffsetDateTime} into joda-time instants, in the offset of the value.
+ * 
+ * @author Christian Sterzl
+ * @since 1.3.1
+ */
+public class OffsetDateTimeConverter extends JavaTimeConverter {
+
+  @Override
+  public Class<?> getSupportedType() {
+    return OffsetDateTime.class;
+  }
+
+  @Override
+  DateTimeZone zone(final Object object) {
+    return DateTimeZones.of(((OffsetDateTime) object).getOffset());
+  }
+}
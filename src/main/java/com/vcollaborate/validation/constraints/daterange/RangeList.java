@@ -0,0 +1,277 @@
+/*
+ * Copyright (C) 2012-2015 Christian Sterzl <christian.sterzl@gmail.com>
+ *
+ * This file is part of ValidationConstraints.
+ *
+ * ValidationConstraints is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * ValidationConstraints is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with ValidationConstraints.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.vcollaborate.validation.constraints.daterange;
+
+import com.vcollaborate.validation.constraints.daterange.DateRangeMetadata.DateRangePair;
+import com.vcollaborate.validation.constraints.temporal.EpochMillis;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * The ranges of the elements of an array or {@link Iterable} in primitive arrays.
+ * 
+ * <p>
+ * Each range keeps the index of its element. Null elements, elements without a {@link StartDate}
+ * and {@link EndDate} with the given id and ranges with a null boundary are skipped.
+ * </p>
+ * 
+ * @author Christian Sterzl
+ * @since 1.3.1
+ */
+final class RangeList {
+
+  private static final int[] NONE = new int[0];
+
+  private long[] starts;
+  private long[] ends;
+  private int[] indices;
+  private int size;
+  private boolean sorted = true;
+
+  private Class<?> lastType;
+  private DateRangePair lastPair;
+
+  private RangeList(final int capacity) {
+    this.starts = new long[capacity];
+    this.ends = new long[capacity];
+    this.indices = new int[capacity];
+  }
+
+  /**
+   * @param elements
+   *          an array or {@link Iterable}
+   * @param id
+   *          the id of the {@link StartDate} and {@link EndDate} of the elements
+   * @return the ranges of the elements
+   * @throws IllegalArgumentException
+   *           if elements is neither an array nor an {@link Iterable}
+   */
+  static RangeList of(final Object elements, final int id) {
+    if (elements instanceof Object[]) {
+      Object[] array = (Object[]) elements;
+      RangeList ranges = new RangeList(array.length);
+      for (int i = 0; i < array.length; i++) {
+        ranges.add(array[i], i, id);
+      }
+      return ranges;
+    }
+    if (elements instanceof Iterable) {
+      RangeList ranges = new RangeList(
+          elements instanceof Collection ? ((Collection<?>) elements).size() : 16);
+      int index = 0;
+      for (Object element : (Iterable<?>) elements) {
+        ranges.add(element, index++, id);
+      }
+      return ranges;
+    }
+    throw new IllegalArgumentException(
+        "Ranges can be read from arrays and Iterables only, not from " + elements.getClass());
+  }
+
+  private void add(final Object element, final int index, final int id) {
+    if (element == null) {
+      return;
+    }
+    if (element.getClass() != lastType) {
+      lastType = element.getClass();
+      lastPair = DateRangeMetadata.forClass(lastType).pair(id);
+    }
+    if (lastPair == null) {
+      return;
+    }
+    long start = lastPair.start.millisOf(element);
+    long end = lastPair.end.millisOf(element);
+    if (start == EpochMillis.NULL || end == EpochMillis.NULL) {
+      return;
+    }
+
+    if (size == starts.length) {
+      int capacity = Math.max(16, size * 2);
+      starts = Arrays.copyOf(starts, capacity);
+      ends = Arrays.copyOf(ends, capacity);
+      indices = Arrays.copyOf(indices, capacity);
+    }
+    sorted &= size == 0 || starts[size - 1] <= start;
+    starts[size] = start;
+    ends[size] = end;
+    indices[size] = index;
+    size++;
+  }
+
+  /**
+   * @return the number of ranges
+   */
+  int size() {
+    return size;
+  }
+
+  /**
+   * Returns the positions of the ranges ordered by their start. The order of ranges with the same
+   * start is kept.
+   * 
+   * @return the positions or <code>null</code> if the ranges are sorted already
+   */
+  int[] order() {
+    if (sorted) {
+      return null;
+    }
+    int[] order = new int[size];
+    for (int i = 0; i < size; i++) {
+      order[i] = i;
+    }
+    mergeSort(order, new int[size]);
+    return order;
+  }
+
+  /**
+   * Bottom up merge sort of positions by their start.
+   */
+  private void mergeSort(final int[] order, final int[] buffer) {
+    int[] from = order;
+    int[] to = buffer;
+    for (int width = 1; width < size; width *= 2) {
+      for (int low = 0; low < size; low += 2 * width) {
+        int middle = Math.min(low + width, size);
+        int high = Math.min(low + 2 * width, size);
+        int left = low;
+        int right = middle;
+        for (int i = low; i < high; i++) {
+          if (left < middle && (right >= high || starts[from[left]] <= starts[from[right]])) {
+            to[i] = from[left++];
+          } else {
+            to[i] = from[right++];
+          }
+        }
+      }
+      int[] swap = from;
+      from = to;
+      to = swap;
+    }
+    if (from != order) {
+      System.arraycopy(from, 0, order, 0, size);
+    }
+  }
+
+  /**
+   * Sweeps the ranges in order of their start and keeps the range reaching furthest. Each range
+   * starting before that range ends overlaps it.
+   * 
+   * @return the element indices of the overlapping ranges as pairs, the smaller index first, or an
+   *         empty array
+   */
+  int[] overlaps() {
+    int[] order = order();
+    int[] overlaps = NONE;
+    int count = 0;
+
+    int reaching = -1;
+    long reach = Long.MIN_VALUE;
+    for (int k = 0; k < size; k++) {
+      int i = order == null ? k : order[k];
+      if (reaching >= 0 && starts[i] < reach) {
+        if (count == overlaps.length) {
+          overlaps = Arrays.copyOf(overlaps, Math.max(8, count * 2));
+        }
+        overlaps[count++] = Math.min(indices[reaching], indices[i]);
+        overlaps[count++] = Math.max(indices[reaching], indices[i]);
+      }
+      if (ends[i] > reach) {
+        reach = ends[i];
+        reaching = i;
+      }
+    }
+    return count == overlaps.length ? overlaps : Arrays.copyOf(overlaps, count);
+  }
+
+  /**
+   * @param maximum
+   *          the maximum number of ranges active at the same time
+   * @return the position of the range whose start first makes more than maximum ranges active or
+   *         -1
+   */
+  int firstExceeding(final int maximum) {
+    return sweep(maximum, null);
+  }
+
+  /**
+   * @return the maximum number of ranges active at the same time
+   */
+  int peak() {
+    int[] peak = new int[1];
+    sweep(Integer.MAX_VALUE, peak);
+    return peak[0];
+  }
+
+  /**
+   * Sweeps the starts in their order against the sorted ends. Each start first ends all ranges
+   * ending not after it, so touching ranges are not active at the same time. Empty ranges are
+   * never active.
+   */
+  private int sweep(final int maximum, final int[] peak) {
+    int[] order = order();
+    long[] sortedEnds = new long[size];
+    int count = 0;
+    for (int i = 0; i < size; i++) {
+      if (ends[i] > starts[i]) {
+        sortedEnds[count++] = ends[i];
+      }
+    }
+    Arrays.sort(sortedEnds, 0, count);
+
+    int active = 0;
+    int ended = 0;
+    for (int k = 0; k < size; k++) {
+      int i = order == null ? k : order[k];
+      if (ends[i] <= starts[i]) {
+        continue;
+      }
+      while (sortedEnds[ended] <= starts[i]) {
+        ended++;
+        active--;
+      }
+      if (++active > maximum) {
+        return i;
+      }
+      if (peak != null && active > peak[0]) {
+        peak[0] = active;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * @param position
+   *          the position of a range
+   * @return the start of the range
+   */
+  long start(final int position) {
+    return starts[position];
+  }
+
+  /**
+   * @param position
+   *          the position of a range
+   * @return the index of the element of the range
+   */
+  int index(final int position) {
+    return indices[position];
+  }
+}
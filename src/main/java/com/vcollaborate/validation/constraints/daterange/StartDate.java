@@ -24,7 +24,15 @@ import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
 
-@Target(ElementType.FIELD)
+/**
+ * Marks the start of a date range, which ends at the {@link EndDate} with the same {@link #id()}.
+ * 
+ * A <code>null</code> start makes the range valid. A <code>long</code> or {@link Long} start of
+ * {@link Long#MIN_VALUE} is treated as <code>null</code>.
+ * 
+ * @author Christian Sterzl
+ */
+@Target({ ElementType.FIELD, ElementType.METHOD })
 @Retention(RetentionPolicy.RUNTIME)
 public @interface StartDate {
   int id() default 0;
@@ -1,66 +1,42 @@
-package com.vcollaborate.validation.constraints.daterange;
+/*
+ * Copyright (C) 2012-2015 Christian Sterzl <christian.sterzl@gmail.com>
+ *
+ * This file is part of ValidationConstraints.
+ *
+ * ValidationConstraints is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * ValidationConstraints is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with ValidationConstraints.  If not, see <http://www.gnu.org/licenses/>.
+ */
 
-import java.time.ZonedDateTime;
-import java.util.Calendar;
-import java.util.GregorianCalendar;
-import java.util.TimeZone;
+package com.vcollaborate.validation.constraints.daterange;
 
-import org.joda.time.Chronology;
 import org.joda.time.DateTimeZone;
-import org.joda.time.chrono.BuddhistChronology;
-import org.joda.time.chrono.GJChronology;
-import org.joda.time.chrono.GregorianChronology;
-import org.joda.time.chrono.ISOChronology;
-import org.joda.time.chrono.JulianChronology;
-import org.joda.time.convert.ConverterManager;
-import org.joda.time.convert.InstantConverter;
 
-public class ZonedDateTimeConverter implements InstantConverter {
-	
-	@Override
-	public Class<?> getSupportedType() {
-		return ZonedDateTime.class;
-	}
-
-	@Override
-	public Chronology getChronology(Object object, DateTimeZone zone) {
-        if (object.getClass().getName().endsWith(".BuddhistCalendar")) {
-            return BuddhistChronology.getInstance(zone);
-        } else if (object instanceof GregorianCalendar) {
-            GregorianCalendar gc = (GregorianCalendar) object;
-            long cutover = gc.getGregorianChange().getTime();
-            if (cutover == Long.MIN_VALUE) {
-                return GregorianChronology.getInstance(zone);
-            } else if (cutover == Long.MAX_VALUE) {
-                return JulianChronology.getInstance(zone);
-            } else {
-                return GJChronology.getInstance(zone, cutover, 4);
-            }
-        } else {
-            return ISOChronology.getInstance(zone);
-        }
-	}
+import java.time.ZonedDateTime;
 
-	@Override
-	public Chronology getChronology(Object object, Chronology chrono) {
-		if (chrono != null) {
-            return chrono;
-        }
-		ZonedDateTime zdt = (ZonedDateTime) object;
-        DateTimeZone zone = null;
-        try {
-            zone = DateTimeZone.forTimeZone(TimeZone.getTimeZone(zdt.getZone()));
-            
-        } catch (IllegalArgumentException ex) {
-            zone = DateTimeZone.getDefault();
-        }
-        return getChronology(zdt, zone);
-	}
+/**
+ * Converts {@link ZonedDateTime} into joda-time instants, in the zone of the value.
+ * 
+ * @author Christian Sterzl
+ */
+public class ZonedDateTimeConverter extends JavaTimeConverter {
 
-	@Override
-	public long getInstantMillis(Object object, Chronology chrono) {
-		ZonedDateTime zdt = (ZonedDateTime) object;
-        return zdt.toOffsetDateTime().toInstant().toEpochMilli();
-	}
+  @Override
+  public Class<?> getSupportedType() {
+    return ZonedDateTime.class;
+  }
 
+  @Override
+  DateTimeZone zone(final Object object) {
+    return DateTimeZones.of(((ZonedDateTime) object).getZone());
+  }
 }
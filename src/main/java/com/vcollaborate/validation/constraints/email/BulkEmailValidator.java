@@ -0,0 +1,516 @@
+/*
+ * Copyright (C) 2012-2015 Christian Sterzl <christian.sterzl@gmail.com>
+ *
+ * This file is part of ValidationConstraints.
+ *
+ * ValidationConstraints is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * ValidationConstraints is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with ValidationConstraints.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.vcollaborate.validation.constraints.email;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Validates a file of email addresses, one per line, and writes the valid and the invalid lines to
+ * separate files.
+ * 
+ * <p>
+ * The input is split into line aligned chunks, which are memory mapped and validated in parallel
+ * on a {@link ForkJoinPool}. Each chunk writes its lines to its own part files, which are joined in
+ * the order of the input afterwards. Thus neither the input nor the output is held on the heap and
+ * the chunks share nothing but the channel of the input. The addresses are validated as bytes with
+ * the {@link EmailRules} of the {@link com.vcollaborate.validation.constraints.EmailValidator},
+ * only invalid ones are decoded to find their {@link InvalidReason}.
+ * </p>
+ * 
+ * <p>
+ * Lines may end with <code>\n</code> or <code>\r\n</code>, blank lines are skipped. Every written
+ * line ends with <code>\n</code> only.
+ * </p>
+ * 
+ * <pre>
+ * java com.vcollaborate.validation.constraints.email.BulkEmailValidator [--no-suffix]
+ *     [--threads=N] [--chunk-size=MB] input valid invalid
+ * </pre>
+ * 
+ * @author Christian Sterzl
+ * @since 1.3.1
+ */
+public final class BulkEmailValidator {
+
+  static final int DEFAULT_CHUNK_SIZE = 32 << 20;
+  static final int MIN_CHUNK_SIZE = 1 << 20;
+
+  private static final int BUFFER_SIZE = 1 << 18;
+  private static final int CHUNKS_PER_THREAD = 4;
+  private static final long LOW_BITS = 0x7F7F7F7F7F7F7F7FL;
+  private static final long NEWLINES = 0x0A0A0A0A0A0A0A0AL;
+
+  private final EmailRules rules;
+  private final ForkJoinPool pool;
+  private final int chunkSize;
+  private final int minChunkSize;
+
+  /**
+   * @param rules
+   *          the rules of the addresses
+   * @param pool
+   *          a pool dedicated to the validation of the chunks, which block on reading and writing
+   *          files, thus it must not be the {@link ForkJoinPool#commonPool()}
+   * @param chunkSize
+   *          the maximum number of bytes of a chunk, which is extended to the end of its last line
+   */
+  public BulkEmailValidator(final EmailRules rules, final ForkJoinPool pool, final int chunkSize) {
+    this(rules, pool, chunkSize, MIN_CHUNK_SIZE);
+  }
+
+  BulkEmailValidator(final EmailRules rules, final ForkJoinPool pool, final int chunkSize,
+      final int minChunkSize) {
+    if (chunkSize <= 0) {
+      throw new IllegalArgumentException("The chunk size must be positive.");
+    }
+    if (pool == ForkJoinPool.commonPool()) {
+      throw new IllegalArgumentException("The chunks block on I/O, they need a dedicated pool.");
+    }
+    this.rules = rules;
+    this.pool = pool;
+    this.chunkSize = chunkSize;
+    this.minChunkSize = Math.min(minChunkSize, chunkSize);
+  }
+
+  /**
+   * Validates the lines of the input. Existing output files are replaced.
+   * 
+   * @param input
+   *          the file of addresses
+   * @param valid
+   *          the file receiving the valid lines
+   * @param invalid
+   *          the file receiving the invalid lines
+   * @return the counters of the validation
+   * @throws IOException
+   *           if a file cannot be read or written
+   */
+  public Summary validate(final Path input, final Path valid, final Path invalid)
+      throws IOException {
+    long started = System.nanoTime();
+    try (FileChannel channel = FileChannel.open(input, StandardOpenOption.READ)) {
+      long[] bounds = chunks(channel);
+      int chunks = bounds.length - 1;
+      Path[] validParts = new Path[chunks];
+      Path[] invalidParts = new Path[chunks];
+      try {
+        Counts counts = chunks == 0 ? new Counts() : pool.invoke(new ChunkTask(channel, bounds, 0,
+            chunks, valid, invalid, validParts, invalidParts));
+        if (counts.failure != null) {
+          throw counts.failure;
+        }
+        join(validParts, valid);
+        join(invalidParts, invalid);
+        return new Summary(counts, channel.size(), System.nanoTime() - started);
+      } finally {
+        delete(validParts);
+        delete(invalidParts);
+      }
+    }
+  }
+
+  /**
+   * @return the start of each chunk followed by the size of the input
+   */
+  long[] chunks(final FileChannel channel) throws IOException {
+    long size = channel.size();
+    long target = size / (pool.getParallelism() * CHUNKS_PER_THREAD);
+    long step = Math.max(minChunkSize, Math.min(chunkSize, target));
+    List<Long> starts = new ArrayList<Long>();
+    ByteBuffer buffer = ByteBuffer.allocate(8192);
+    long start = 0;
+    while (start < size) {
+      starts.add(start);
+      long end = start + step;
+      if (end >= size) {
+        break;
+      }
+      start = lineEnd(channel, end - 1, buffer);
+      if (start - starts.get(starts.size() - 1) > Integer.MAX_VALUE) {
+        throw new IOException("A line at " + end + " is too long to be mapped.");
+      }
+    }
+    long[] bounds = new long[starts.size() + 1];
+    for (int i = 0; i < starts.size(); i++) {
+      bounds[i] = starts.get(i);
+    }
+    bounds[starts.size()] = size;
+    return bounds;
+  }
+
+  /**
+   * @return the position after the first newline at or after the position, or the size
+   */
+  private static long lineEnd(final FileChannel channel, final long from, final ByteBuffer buffer)
+      throws IOException {
+    long position = from;
+    while (true) {
+      buffer.clear();
+      int read = channel.read(buffer, position);
+      if (read < 0) {
+        return channel.size();
+      }
+      for (int i = 0; i < read; i++) {
+        if (buffer.get(i) == '\n') {
+          return position + i + 1;
+        }
+      }
+      position += read;
+    }
+  }
+
+  /**
+   * Finds a newline eight bytes at a time. The buffer must be big endian.
+   * 
+   * @return the index of the first newline from the index on or the end
+   */
+  static int indexOfNewline(final ByteBuffer buffer, final int from, final int end) {
+    int i = from;
+    for (; i <= end - 8; i += 8) {
+      long word = buffer.getLong(i) ^ NEWLINES;
+      long zeros = ~((word & LOW_BITS) + LOW_BITS | word | LOW_BITS);
+      if (zeros != 0) {
+        return i + (Long.numberOfLeadingZeros(zeros) >>> 3);
+      }
+    }
+    for (; i < end; i++) {
+      if (buffer.get(i) == '\n') {
+        return i;
+      }
+    }
+    return end;
+  }
+
+  private static void join(final Path[] parts, final Path target) throws IOException {
+    try (FileChannel out = FileChannel.open(target, StandardOpenOption.CREATE,
+        StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+      for (Path part : parts) {
+        try (FileChannel in = FileChannel.open(part, StandardOpenOption.READ)) {
+          long size = in.size();
+          for (long position = 0; position < size;) {
+            position += in.transferTo(position, size - position, out);
+          }
+        }
+        Files.delete(part);
+      }
+    }
+  }
+
+  private static void delete(final Path[] parts) throws IOException {
+    for (Path part : parts) {
+      if (part != null) {
+        Files.deleteIfExists(part);
+      }
+    }
+  }
+
+  /**
+   * Validates a range of chunks, splitting it until a single chunk is left.
+   */
+  private final class ChunkTask extends RecursiveTask<Counts> {
+    private static final long serialVersionUID = 1L;
+
+    private final FileChannel channel;
+    private final long[] bounds;
+    private final int from;
+    private final int to;
+    private final Path valid;
+    private final Path invalid;
+    private final Path[] validParts;
+    private final Path[] invalidParts;
+
+    ChunkTask(final FileChannel channel, final long[] bounds, final int from, final int to,
+        final Path valid, final Path invalid, final Path[] validParts, final Path[] invalidParts) {
+      this.channel = channel;
+      this.bounds = bounds;
+      this.from = from;
+      this.to = to;
+      this.valid = valid;
+      this.invalid = invalid;
+      this.validParts = validParts;
+      this.invalidParts = invalidParts;
+    }
+
+    @Override
+    protected Counts compute() {
+      if (to - from > 1) {
+        int middle = (from + to) >>> 1;
+        ChunkTask second = new ChunkTask(channel, bounds, middle, to, valid, invalid, validParts,
+            invalidParts);
+        second.fork();
+        Counts counts = new ChunkTask(channel, bounds, from, middle, valid, invalid, validParts,
+            invalidParts).compute();
+        return counts.add(second.join());
+      }
+      Counts counts = new Counts();
+      try {
+        validParts[from] = part(valid);
+        invalidParts[from] = part(invalid);
+        validate(counts);
+      } catch (IOException e) {
+        counts.failure = e;
+      }
+      return counts;
+    }
+
+    private Path part(final Path target) throws IOException {
+      Path parent = target.toAbsolutePath().getParent();
+      return Files.createTempFile(parent, target.getFileName().toString(), ".part");
+    }
+
+    private void validate(final Counts counts) throws IOException {
+      long start = bounds[from];
+      int size = (int) (bounds[from + 1] - start);
+      MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, start, size);
+      mapped.order(ByteOrder.BIG_ENDIAN);
+      ByteBuffer source = mapped.duplicate();
+      try (Output validOutput = new Output(validParts[from]);
+          Output invalidOutput = new Output(invalidParts[from])) {
+        for (int line = 0; line < size;) {
+          int newline = indexOfNewline(mapped, line, size);
+          int end = newline > line && mapped.get(newline - 1) == '\r' ? newline - 1 : newline;
+          if (end == line) {
+            counts.blank++;
+          } else if (rules.isValid(mapped, line, end - line)) {
+            counts.valid++;
+            validOutput.write(source, line, end);
+          } else {
+            InvalidReason reason = rules.reason(mapped, line, end - line);
+            counts.reasons[(reason == null ? InvalidReason.SYNTAX : reason).ordinal()]++;
+            invalidOutput.write(source, line, end);
+          }
+          line = newline + 1;
+        }
+      }
+    }
+  }
+
+  /**
+   * Buffers lines written to a file.
+   */
+  private static final class Output implements AutoCloseable {
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+
+    Output(final Path path) throws IOException {
+      channel = FileChannel.open(path, StandardOpenOption.WRITE,
+          StandardOpenOption.TRUNCATE_EXISTING);
+    }
+
+    /**
+     * Writes the bytes from the start to the end of the source followed by a newline.
+     */
+    void write(final ByteBuffer source, final int start, final int end) throws IOException {
+      source.limit(end).position(start);
+      if (buffer.remaining() <= end - start) {
+        flush();
+        if (buffer.remaining() <= end - start) {
+          while (source.hasRemaining()) {
+            channel.write(source);
+          }
+        }
+      }
+      buffer.put(source).put((byte) '\n');
+    }
+
+    private void flush() throws IOException {
+      buffer.flip();
+      while (buffer.hasRemaining()) {
+        channel.write(buffer);
+      }
+      buffer.clear();
+    }
+
+    @Override
+    public void close() throws IOException {
+      try {
+        flush();
+      } finally {
+        channel.close();
+      }
+    }
+  }
+
+  /**
+   * The counters of some chunks.
+   */
+  private static final class Counts {
+    long valid;
+    long blank;
+    final long[] reasons = new long[InvalidReason.values().length];
+    IOException failure;
+
+    Counts add(final Counts other) {
+      valid += other.valid;
+      blank += other.blank;
+      for (int i = 0; i < reasons.length; i++) {
+        reasons[i] += other.reasons[i];
+      }
+      if (failure == null) {
+        failure = other.failure;
+      }
+      return this;
+    }
+  }
+
+  /**
+   * The counters and the throughput of a validation.
+   */
+  public static final class Summary {
+    private final long valid;
+    private final long blank;
+    private final long[] reasons;
+    private final long bytes;
+    private final long nanos;
+
+    Summary(final Counts counts, final long bytes, final long nanos) {
+      this.valid = counts.valid;
+      this.blank = counts.blank;
+      this.reasons = counts.reasons.clone();
+      this.bytes = bytes;
+      this.nanos = nanos;
+    }
+
+    /**
+     * @return the number of lines including blank ones
+     */
+    public long getLines() {
+      return valid + getInvalid() + blank;
+    }
+
+    /**
+     * @return the number of valid lines
+     */
+    public long getValid() {
+      return valid;
+    }
+
+    /**
+     * @return the number of invalid lines
+     */
+    public long getInvalid() {
+      long invalid = 0;
+      for (long count : reasons) {
+        invalid += count;
+      }
+      return invalid;
+    }
+
+    /**
+     * @param reason
+     *          a reason
+     * @return the number of lines invalid for the reason
+     */
+    public long getInvalid(final InvalidReason reason) {
+      return reasons[reason.ordinal()];
+    }
+
+    /**
+     * @return the number of skipped blank lines
+     */
+    public long getBlank() {
+      return blank;
+    }
+
+    /**
+     * @return the size of the input in bytes
+     */
+    public long getBytes() {
+      return bytes;
+    }
+
+    /**
+     * @return the duration of the validation in nanoseconds
+     */
+    public long getNanos() {
+      return nanos;
+    }
+
+    @Override
+    public String toString() {
+      double seconds = Math.max(nanos, 1) / 1e9;
+      StringBuilder text = new StringBuilder();
+      text.append(String.format(Locale.ROOT, "lines    %,15d%n", getLines()));
+      text.append(String.format(Locale.ROOT, "valid    %,15d%n", valid));
+      text.append(String.format(Locale.ROOT, "invalid  %,15d%n", getInvalid()));
+      for (InvalidReason reason : InvalidReason.values()) {
+        if (getInvalid(reason) > 0) {
+          text.append(String.format(Locale.ROOT, "  %-20s %,12d%n", reason, getInvalid(reason)));
+        }
+      }
+      text.append(String.format(Locale.ROOT, "blank    %,15d%n", blank));
+      text.append(String.format(Locale.ROOT, "%.2f s, %,.0f lines/s, %,.1f MB/s", seconds,
+          getLines() / seconds, bytes / seconds / (1 << 20)));
+      return text.toString();
+    }
+  }
+
+  /**
+   * @param args
+   *          <code>[--no-suffix] [--threads=N] [--chunk-size=MB] input valid invalid</code>
+   * @throws IOException
+   *           if a file cannot be read or written
+   */
+  public static void main(final String[] args) throws IOException {
+    boolean requiresSuffix = true;
+    int threads = Runtime.getRuntime().availableProcessors();
+    int chunkSize = DEFAULT_CHUNK_SIZE;
+    List<Path> paths = new ArrayList<Path>();
+    for (String arg : args) {
+      if (arg.equals("--no-suffix")) {
+        requiresSuffix = false;
+      } else if (arg.startsWith("--threads=")) {
+        threads = Integer.parseInt(arg.substring("--threads=".length()));
+      } else if (arg.startsWith("--chunk-size=")) {
+        chunkSize = Integer.parseInt(arg.substring("--chunk-size=".length())) << 20;
+      } else {
+        paths.add(Paths.get(arg));
+      }
+    }
+    if (paths.size() != 3) {
+      System.err.println("Usage: BulkEmailValidator [--no-suffix] [--threads=N] "
+          + "[--chunk-size=MB] input valid invalid");
+      System.exit(2);
+      return;
+    }
+
+    ForkJoinPool pool = new ForkJoinPool(threads);
+    try {
+      Summary summary = new BulkEmailValidator(EmailRules.of(requiresSuffix), pool, chunkSize)
+          .validate(paths.get(0), paths.get(1), paths.get(2));
+      System.out.println(summary);
+    } finally {
+      pool.shutdown();
+    }
+  }
+}
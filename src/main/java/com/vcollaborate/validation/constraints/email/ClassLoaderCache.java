@@ -0,0 +1,65 @@
+/*
+ * Copyright (C) 2012-2015 Christian Sterzl <christian.sterzl@gmail.com>
+ *
+ * This file is part of ValidationConstraints.
+ *
+ * ValidationConstraints is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * ValidationConstraints is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with ValidationConstraints.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.vcollaborate.validation.constraints.email;
+
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * A cache with a separate map per class loader, thus applications sharing this library see their
+ * own entries. The class loaders are referenced weakly, the entries of an unloaded application are
+ * released with its class loader. Values must not reference their class loader.
+ * 
+ * @param <K>
+ *          the type of the keys
+ * @param <V>
+ *          the type of the values
+ * @author Christian Sterzl
+ * @since 1.3.1
+ */
+final class ClassLoaderCache<K, V> {
+
+  private final Map<ClassLoader, ConcurrentMap<K, V>> maps =
+      new WeakHashMap<ClassLoader, ConcurrentMap<K, V>>();
+
+  /**
+   * @return the class loader of the current thread or of this library
+   */
+  static ClassLoader current() {
+    ClassLoader loader = Thread.currentThread().getContextClassLoader();
+    return loader == null ? ClassLoaderCache.class.getClassLoader() : loader;
+  }
+
+  /**
+   * @param loader
+   *          a class loader
+   * @return the map of the class loader
+   */
+  synchronized ConcurrentMap<K, V> of(final ClassLoader loader) {
+    ConcurrentMap<K, V> map = maps.get(loader);
+    if (map == null) {
+      map = new ConcurrentHashMap<K, V>();
+      maps.put(loader, map);
+    }
+    return map;
+  }
+}
@@ -0,0 +1,403 @@
+/*
+ * Copyright (C) 2012-2015 Christian Sterzl <christian.sterzl@gmail.com>
+ *
+ * This file is part of ValidationConstraints.
+ *
+ * ValidationConstraints is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * ValidationConstraints is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with ValidationConstraints.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.vcollaborate.validation.constraints.email;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.net.IDN;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * An immutable set of domains, which contains a domain if it or one of its parent domains is
+ * listed. Thus <code>example.com</code> contains <code>mail.example.com</code>.
+ * 
+ * <p>
+ * A list is read from a resource with one domain per line. Blank lines and lines starting with
+ * <code>#</code> are skipped, a leading <code>*.</code> is ignored. Domains are case insensitive
+ * and converted with {@link IDN#toASCII(String)}.
+ * </p>
+ * 
+ * <p>
+ * The domains are stored as a trie of their labels from right to left. Every distinct label is
+ * stored once, the nodes are laid out breadth first in arrays of ints with the children of each
+ * node sorted by their label. Domains below a listed domain are dropped, as they are contained
+ * anyway. A lookup hashes each label of the domain once and searches the children of the current
+ * node, so it takes time proportional to the number of labels and allocates nothing for ASCII
+ * domains. Lists are shared per class loader and resource.
+ * </p>
+ * 
+ * @author Christian Sterzl
+ * @since 1.3.1
+ */
+public final class DomainList {
+
+  private static final ClassLoaderCache<String, DomainList> CACHE =
+      new ClassLoaderCache<String, DomainList>();
+
+  private static final int ROOT = 0;
+
+  private final int size;
+  /** The characters of all distinct labels. */
+  private final byte[] chars;
+  /** The start of each label in {@link #chars} followed by the end of the last one. */
+  private final int[] labelStarts;
+  /** An open addressing hash table of the label ids plus one, zero marks a free slot. */
+  private final int[] labelTable;
+  /** The first child of each node followed by the number of nodes. */
+  private final int[] firstChild;
+  /** The label of each node. */
+  private final int[] nodeLabels;
+  /** Whether the domain of a node is listed, one bit per node. */
+  private final long[] listed;
+
+  private DomainList(final Builder builder) {
+    size = builder.size;
+    int labels = builder.labels.size();
+    labelStarts = new int[labels + 1];
+    int length = 0;
+    for (int i = 0; i < labels; i++) {
+      labelStarts[i] = length;
+      length += builder.labels.get(i).length();
+    }
+    labelStarts[labels] = length;
+    chars = new byte[length];
+    for (int i = 0; i < labels; i++) {
+      String label = builder.labels.get(i);
+      for (int j = 0; j < label.length(); j++) {
+        chars[labelStarts[i] + j] = (byte) label.charAt(j);
+      }
+    }
+    labelTable = new int[Integer.highestOneBit(Math.max(labels, 1) * 2) * 2];
+    for (int i = 0; i < labels; i++) {
+      int slot = hash(builder.labels.get(i), 0, labelStarts[i + 1] - labelStarts[i]);
+      while (labelTable[slot &= labelTable.length - 1] != 0) {
+        slot++;
+      }
+      labelTable[slot] = i + 1;
+    }
+
+    List<Builder.Node> nodes = new ArrayList<Builder.Node>();
+    nodes.add(builder.root);
+    firstChild = new int[builder.nodes + 1];
+    nodeLabels = new int[builder.nodes];
+    listed = new long[(builder.nodes + 63) >>> 6];
+    for (int node = 0; node < nodes.size(); node++) {
+      Builder.Node current = nodes.get(node);
+      firstChild[node] = nodes.size();
+      nodeLabels[node] = current.label;
+      if (current.listed) {
+        listed[node >>> 6] |= 1L << node;
+      }
+      if (current.children != null) {
+        Builder.Node[] children = current.children.values().toArray(new Builder.Node[0]);
+        Arrays.sort(children);
+        nodes.addAll(Arrays.asList(children));
+      }
+    }
+    firstChild[builder.nodes] = builder.nodes;
+  }
+
+  /**
+   * Returns the list of a resource of the class loader of the current thread, which is read once
+   * and shared afterwards.
+   * 
+   * @param resource
+   *          the name of a resource of the class loader of the current thread or of this class
+   * @return the list of the resource
+   * @throws IllegalArgumentException
+   *           if the resource does not exist or contains an invalid domain
+   */
+  public static DomainList of(final String resource) {
+    return of(resource, ClassLoaderCache.current());
+  }
+
+  /**
+   * Returns the list of a resource of a class loader, which is read once and shared afterwards.
+   * Different class loaders get different lists, even if their resources have the same name.
+   * 
+   * @param resource
+   *          the name of a resource of the class loader or of this class
+   * @param loader
+   *          a class loader
+   * @return the list of the resource
+   * @throws IllegalArgumentException
+   *           if the resource does not exist or contains an invalid domain
+   */
+  public static DomainList of(final String resource, final ClassLoader loader) {
+    ConcurrentMap<String, DomainList> lists = CACHE.of(loader);
+    DomainList list = lists.get(resource);
+    if (list == null) {
+      list = load(resource, loader);
+      DomainList existing = lists.putIfAbsent(resource, list);
+      list = existing == null ? list : existing;
+    }
+    return list;
+  }
+
+  private static DomainList load(final String resource, final ClassLoader loader) {
+    String name = resource.startsWith("/") ? resource.substring(1) : resource;
+    InputStream in = loader == null ? null : loader.getResourceAsStream(name);
+    if (in == null && DomainList.class.getClassLoader() != null) {
+      in = DomainList.class.getClassLoader().getResourceAsStream(name);
+    }
+    if (in == null) {
+      throw new IllegalArgumentException("Domain list " + resource + " not found.");
+    }
+    try (Reader reader = new InputStreamReader(in, StandardCharsets.UTF_8)) {
+      return read(reader);
+    } catch (IOException e) {
+      throw new IllegalArgumentException("Domain list " + resource + " cannot be read.", e);
+    }
+  }
+
+  /**
+   * @param reader
+   *          the lines of a list
+   * @return the list
+   * @throws IOException
+   *           if the lines cannot be read
+   * @throws IllegalArgumentException
+   *           if a line contains an invalid domain
+   */
+  public static DomainList read(final Reader reader) throws IOException {
+    Builder builder = new Builder();
+    BufferedReader lines = new BufferedReader(reader);
+    int number = 0;
+    for (String line = lines.readLine(); line != null; line = lines.readLine()) {
+      number++;
+      String domain = line.trim();
+      if (domain.isEmpty() || domain.startsWith("#")) {
+        continue;
+      }
+      if (domain.startsWith("*.")) {
+        domain = domain.substring(2);
+      }
+      try {
+        domain = IDN.toASCII(domain.toLowerCase(Locale.ROOT));
+      } catch (IllegalArgumentException e) {
+        throw new IllegalArgumentException("Invalid domain in line " + number + ": " + line, e);
+      }
+      if (domain.isEmpty() || domain.startsWith(".") || domain.endsWith(".")
+          || domain.contains("..")) {
+        throw new IllegalArgumentException("Invalid domain in line " + number + ": " + line);
+      }
+      builder.add(domain);
+    }
+    return new DomainList(builder);
+  }
+
+  /**
+   * @return the number of listed domains, not counting those below another listed domain
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * @param domain
+   *          an ASCII domain, for example the result of {@link IDN#toASCII(String)}
+   * @return true if the domain or one of its parent domains is listed
+   */
+  public boolean contains(final CharSequence domain) {
+    return contains(domain, 0, domain.length());
+  }
+
+  /**
+   * @param text
+   *          a text containing an ASCII domain
+   * @param from
+   *          the index of the first character of the domain
+   * @param to
+   *          the index after the last character of the domain
+   * @return true if the domain or one of its parent domains is listed
+   */
+  public boolean contains(final CharSequence text, final int from, final int to) {
+    int node = ROOT;
+    int end = to;
+    while (end > from) {
+      int start = end - 1;
+      while (start >= from && text.charAt(start) != '.') {
+        start--;
+      }
+      int label = label(text, start + 1, end);
+      if (label < 0) {
+        return false;
+      }
+      node = child(node, label);
+      if (node < 0) {
+        return false;
+      }
+      if ((listed[node >>> 6] & 1L << node) != 0) {
+        return true;
+      }
+      end = start;
+    }
+    return false;
+  }
+
+  /**
+   * @return the id of the label or -1 if no domain has this label
+   */
+  private int label(final CharSequence domain, final int start, final int end) {
+    int length = end - start;
+    for (int slot = hash(domain, start, end);; slot++) {
+      int label = labelTable[slot &= labelTable.length - 1] - 1;
+      if (label < 0) {
+        return -1;
+      }
+      int from = labelStarts[label];
+      if (labelStarts[label + 1] - from == length && matches(domain, start, from, length)) {
+        return label;
+      }
+    }
+  }
+
+  private boolean matches(final CharSequence domain, final int start, final int from,
+      final int length) {
+    for (int i = 0; i < length; i++) {
+      if (lowerCase(domain.charAt(start + i)) != chars[from + i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * @return the child of the node with the label or -1 if there is none
+   */
+  private int child(final int node, final int label) {
+    int low = firstChild[node];
+    int high = firstChild[node + 1] - 1;
+    while (low <= high) {
+      int middle = (low + high) >>> 1;
+      int value = nodeLabels[middle];
+      if (value < label) {
+        low = middle + 1;
+      } else if (value > label) {
+        high = middle - 1;
+      } else {
+        return middle;
+      }
+    }
+    return -1;
+  }
+
+  private static int hash(final CharSequence text, final int start, final int end) {
+    int hash = 0;
+    for (int i = start; i < end; i++) {
+      hash = hash * 31 + lowerCase(text.charAt(i));
+    }
+    return hash ^ hash >>> 16;
+  }
+
+  private static int lowerCase(final char c) {
+    return c >= 'A' && c <= 'Z' ? c + ('a' - 'A') : c;
+  }
+
+  /**
+   * Collects the domains in a trie of objects, which is compacted by the constructor.
+   */
+  private static final class Builder {
+    private final Map<String, Integer> ids = new HashMap<String, Integer>();
+    private final List<String> labels = new ArrayList<String>();
+    private final Node root = new Node(-1);
+    private int nodes = 1;
+    private int size;
+
+    void add(final String domain) {
+      Node node = root;
+      int end = domain.length();
+      while (end > 0 && !node.listed) {
+        int start = domain.lastIndexOf('.', end - 1);
+        node = node.child(id(domain.substring(start + 1, end)));
+        end = start;
+      }
+      if (!node.listed) {
+        node.listed = true;
+        size += 1 - node.drop();
+      }
+    }
+
+    private int id(final String label) {
+      Integer id = ids.get(label);
+      if (id == null) {
+        id = labels.size();
+        ids.put(label, id);
+        labels.add(label);
+      }
+      return id;
+    }
+
+    private final class Node implements Comparable<Node> {
+      final int label;
+      boolean listed;
+      Map<Integer, Node> children;
+
+      Node(final int label) {
+        this.label = label;
+      }
+
+      Node child(final int childLabel) {
+        if (children == null) {
+          children = new HashMap<Integer, Node>();
+        }
+        Node child = children.get(childLabel);
+        if (child == null) {
+          child = new Node(childLabel);
+          children.put(childLabel, child);
+          nodes++;
+        }
+        return child;
+      }
+
+      /**
+       * Drops the descendants of a listed node.
+       * 
+       * @return the number of listed descendants
+       */
+      int drop() {
+        int dropped = 0;
+        if (children != null) {
+          for (Node child : children.values()) {
+            dropped += (child.listed ? 1 : 0) + child.drop();
+            nodes--;
+          }
+          children = null;
+        }
+        return dropped;
+      }
+
+      @Override
+      public int compareTo(final Node other) {
+        return label < other.label ? -1 : label == other.label ? 0 : 1;
+      }
+    }
+  }
+}
@@ -0,0 +1,427 @@
+/*
+ * Copyright (C) 2012-2015 Christian Sterzl <christian.sterzl@gmail.com>
+ *
+ * This file is part of ValidationConstraints.
+ *
+ * ValidationConstraints is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * ValidationConstraints is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with ValidationConstraints.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.vcollaborate.validation.constraints.email;
+
+import java.net.IDN;
+import java.nio.ByteBuffer;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * The immutable state of an <code>@Email</code> configuration: whether a domain suffix is required,
+ * the additional regular expression with its flags and the lists of allowed and blocked domains.
+ * 
+ * <p>
+ * Rules are canonical, {@link #of(boolean, String, int, String, String)} returns the same instance
+ * for equal configurations. Thus a regular expression is compiled once, however many validators
+ * use it. The default expression <code>.*</code> is not compiled at all, as it matches every
+ * address the {@link EmailScanner} accepts. Rules with {@link DomainList}s are canonical per class
+ * loader, as the lists are resources of the class loader.
+ * </p>
+ * 
+ * @author Christian Sterzl
+ * @since 1.3.1
+ */
+public final class EmailRules {
+
+  /**
+   * The regular expression matching any address.
+   */
+  public static final String ANY = ".*";
+
+  /**
+   * The resource name of no domain list.
+   */
+  public static final String NONE = "";
+
+  private static final EmailRules WITH_SUFFIX = new EmailRules(true, ANY, 0, NONE, NONE);
+  private static final EmailRules WITHOUT_SUFFIX = new EmailRules(false, ANY, 0, NONE, NONE);
+
+  private static final ConcurrentMap<EmailRules, EmailRules> REGISTRY =
+      new ConcurrentHashMap<EmailRules, EmailRules>();
+  private static final ClassLoaderCache<EmailRules, EmailRules> DOMAIN_REGISTRY =
+      new ClassLoaderCache<EmailRules, EmailRules>();
+
+  private final boolean requiresSuffix;
+  private final String regexp;
+  private final int flags;
+  private final String allowedDomains;
+  private final String blockedDomains;
+  private final Pattern pattern;
+  private final DomainList allowed;
+  private final DomainList blocked;
+
+  /**
+   * Creates the key of a configuration, which has no compiled state.
+   */
+  private EmailRules(final boolean requiresSuffix, final String regexp, final int flags,
+      final String allowedDomains, final String blockedDomains) {
+    this(requiresSuffix, regexp, flags, allowedDomains, blockedDomains, null, null, null);
+  }
+
+  private EmailRules(final boolean requiresSuffix, final String regexp, final int flags,
+      final String allowedDomains, final String blockedDomains, final Pattern pattern,
+      final DomainList allowed, final DomainList blocked) {
+    this.requiresSuffix = requiresSuffix;
+    this.regexp = regexp;
+    this.flags = flags;
+    this.allowedDomains = allowedDomains;
+    this.blockedDomains = blockedDomains;
+    this.pattern = pattern;
+    this.allowed = allowed;
+    this.blocked = blocked;
+  }
+
+  /**
+   * @param requiresSuffix
+   *          whether the domain needs a suffix
+   * @return the rules without an additional regular expression
+   */
+  public static EmailRules of(final boolean requiresSuffix) {
+    return requiresSuffix ? WITH_SUFFIX : WITHOUT_SUFFIX;
+  }
+
+  /**
+   * @param requiresSuffix
+   *          whether the domain needs a suffix
+   * @param regexp
+   *          an additional regular expression the whole address must match
+   * @param flags
+   *          the flags of the regular expression, see {@link Pattern#compile(String, int)}
+   * @return the canonical rules of the configuration
+   * @throws IllegalArgumentException
+   *           if the regular expression or its flags are invalid
+   */
+  public static EmailRules of(final boolean requiresSuffix, final String regexp, final int flags) {
+    return of(requiresSuffix, regexp, flags, NONE, NONE);
+  }
+
+  /**
+   * Returns the rules of a configuration, whose domain lists are resources of the class loader of
+   * the current thread.
+   * 
+   * @param requiresSuffix
+   *          whether the domain needs a suffix
+   * @param regexp
+   *          an additional regular expression the whole address must match
+   * @param flags
+   *          the flags of the regular expression, see {@link Pattern#compile(String, int)}
+   * @param allowedDomains
+   *          the resource of the {@link DomainList} containing the domain of each valid address or
+   *          {@link #NONE}
+   * @param blockedDomains
+   *          the resource of the {@link DomainList} containing no domain of a valid address or
+   *          {@link #NONE}
+   * @return the canonical rules of the configuration
+   * @throws IllegalArgumentException
+   *           if the regular expression or its flags are invalid or a domain list cannot be read
+   */
+  public static EmailRules of(final boolean requiresSuffix, final String regexp, final int flags,
+      final String allowedDomains, final String blockedDomains) {
+    return of(requiresSuffix, regexp, flags, allowedDomains, blockedDomains,
+        ClassLoaderCache.current());
+  }
+
+  /**
+   * @param requiresSuffix
+   *          whether the domain needs a suffix
+   * @param regexp
+   *          an additional regular expression the whole address must match
+   * @param flags
+   *          the flags of the regular expression, see {@link Pattern#compile(String, int)}
+   * @param allowedDomains
+   *          the resource of the {@link DomainList} containing the domain of each valid address or
+   *          {@link #NONE}
+   * @param blockedDomains
+   *          the resource of the {@link DomainList} containing no domain of a valid address or
+   *          {@link #NONE}
+   * @param loader
+   *          the class loader of the domain lists
+   * @return the canonical rules of the configuration
+   * @throws IllegalArgumentException
+   *           if the regular expression or its flags are invalid or a domain list cannot be read
+   */
+  public static EmailRules of(final boolean requiresSuffix, final String regexp, final int flags,
+      final String allowedDomains, final String blockedDomains, final ClassLoader loader) {
+    boolean lists = !allowedDomains.isEmpty() || !blockedDomains.isEmpty();
+    if (ANY.equals(regexp) && !lists) {
+      return of(requiresSuffix);
+    }
+    ConcurrentMap<EmailRules, EmailRules> registry = lists ? DOMAIN_REGISTRY.of(loader)
+        : REGISTRY;
+    EmailRules key = new EmailRules(requiresSuffix, regexp, flags, allowedDomains,
+        blockedDomains);
+    EmailRules rules = registry.get(key);
+    if (rules == null) {
+      Pattern pattern = null;
+      if (!ANY.equals(regexp)) {
+        try {
+          pattern = Pattern.compile(regexp, flags);
+        } catch (PatternSyntaxException e) {
+          throw new IllegalArgumentException("Invalid regular expression.", e);
+        }
+      }
+      rules = new EmailRules(requiresSuffix, regexp, flags, allowedDomains, blockedDomains,
+          pattern, allowedDomains.isEmpty() ? null : DomainList.of(allowedDomains, loader),
+          blockedDomains.isEmpty() ? null : DomainList.of(blockedDomains, loader));
+      EmailRules existing = registry.putIfAbsent(rules, rules);
+      rules = existing == null ? rules : existing;
+    }
+    return rules;
+  }
+
+  /**
+   * @return whether the domain needs a suffix
+   */
+  public boolean requiresSuffix() {
+    return requiresSuffix;
+  }
+
+  /**
+   * @return the additional regular expression, {@value #ANY} if there is none
+   */
+  public String getRegexp() {
+    return regexp;
+  }
+
+  /**
+   * @return the flags of the additional regular expression
+   */
+  public int getFlags() {
+    return flags;
+  }
+
+  /**
+   * @return the resource of the allowed domains, {@link #NONE} if all are allowed
+   */
+  public String getAllowedDomains() {
+    return allowedDomains;
+  }
+
+  /**
+   * @return the resource of the blocked domains, {@link #NONE} if none are blocked
+   */
+  public String getBlockedDomains() {
+    return blockedDomains;
+  }
+
+  /**
+   * Checks an address. <code>null</code> is valid, an empty address only needs to match the
+   * additional regular expression.
+   * 
+   * @param value
+   *          an address
+   * @return true if the address is valid
+   */
+  public boolean isValid(final CharSequence value) {
+    if (value == null) {
+      return true;
+    }
+    if (pattern != null && !pattern.matcher(value).matches()) {
+      return false;
+    }
+    return value.length() == 0 || EmailScanner.isValid(value, requiresSuffix)
+        && domainReason(value) == null;
+  }
+
+  /**
+   * Checks an address encoded in UTF-8 without changing the position or limit of the buffer.
+   * ASCII addresses are not decoded, without an additional regular expression and domain lists
+   * they allocate nothing.
+   * 
+   * @param buffer
+   *          a buffer containing the address
+   * @param offset
+   *          the absolute index of the first byte of the address
+   * @param length
+   *          the number of bytes of the address
+   * @return true if the address is valid
+   * @see EmailScanner#isValid(ByteBuffer, int, int, boolean)
+   */
+  public boolean isValid(final ByteBuffer buffer, final int offset, final int length) {
+    if (pattern == null && allowed == null && blocked == null) {
+      return length == 0 || EmailScanner.isValid(buffer, offset, length, requiresSuffix);
+    }
+    CharSequence value = characters(buffer, offset, length);
+    return value != null && isValid(value);
+  }
+
+  /**
+   * @param value
+   *          an address
+   * @return the reason the address is invalid or <code>null</code> if it is valid
+   */
+  public InvalidReason reason(final CharSequence value) {
+    if (value == null) {
+      return null;
+    }
+    if (pattern != null && !pattern.matcher(value).matches()) {
+      return InvalidReason.REGEXP;
+    }
+    if (value.length() == 0) {
+      return null;
+    }
+    InvalidReason reason = EmailScanner.reason(value, requiresSuffix);
+    return reason == null ? domainReason(value) : reason;
+  }
+
+  /**
+   * @param buffer
+   *          a buffer containing an address encoded in UTF-8
+   * @param offset
+   *          the absolute index of the first byte of the address
+   * @param length
+   *          the number of bytes of the address
+   * @return the reason the address is invalid or <code>null</code> if it is valid
+   */
+  public InvalidReason reason(final ByteBuffer buffer, final int offset, final int length) {
+    CharSequence value = characters(buffer, offset, length);
+    return value == null ? InvalidReason.ENCODING : reason(value);
+  }
+
+  /**
+   * Checks the domain of an address, which is valid according to the {@link EmailScanner}.
+   */
+  private InvalidReason domainReason(final CharSequence value) {
+    if (allowed == null && blocked == null) {
+      return null;
+    }
+    CharSequence ascii = value;
+    int at = lastAt(value);
+    for (int i = at + 1, length = value.length(); i < length; i++) {
+      if (value.charAt(i) >= 0x80) {
+        // IDN would merge the local part into the first label of the domain, unless the address
+        // has no ASCII @ but a full width one, which is mapped to @ by the conversion
+        ascii = IDN.toASCII(value.subSequence(at + 1, length).toString());
+        at = lastAt(ascii);
+        break;
+      }
+    }
+    int length = ascii.length();
+    if (allowed != null && !allowed.contains(ascii, at + 1, length)) {
+      return InvalidReason.DOMAIN_NOT_ALLOWED;
+    }
+    if (blocked != null && blocked.contains(ascii, at + 1, length)) {
+      return InvalidReason.DOMAIN_BLOCKED;
+    }
+    return null;
+  }
+
+  private static int lastAt(final CharSequence value) {
+    int at = value.length() - 1;
+    while (at >= 0 && value.charAt(at) != '@') {
+      at--;
+    }
+    return at;
+  }
+
+  /**
+   * @return the characters of the bytes or <code>null</code> if they are not valid UTF-8
+   */
+  private static CharSequence characters(final ByteBuffer buffer, final int offset,
+      final int length) {
+    if (offset < 0 || length < 0 || offset > buffer.limit() - length) {
+      throw new IndexOutOfBoundsException("offset " + offset + ", length " + length + ", limit "
+          + buffer.limit());
+    }
+    if (EmailScanner.isAscii(buffer, offset, length)) {
+      return new AsciiSequence(buffer, offset, length);
+    }
+    ByteBuffer slice = buffer.duplicate();
+    slice.limit(offset + length).position(offset);
+    return EmailScanner.decode(slice);
+  }
+
+  @Override
+  public boolean equals(final Object obj) {
+    if (this == obj) {
+      return true;
+    }
+    if (!(obj instanceof EmailRules)) {
+      return false;
+    }
+    EmailRules other = (EmailRules) obj;
+    return requiresSuffix == other.requiresSuffix && flags == other.flags
+        && regexp.equals(other.regexp) && allowedDomains.equals(other.allowedDomains)
+        && blockedDomains.equals(other.blockedDomains);
+  }
+
+  @Override
+  public int hashCode() {
+    int hash = regexp.hashCode() * 31 + flags;
+    hash = (hash * 31 + allowedDomains.hashCode()) * 31 + blockedDomains.hashCode();
+    return hash * 2 + (requiresSuffix ? 1 : 0);
+  }
+
+  @Override
+  public String toString() {
+    return "EmailRules[requiresSuffix=" + requiresSuffix + ", regexp=" + regexp + ", flags="
+        + flags + ", allowedDomains=" + allowedDomains + ", blockedDomains=" + blockedDomains
+        + "]";
+  }
+
+  /**
+   * The ASCII bytes of a buffer as characters without copying them.
+   */
+  private static final class AsciiSequence implements CharSequence {
+    private final ByteBuffer buffer;
+    private final int offset;
+    private final int length;
+
+    AsciiSequence(final ByteBuffer buffer, final int offset, final int length) {
+      this.buffer = buffer;
+      this.offset = offset;
+      this.length = length;
+    }
+
+    @Override
+    public int length() {
+      return length;
+    }
+
+    @Override
+    public char charAt(final int index) {
+      if (index < 0 || index >= length) {
+        throw new IndexOutOfBoundsException("index " + index + ", length " + length);
+      }
+      return (char) buffer.get(offset + index);
+    }
+
+    @Override
+    public CharSequence subSequence(final int start, final int end) {
+      if (start < 0 || start > end || end > length) {
+        throw new IndexOutOfBoundsException("start " + start + ", end " + end + ", length "
+            + length);
+      }
+      return new AsciiSequence(buffer, offset + start, end - start);
+    }
+
+    @Override
+    public String toString() {
+      char[] chars = new char[length];
+      for (int i = 0; i < length; i++) {
+        chars[i] = (char) buffer.get(offset + i);
+      }
+      return new String(chars);
+    }
+  }
+}
@@ -0,0 +1,420 @@
+/*
+ * Copyright (C) 2012-2015 Christian Sterzl <christian.sterzl@gmail.com>
+ *
+ * This file is part of ValidationConstraints.
+ *
+ * ValidationConstraints is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * ValidationConstraints is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with ValidationConstraints.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.vcollaborate.validation.constraints.email;
+
+import java.net.IDN;
+import java.nio.ByteBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Validates email addresses in a single pass over their characters.
+ * 
+ * <p>
+ * The scanner accepts the same language as the regular expressions of the
+ * {@link com.vcollaborate.validation.constraints.EmailValidator} before: atoms separated by dots,
+ * an <code>@</code> and either a domain of atoms separated by dots or an IPv4 address in brackets.
+ * If a suffix is required, the domain needs at least one dot. Letters are case insensitive.
+ * </p>
+ * 
+ * <p>
+ * The grammar is a deterministic automaton in a transition table of {@value #STATES} states for
+ * each ASCII character, which is shared by all scanners of this package. On top the limits of
+ * RFC 5321 are checked: at most {@value #MAX_LENGTH} characters, at most
+ * {@value #MAX_LOCAL_LENGTH} characters before the <code>@</code> and at most
+ * {@value #MAX_LABEL_LENGTH} characters per label of the domain. Longer inputs are rejected
+ * before they are scanned. Only inputs containing a non-ASCII character are converted with
+ * {@link IDN#toASCII(String)} and scanned again.
+ * </p>
+ * 
+ * <p>
+ * Addresses encoded in UTF-8 are validated without decoding them, if they are ASCII. This is
+ * detected eight bytes at a time, a valid ASCII address allocates nothing. Other addresses are
+ * decoded strictly, malformed UTF-8 is invalid.
+ * </p>
+ * 
+ * @author Christian Sterzl
+ * @since 1.3.1
+ */
+public final class EmailScanner {
+
+  static final int MAX_LENGTH = 254;
+  static final int MAX_LOCAL_LENGTH = 64;
+  static final int MAX_LABEL_LENGTH = 63;
+
+  /**
+   * The input is not valid.
+   */
+  static final int INVALID = 0;
+
+  /**
+   * The input is valid.
+   */
+  static final int VALID = 1;
+
+  /**
+   * The input contains a non-ASCII character and needs to be converted first.
+   */
+  static final int NON_ASCII = 2;
+
+  static final int FAIL = 0;
+  static final int LOCAL_START = 1;
+  static final int LOCAL = 2;
+  static final int DOMAIN_START = 3;
+  static final int FIRST_LABEL = 4;
+  static final int LABEL_START = 5;
+  static final int LABEL = 6;
+  /**
+   * The first of 16 states of the IPv4 address, one per octet and number of its digits.
+   */
+  static final int IP = 7;
+  static final int IP_END = IP + 16;
+  static final int STATES = IP_END + 1;
+
+  /**
+   * The next state of each state and ASCII character at index <code>state &lt;&lt; 7 | c</code>.
+   */
+  static final byte[] NEXT = new byte[STATES << 7];
+
+  private static final long HIGH_BITS = 0x8080808080808080L;
+
+  private static final String ATOM = "abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ"
+      + "0123456789!#$%&'*+/=?^_`{|}~-";
+
+  static {
+    for (int i = 0; i < ATOM.length(); i++) {
+      char c = ATOM.charAt(i);
+      transition(LOCAL_START, c, LOCAL);
+      transition(LOCAL, c, LOCAL);
+      transition(DOMAIN_START, c, FIRST_LABEL);
+      transition(FIRST_LABEL, c, FIRST_LABEL);
+      transition(LABEL_START, c, LABEL);
+      transition(LABEL, c, LABEL);
+    }
+    transition(LOCAL, '.', LOCAL_START);
+    transition(LOCAL, '@', DOMAIN_START);
+    transition(FIRST_LABEL, '.', LABEL_START);
+    transition(LABEL, '.', LABEL_START);
+
+    transition(DOMAIN_START, '[', IP);
+    for (int octet = 0; octet < 4; octet++) {
+      for (int digits = 0; digits < 4; digits++) {
+        int state = IP + octet * 4 + digits;
+        if (digits < 3) {
+          for (char c = '0'; c <= '9'; c++) {
+            transition(state, c, state + 1);
+          }
+        }
+        if (digits > 0 && octet < 3) {
+          transition(state, '.', IP + (octet + 1) * 4);
+        }
+        if (digits > 0 && octet == 3) {
+          transition(state, ']', IP_END);
+        }
+      }
+    }
+  }
+
+  private EmailScanner() {
+  }
+
+  private static void transition(final int state, final char c, final int next) {
+    NEXT[state << 7 | c] = (byte) next;
+  }
+
+  /**
+   * @param value
+   *          a non empty email address
+   * @param requiresSuffix
+   *          true if the domain needs a suffix
+   * @return true if the email address is valid
+   */
+  public static boolean isValid(final CharSequence value, final boolean requiresSuffix) {
+    int result = scan(value, requiresSuffix);
+    if (result == NON_ASCII) {
+      String ascii;
+      try {
+        ascii = IDN.toASCII(value.toString());
+      } catch (IllegalArgumentException e) {
+        return false;
+      }
+      result = scan(ascii, requiresSuffix);
+    }
+    return result == VALID;
+  }
+
+  /**
+   * Explains why an address is invalid. For each address the result is <code>null</code> exactly
+   * if {@link #isValid(CharSequence, boolean)} is true.
+   * 
+   * @param value
+   *          a non empty email address
+   * @param requiresSuffix
+   *          true if the domain needs a suffix
+   * @return the reason the address is invalid or <code>null</code> if it is valid
+   */
+  public static InvalidReason reason(final CharSequence value, final boolean requiresSuffix) {
+    if (value.length() > MAX_LENGTH) {
+      return InvalidReason.TOO_LONG;
+    }
+    CharSequence ascii = value;
+    if (invalid(value, 0) == NON_ASCII) {
+      try {
+        ascii = IDN.toASCII(value.toString());
+      } catch (IllegalArgumentException e) {
+        return InvalidReason.IDN;
+      }
+    }
+    int length = ascii.length();
+    if (length > MAX_LENGTH) {
+      return InvalidReason.TOO_LONG;
+    }
+    int scan = LOCAL_START;
+    for (int i = 0; i < length; i++) {
+      char c = ascii.charAt(i);
+      if (c >= 0x80) {
+        return InvalidReason.SYNTAX;
+      }
+      int next = step(scan, c, i);
+      if (next == FAIL) {
+        int state = NEXT[(scan & 0xFF) << 7 | c];
+        return state == DOMAIN_START ? InvalidReason.LOCAL_PART_TOO_LONG
+            : state == LABEL_START ? InvalidReason.LABEL_TOO_LONG : InvalidReason.SYNTAX;
+      }
+      scan = next;
+    }
+    if (accepts(scan, length, requiresSuffix)) {
+      return null;
+    }
+    if (accepts(scan & 0xFF, false)) {
+      return length - (scan >>> 8) > MAX_LABEL_LENGTH ? InvalidReason.LABEL_TOO_LONG
+          : InvalidReason.MISSING_SUFFIX;
+    }
+    return InvalidReason.SYNTAX;
+  }
+
+  /**
+   * @param bytes
+   *          an array containing a non empty email address encoded in UTF-8
+   * @param offset
+   *          the index of the first byte of the address
+   * @param length
+   *          the number of bytes of the address
+   * @param requiresSuffix
+   *          true if the domain needs a suffix
+   * @return true if the email address is valid
+   * @throws IndexOutOfBoundsException
+   *           if the address is not within the array
+   */
+  public static boolean isValid(final byte[] bytes, final int offset, final int length,
+      final boolean requiresSuffix) {
+    if (offset < 0 || length < 0 || offset > bytes.length - length) {
+      throw new IndexOutOfBoundsException("offset " + offset + ", length " + length
+          + ", array length " + bytes.length);
+    }
+    if (!isAscii(bytes, offset, length)) {
+      return isValidUtf8(ByteBuffer.wrap(bytes, offset, length), requiresSuffix);
+    }
+    if (length > MAX_LENGTH) {
+      return false;
+    }
+    int scan = LOCAL_START;
+    for (int i = 0; i < length; i++) {
+      scan = step(scan, bytes[offset + i], i);
+      if (scan == FAIL) {
+        return false;
+      }
+    }
+    return accepts(scan, length, requiresSuffix);
+  }
+
+  /**
+   * Validates bytes of a buffer without changing its position or limit.
+   * 
+   * @param buffer
+   *          a buffer containing a non empty email address encoded in UTF-8
+   * @param offset
+   *          the absolute index of the first byte of the address
+   * @param length
+   *          the number of bytes of the address
+   * @param requiresSuffix
+   *          true if the domain needs a suffix
+   * @return true if the email address is valid
+   * @throws IndexOutOfBoundsException
+   *           if the address is not within the limit of the buffer
+   */
+  public static boolean isValid(final ByteBuffer buffer, final int offset, final int length,
+      final boolean requiresSuffix) {
+    if (offset < 0 || length < 0 || offset > buffer.limit() - length) {
+      throw new IndexOutOfBoundsException("offset " + offset + ", length " + length + ", limit "
+          + buffer.limit());
+    }
+    if (!isAscii(buffer, offset, length)) {
+      ByteBuffer slice = buffer.duplicate();
+      slice.limit(offset + length).position(offset);
+      return isValidUtf8(slice, requiresSuffix);
+    }
+    if (length > MAX_LENGTH) {
+      return false;
+    }
+    int scan = LOCAL_START;
+    for (int i = 0; i < length; i++) {
+      scan = step(scan, buffer.get(offset + i), i);
+      if (scan == FAIL) {
+        return false;
+      }
+    }
+    return accepts(scan, length, requiresSuffix);
+  }
+
+  /**
+   * Decodes the remaining bytes of a buffer, which contain a non-ASCII character.
+   */
+  private static boolean isValidUtf8(final ByteBuffer remaining, final boolean requiresSuffix) {
+    CharSequence value = decode(remaining);
+    return value != null && isValid(value, requiresSuffix);
+  }
+
+  /**
+   * @param remaining
+   *          a buffer, whose remaining bytes are decoded
+   * @return the characters of the bytes or <code>null</code> if they are not valid UTF-8
+   */
+  static CharSequence decode(final ByteBuffer remaining) {
+    try {
+      return StandardCharsets.UTF_8.newDecoder().decode(remaining);
+    } catch (CharacterCodingException e) {
+      return null;
+    }
+  }
+
+  /**
+   * Checks eight bytes at a time for a set high bit.
+   */
+  static boolean isAscii(final byte[] bytes, final int offset, final int length) {
+    int end = offset + length;
+    int i = offset;
+    for (; i <= end - 8; i += 8) {
+      if ((bytes[i] | bytes[i + 1] | bytes[i + 2] | bytes[i + 3] | bytes[i + 4] | bytes[i + 5]
+          | bytes[i + 6] | bytes[i + 7]) < 0) {
+        return false;
+      }
+    }
+    for (; i < end; i++) {
+      if (bytes[i] < 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Checks a long at a time for a set high bit, which is independent of the byte order.
+   */
+  static boolean isAscii(final ByteBuffer buffer, final int offset, final int length) {
+    int end = offset + length;
+    int i = offset;
+    for (; i <= end - 8; i += 8) {
+      if ((buffer.getLong(i) & HIGH_BITS) != 0) {
+        return false;
+      }
+    }
+    for (; i < end; i++) {
+      if (buffer.get(i) < 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * @return {@link #VALID}, {@link #INVALID} or {@link #NON_ASCII}
+   */
+  static int scan(final CharSequence value, final boolean requiresSuffix) {
+    int length = value.length();
+    if (length > MAX_LENGTH) {
+      return INVALID;
+    }
+    int scan = LOCAL_START;
+    for (int i = 0; i < length; i++) {
+      char c = value.charAt(i);
+      if (c >= 0x80) {
+        return NON_ASCII;
+      }
+      scan = step(scan, c, i);
+      if (scan == FAIL) {
+        return invalid(value, i + 1);
+      }
+    }
+    return accepts(scan, length, requiresSuffix) ? VALID : INVALID;
+  }
+
+  /**
+   * Moves the automaton by an ASCII character. The scan packs the state into its low byte and the
+   * index of the first character of the current label above it.
+   * 
+   * @param scan
+   *          the current scan
+   * @param c
+   *          the ASCII character at the index
+   * @param index
+   *          the index of the character within the address
+   * @return the next scan, {@link #FAIL} if the character or a limit is invalid
+   */
+  static int step(final int scan, final int c, final int index) {
+    int state = NEXT[(scan & 0xFF) << 7 | c];
+    if (state == DOMAIN_START) {
+      return index > MAX_LOCAL_LENGTH ? FAIL : (index + 1) << 8 | state;
+    }
+    if (state == LABEL_START) {
+      return index - (scan >>> 8) > MAX_LABEL_LENGTH ? FAIL : (index + 1) << 8 | state;
+    }
+    return state == FAIL ? FAIL : scan & ~0xFF | state;
+  }
+
+  /**
+   * @return true if the scan of an address of the length ends accepted
+   */
+  private static boolean accepts(final int scan, final int length, final boolean requiresSuffix) {
+    return accepts(scan & 0xFF, requiresSuffix) && length - (scan >>> 8) <= MAX_LABEL_LENGTH;
+  }
+
+  /**
+   * IDN moves the ASCII characters of a label in front of its non-ASCII ones, thus an invalid ASCII
+   * prefix is only final if no non-ASCII character follows.
+   * 
+   * @return {@link #INVALID} or {@link #NON_ASCII}
+   */
+  private static int invalid(final CharSequence value, final int from) {
+    for (int i = from, length = value.length(); i < length; i++) {
+      if (value.charAt(i) >= 0x80) {
+        return NON_ASCII;
+      }
+    }
+    return INVALID;
+  }
+
+  /**
+   * @return true if the automaton accepts in the state
+   */
+  static boolean accepts(final int state, final boolean requiresSuffix) {
+    return state == LABEL || state == IP_END || state == FIRST_LABEL && !requiresSuffix;
+  }
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright (C) 2012-2015 Christian Sterzl <christian.sterzl@gmail.com>
+ *
+ * This file is part of ValidationConstraints.
+ *
+ * ValidationConstraints is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * ValidationConstraints is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with ValidationConstraints.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.vcollaborate.validation.constraints.email;
+
+/**
+ * The reason an email address is invalid.
+ * 
+ * @author Christian Sterzl
+ * @since 1.3.1
+ */
+public enum InvalidReason {
+  /**
+   * The address has more than 254 characters.
+   */
+  TOO_LONG,
+  /**
+   * The part before the <code>@</code> has more than 64 characters.
+   */
+  LOCAL_PART_TOO_LONG,
+  /**
+   * A label of the domain has more than 63 characters.
+   */
+  LABEL_TOO_LONG,
+  /**
+   * The domain has no suffix, although one is required.
+   */
+  MISSING_SUFFIX,
+  /**
+   * The address does not follow the grammar.
+   */
+  SYNTAX,
+  /**
+   * The address contains non-ASCII characters, which cannot be converted by
+   * {@link java.net.IDN#toASCII(String)}.
+   */
+  IDN,
+  /**
+   * The bytes of the address are not valid UTF-8.
+   */
+  ENCODING,
+  /**
+   * The address does not match the additional regular expression.
+   */
+  REGEXP,
+  /**
+   * The domain is not contained in the list of allowed domains.
+   */
+  DOMAIN_NOT_ALLOWED,
+  /**
+   * The domain is contained in the list of blocked domains.
+   */
+  DOMAIN_BLOCKED
+}
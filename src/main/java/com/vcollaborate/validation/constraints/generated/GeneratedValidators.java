@@ -0,0 +1,107 @@
+/*
+ * Copyright (C) 2012-2015 Christian Sterzl <christian.sterzl@gmail.com>
+ *
+ * This file is part of ValidationConstraints.
+ *
+ * ValidationConstraints is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * ValidationConstraints is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with ValidationConstraints.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package com.vcollaborate.validation.constraints.generated;
+
+/**
+ * Finds the generated validators of a class.
+ * 
+ * <p>
+ * A generated validator lives in the package of the validated class and is named after its binary
+ * name plus a suffix, e.g. <code>com.example.Booking$$DateRangeValidator</code> for
+ * <code>com.example.Booking</code>. The lookup is done once per class and cached in a
+ * {@link ClassValue}.
+ * </p>
+ * 
+ * @author Christian Sterzl
+ * @since 1.3.1
+ */
+public final class GeneratedValidators {
+
+  /**
+   * The suffix of validators checking the {@link
+   * com.vcollaborate.validation.constraints.daterange.DateRange} of a class.
+   */
+  public static final String DATE_RANGE_SUFFIX = "$$DateRangeValidator";
+
+  /**
+   * The suffix of validators checking all constraints of a class.
+   */
+  public static final String CONSTRAINTS_SUFFIX = "$$ConstraintsValidator";
+
+  private static final ClassValue<GeneratedValidator<Object>> DATE_RANGE = new Lookup(
+      DATE_RANGE_SUFFIX);
+
+  private static final ClassValue<GeneratedValidator<Object>> CONSTRAINTS = new Lookup(
+      CONSTRAINTS_SUFFIX);
+
+  private GeneratedValidators() {
+  }
+
+  /**
+   * @param type
+   *          the validated class
+   * @return the generated validator checking the date ranges of the class or <code>null</code>
+   */
+  public static GeneratedValidator<Object> dateRange(final Class<?> type) {
+    return DATE_RANGE.get(type);
+  }
+
+  /**
+   * @param type
+   *          the validated class
+   * @return the generated validator checking all constraints of the class or <code>null</code>
+   */
+  public static GeneratedValidator<Object> constraints(final Class<?> type) {
+    return CONSTRAINTS.get(type);
+  }
+
+  private static final class Lookup extends ClassValue<GeneratedValidator<Object>> {
+    private final String suffix;
+
+    Lookup(final String suffix) {
+      this.suffix = suffix;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected GeneratedValidator<Object> computeValue(final Class<?> type) {
+      ClassLoader classLoader = type.getClassLoader();
+      if (classLoader == null) {
+        return null;
+      }
+      Class<?> generated;
+      try {
+        generated = Class.forName(type.getName() + suffix, true, classLoader);
+      } catch (ClassNotFoundException e) {
+        return null;
+      }
+      if (!GeneratedValidator.class.isAssignableFrom(generated)) {
+        return null;
+      }
+      try {
+        return (GeneratedValidator<Object>) generated.getDeclaredConstructor().newInstance();
+      } catch (ReflectiveOperationException e) {
+        throw new IllegalStateException("Generated validator " + generated.getName()
+            + " can't be instantiated.", e);
+      }
+    }
+  }
+}
@@ -19,6 +19,9 @@
 
 package com.vcollaborate.validation.constraints.nested;
 
+import com.vcollaborate.validation.constraints.generated.GeneratedValidator;
+import com.vcollaborate.validation.constraints.generated.GeneratedValidators;
+
 import java.util.Iterator;
 import java.util.Set;
 
@@ -28,6 +31,16 @@ import javax.validation.ConstraintViolation;
 import javax.validation.Validation;
 import javax.validation.ValidatorFactory;
 
+/**
+ * Validates embedded members or collections of it with a second bean validator.
+ * 
+ * If the annotation processor of validation.constraints.processor generated a validator for the
+ * class of a member, the generated validator is used instead. Generated validators don't check
+ * constraints added by XML mappings.
+ * 
+ * @author Christian Sterzl
+ * @since 1.0
+ */
 public class NestedValidator implements ConstraintValidator<Nested, Object> {
 
   private Class<?> classToValidate;
@@ -35,6 +48,23 @@ public class NestedValidator implements ConstraintValidator<Nested, Object> {
   private static ValidatorFactory factory = Validation.buildDefaultValidatorFactory();
   private transient javax.validation.Validator validator;
 
+  /**
+   * Creates a validator, which is initialized by {@link #initialize(Nested)}.
+   */
+  public NestedValidator() {
+  }
+
+  /**
+   * Creates an initialized validator.
+   * 
+   * @param classToValidate
+   *          see {@link Nested#value()}
+   */
+  public NestedValidator(final Class<?> classToValidate) {
+    this.classToValidate = classToValidate;
+    this.validator = factory.getValidator();
+  }
+
   /**
    * {@inheritDoc}
    * 
@@ -73,7 +103,14 @@ public class NestedValidator implements ConstraintValidator<Nested, Object> {
   }
 
   private boolean validate(final Object validatee) {
+    if (validatee == null) {
+      return true;
+    }
     if (validatee.getClass().isAssignableFrom(classToValidate)) {
+      GeneratedValidator<Object> generated = GeneratedValidators.constraints(validatee.getClass());
+      if (generated != null) {
+        return generated.isValid(validatee);
+      }
       Set<ConstraintViolation<Object>> violations = validator.validate(validatee);
       return violations.size() == 0;
     }
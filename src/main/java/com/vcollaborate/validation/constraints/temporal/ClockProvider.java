@@ -0,0 +1,42 @@
+/*
+ * Copyright (C) 2012-2015 Christian Sterzl <christian.sterzl@gmail.com>
+ *
+ * This file is part of ValidationConstraints.
+ *
+ * ValidationConstraints is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * ValidationConstraints is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with ValidationConstraints.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.vcollaborate.validation.constraints.temporal;
+
+import java.time.Clock;
+
+/**
+ * Provides the clock temporal constraints compare their values with.
+ * 
+ * <p>
+ * Implementations referenced by a constraint need a public constructor without arguments and are
+ * instantiated once per validator. {@link Clocks#setDefault(ClockProvider)} replaces the provider
+ * of every constraint which doesn't reference its own one.
+ * </p>
+ * 
+ * @author Christian Sterzl
+ * @since 1.3.1
+ */
+public interface ClockProvider {
+
+  /**
+   * @return the clock, which is asked for each validated value
+   */
+  Clock getClock();
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright (C) 2012-2015 Christian Sterzl <christian.sterzl@gmail.com>
+ *
+ * This file is part of ValidationConstraints.
+ *
+ * ValidationConstraints is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * ValidationConstraints is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with ValidationConstraints.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.vcollaborate.validation.constraints.temporal;
+
+import java.time.Clock;
+
+/**
+ * Holds the default {@link ClockProvider} of the temporal constraints.
+ * 
+ * <p>
+ * The default is the system clock in the default time zone at the time this class is loaded. It
+ * can be replaced, e.g. by a fixed clock in tests, with {@link #setDefault(ClockProvider)}.
+ * </p>
+ * 
+ * @author Christian Sterzl
+ * @since 1.3.1
+ */
+public final class Clocks {
+
+  /**
+   * Provides the clock of the current default provider, thus follows
+   * {@link #setDefault(ClockProvider)}.
+   */
+  public static final ClockProvider DEFAULT = new ClockProvider() {
+    @Override
+    public Clock getClock() {
+      return defaultProvider.getClock();
+    }
+  };
+
+  private static final ClockProvider SYSTEM = new ClockProvider() {
+    private final Clock clock = Clock.systemDefaultZone();
+
+    @Override
+    public Clock getClock() {
+      return clock;
+    }
+  };
+
+  private static volatile ClockProvider defaultProvider = SYSTEM;
+
+  private Clocks() {
+  }
+
+  /**
+   * @param provider
+   *          the new default provider or <code>null</code> to restore the system clock
+   */
+  public static void setDefault(final ClockProvider provider) {
+    defaultProvider = provider == null ? SYSTEM : provider;
+  }
+
+  /**
+   * @param clock
+   *          a clock
+   * @return a provider of the clock
+   */
+  public static ClockProvider of(final Clock clock) {
+    return new ClockProvider() {
+      @Override
+      public Clock getClock() {
+        return clock;
+      }
+    };
+  }
+
+  /**
+   * @param type
+   *          the provider referenced by a constraint, {@link ClockProvider} itself refers to
+   *          {@link #DEFAULT}
+   * @return an instance of the provider
+   * @throws IllegalStateException
+   *           if the provider can't be instantiated
+   */
+  public static ClockProvider provider(final Class<? extends ClockProvider> type) {
+    if (type == ClockProvider.class) {
+      return DEFAULT;
+    }
+    try {
+      return type.newInstance();
+    } catch (InstantiationException e) {
+      throw new IllegalStateException("Clock provider " + type + " can not be instantiated.", e);
+    } catch (IllegalAccessException e) {
+      throw new IllegalStateException("Clock provider " + type + " is not accessible.", e);
+    }
+  }
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright (C) 2012-2015 Christian Sterzl <christian.sterzl@gmail.com>
+ *
+ * This file is part of ValidationConstraints.
+ *
+ * ValidationConstraints is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * ValidationConstraints is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with ValidationConstraints.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.vcollaborate.validation.constraints.temporal;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * The start of the day of an instant in a zone, which is cached until the day changes.
+ * 
+ * <p>
+ * Instants of the cached day are answered with two compares. Only the first instant of another day
+ * computes its start with <code>java.time</code>. Boundaries are shared per zone, the cache is
+ * bounded to {@value #MAX_SIZE} zones.
+ * </p>
+ * 
+ * @author Christian Sterzl
+ * @since 1.3.1
+ */
+public final class DayBoundary {
+
+  static final int MAX_SIZE = 256;
+
+  private static final ConcurrentMap<ZoneId, DayBoundary> CACHE =
+      new ConcurrentHashMap<ZoneId, DayBoundary>();
+
+  private final ZoneId zone;
+  private volatile Day day = new Day(0, 0);
+
+  private DayBoundary(final ZoneId zone) {
+    this.zone = zone;
+  }
+
+  /**
+   * @param zone
+   *          a zone
+   * @return the day boundary of the zone
+   */
+  public static DayBoundary of(final ZoneId zone) {
+    DayBoundary boundary = CACHE.get(zone);
+    if (boundary == null) {
+      boundary = new DayBoundary(zone);
+      if (CACHE.size() < MAX_SIZE) {
+        DayBoundary existing = CACHE.putIfAbsent(zone, boundary);
+        boundary = existing == null ? boundary : existing;
+      }
+    }
+    return boundary;
+  }
+
+  /**
+   * @return the zone of this boundary
+   */
+  public ZoneId getZone() {
+    return zone;
+  }
+
+  /**
+   * @param epochMillis
+   *          an instant in milliseconds since the epoch
+   * @return the start of the day of the instant in milliseconds since the epoch
+   */
+  public long startOfDay(final long epochMillis) {
+    Day current = day;
+    if (epochMillis >= current.start && epochMillis < current.end) {
+      return current.start;
+    }
+    LocalDate date = Instant.ofEpochMilli(epochMillis).atZone(zone).toLocalDate();
+    current = new Day(date.atStartOfDay(zone).toEpochSecond() * 1000L, date.plusDays(1)
+        .atStartOfDay(zone).toEpochSecond() * 1000L);
+    day = current;
+    return current.start;
+  }
+
+  /**
+   * A day from its start (inclusive) to the start of the next day (exclusive).
+   */
+  private static final class Day {
+    final long start;
+    final long end;
+
+    Day(final long start, final long end) {
+      this.start = start;
+      this.end = end;
+    }
+  }
+}
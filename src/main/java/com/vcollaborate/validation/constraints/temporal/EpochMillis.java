@@ -0,0 +1,150 @@
+/*
+ * Copyright (C) 2012-2015 Christian Sterzl <christian.sterzl@gmail.com>
+ *
+ * This file is part of ValidationConstraints.
+ *
+ * ValidationConstraints is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * ValidationConstraints is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with ValidationConstraints.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package com.vcollaborate.validation.constraints.temporal;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Converts the values of temporal constraints into milliseconds since the epoch.
+ * 
+ * <p>
+ * {@link Date}, {@link Calendar}, {@link Instant}, {@link ZonedDateTime}, {@link OffsetDateTime},
+ * {@link LocalDateTime}, {@link LocalDate} and {@link Long} are converted natively.
+ * {@link LocalDateTime} and {@link LocalDate} are interpreted in the default time zone.
+ * {@link CharSequence}s are parsed as ISO-8601 by {@link IsoDateTime}. Every other type is handed
+ * to the registered {@link TemporalBackend}s and finally, if joda-time is on the classpath, to
+ * {@link org.joda.time.DateTime#DateTime(Object)}. Besides {@link #isJodaTimeAvailable()},
+ * joda-time is not loaded before such a value shows up.
+ * </p>
+ * 
+ * @author Christian Sterzl
+ * @since 1.3.1
+ */
+public final class EpochMillis {
+
+  /**
+   * Marks a <code>null</code> value. A <code>long</code> or {@link Long} date holding
+   * {@link Long#MIN_VALUE} is indistinguishable from <code>null</code>, thus every constraint
+   * treats it like a missing date.
+   */
+  public static final long NULL = Long.MIN_VALUE;
+
+  private static final List<TemporalBackend> BACKENDS = new CopyOnWriteArrayList<TemporalBackend>();
+
+  private EpochMillis() {
+  }
+
+  /**
+   * Registers a backend for types which are not supported natively. Backends are asked in the order
+   * of their registration.
+   * 
+   * @param backend
+   *          the backend
+   */
+  public static void register(final TemporalBackend backend) {
+    BACKENDS.add(backend);
+  }
+
+  /**
+   * @param value
+   *          a date or <code>null</code>
+   * @return the milliseconds since the epoch or {@link #NULL} if the value is <code>null</code> or
+   *         empty
+   * @throws IllegalArgumentException
+   *           if the type of the value is not supported or a text is not ISO-8601
+   */
+  public static long of(final Object value) {
+    if (value == null) {
+      return NULL;
+    } else if (value instanceof Date) {
+      return ((Date) value).getTime();
+    } else if (value instanceof Calendar) {
+      return ((Calendar) value).getTimeInMillis();
+    } else if (value instanceof Instant) {
+      return ((Instant) value).toEpochMilli();
+    } else if (value instanceof ZonedDateTime) {
+      ZonedDateTime zdt = (ZonedDateTime) value;
+      return of(zdt.toEpochSecond(), zdt.getNano());
+    } else if (value instanceof OffsetDateTime) {
+      OffsetDateTime odt = (OffsetDateTime) value;
+      return of(odt.toEpochSecond(), odt.getNano());
+    } else if (value instanceof LocalDateTime) {
+      LocalDateTime ldt = (LocalDateTime) value;
+      return of(ldt.atZone(ZoneId.systemDefault()).toEpochSecond(), ldt.getNano());
+    } else if (value instanceof LocalDate) {
+      return of(((LocalDate) value).atStartOfDay(ZoneId.systemDefault()).toEpochSecond(), 0);
+    } else if (value instanceof Long) {
+      return ((Long) value).longValue();
+    } else if (value instanceof CharSequence) {
+      return IsoDateTime.parse((CharSequence) value);
+    }
+    return ofBackend(value);
+  }
+
+  /**
+   * @return <code>true</code> if joda-time is on the classpath
+   */
+  public static boolean isJodaTimeAvailable() {
+    return Joda.BACKEND != null;
+  }
+
+  private static long of(final long epochSecond, final int nanos) {
+    return epochSecond * 1000L + nanos / 1000000;
+  }
+
+  private static long ofBackend(final Object value) {
+    for (TemporalBackend backend : BACKENDS) {
+      if (backend.supports(value)) {
+        return backend.epochMillis(value);
+      }
+    }
+    if (Joda.BACKEND == null) {
+      throw new IllegalArgumentException("No temporal backend found for type: "
+          + value.getClass().getName());
+    }
+    return Joda.BACKEND.epochMillis(value);
+  }
+
+  /**
+   * Holds the joda-time backend, which is initialized on first use.
+   */
+  private static final class Joda {
+    static final TemporalBackend BACKEND = load();
+
+    private static TemporalBackend load() {
+      try {
+        Class.forName("org.joda.time.DateTime", false, EpochMillis.class.getClassLoader());
+      } catch (ClassNotFoundException e) {
+        return null;
+      }
+      return new JodaBackend();
+    }
+  }
+}
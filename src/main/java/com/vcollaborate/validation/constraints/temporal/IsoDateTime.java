@@ -0,0 +1,332 @@
+/*
+ * Copyright (C) 2012-2015 Christian Sterzl <christian.sterzl@gmail.com>
+ *
+ * This file is part of ValidationConstraints.
+ *
+ * ValidationConstraints is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * ValidationConstraints is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with ValidationConstraints.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.vcollaborate.validation.constraints.temporal;
+
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
+
+/**
+ * Parses ISO-8601 dates and date-times into milliseconds since the epoch without creating
+ * intermediate objects.
+ * 
+ * <p>
+ * The accepted format is <code>yyyy-MM-dd</code>, optionally followed by <code>T</code> or a space
+ * and <code>HH:mm[:ss[.S{1,9}]]</code>, an offset <code>Z</code>, <code>&#177;HH</code>,
+ * <code>&#177;HHmm</code> or <code>&#177;HH:mm</code> and a zone id in brackets like
+ * <code>[Europe/Vienna]</code>, which is the format of {@link java.time.ZonedDateTime#toString()}.
+ * Fractions beyond milliseconds are truncated. Date-times without offset are resolved in the zone
+ * in brackets or else in the default time zone, dates are resolved to the start of the day.
+ * </p>
+ * 
+ * <p>
+ * Offsets are applied arithmetically. Zones are cached by their id together with the period between
+ * two of their transitions, thus only the first date-time of such a period converts its zone with
+ * <code>java.time</code>.
+ * </p>
+ * 
+ * @author Christian Sterzl
+ * @since 1.3.1
+ */
+public final class IsoDateTime {
+
+  private static final long SECOND = 1000L;
+  private static final long MINUTE = 60 * SECOND;
+  private static final long HOUR = 60 * MINUTE;
+  private static final long DAY = 24 * HOUR;
+
+  private static final int ZONE_CACHE_SIZE = 256;
+  private static final Zone[] ZONES = new Zone[ZONE_CACHE_SIZE];
+
+  private static volatile Zone defaultZone;
+
+  private IsoDateTime() {
+  }
+
+  /**
+   * @param text
+   *          an ISO-8601 date or date-time, an empty text or <code>null</code>
+   * @return the milliseconds since the epoch or {@link EpochMillis#NULL} if the text is empty or
+   *         <code>null</code>
+   * @throws IllegalArgumentException
+   *           if the text is not an ISO-8601 date or date-time
+   */
+  public static long parse(final CharSequence text) {
+    if (text == null || text.length() == 0) {
+      return EpochMillis.NULL;
+    }
+    int length = text.length();
+    if (length < 10 || text.charAt(4) != '-' || text.charAt(7) != '-') {
+      throw invalid(text);
+    }
+    int year = digits(text, 0, 4);
+    int month = digits(text, 5, 2);
+    int day = digits(text, 8, 2);
+    if (month < 1 || month > 12 || day < 1 || day > lengthOfMonth(year, month)) {
+      throw invalid(text);
+    }
+    long local = daysSinceEpoch(year, month, day) * DAY;
+    if (length == 10) {
+      return defaultZone().toEpochMillis(local);
+    }
+
+    char separator = text.charAt(10);
+    if (separator != 'T' && separator != 't' && separator != ' ' || length < 16
+        || text.charAt(13) != ':') {
+      throw invalid(text);
+    }
+    int hour = digits(text, 11, 2);
+    int minute = digits(text, 14, 2);
+    int second = 0;
+    int millis = 0;
+    int pos = 16;
+    if (pos < length && text.charAt(pos) == ':') {
+      second = digits(text, pos + 1, 2);
+      pos += 3;
+      if (pos < length && (text.charAt(pos) == '.' || text.charAt(pos) == ',')) {
+        int end = pos + 1;
+        while (end < length && end - pos <= 9 && isDigit(text.charAt(end))) {
+          millis = end - pos <= 3 ? millis * 10 + text.charAt(end) - '0' : millis;
+          end++;
+        }
+        if (end == pos + 1) {
+          throw invalid(text);
+        }
+        for (int i = end - pos; i <= 3; i++) {
+          millis *= 10;
+        }
+        pos = end;
+      }
+    }
+    if (hour > 23 || minute > 59 || second > 59) {
+      throw invalid(text);
+    }
+    local += hour * HOUR + minute * MINUTE + second * SECOND + millis;
+
+    if (pos == length) {
+      return defaultZone().toEpochMillis(local);
+    }
+    char offset = text.charAt(pos);
+    long epochMillis;
+    if (offset == 'Z' || offset == 'z') {
+      epochMillis = local;
+      pos++;
+    } else if (offset == '+' || offset == '-') {
+      int offsetHours = digits(text, pos + 1, 2);
+      int offsetMinutes = 0;
+      pos += 3;
+      if (pos < length && text.charAt(pos) == ':') {
+        offsetMinutes = digits(text, pos + 1, 2);
+        pos += 3;
+      } else if (pos + 1 < length && isDigit(text.charAt(pos))) {
+        offsetMinutes = digits(text, pos, 2);
+        pos += 2;
+      }
+      if (offsetHours > 18 || offsetMinutes > 59) {
+        throw invalid(text);
+      }
+      long offsetMillis = offsetHours * HOUR + offsetMinutes * MINUTE;
+      epochMillis = offset == '+' ? local - offsetMillis : local + offsetMillis;
+    } else if (offset == '[') {
+      return zone(text, pos, length).toEpochMillis(local);
+    } else {
+      throw invalid(text);
+    }
+
+    if (pos < length) {
+      // The zone in brackets can't change the instant given by the offset
+      if (text.charAt(pos) != '[') {
+        throw invalid(text);
+      }
+      zone(text, pos, length);
+    }
+    return epochMillis;
+  }
+
+  private static int digits(final CharSequence text, final int from, final int count) {
+    if (from + count > text.length()) {
+      throw invalid(text);
+    }
+    int value = 0;
+    for (int i = from; i < from + count; i++) {
+      char c = text.charAt(i);
+      if (!isDigit(c)) {
+        throw invalid(text);
+      }
+      value = value * 10 + c - '0';
+    }
+    return value;
+  }
+
+  private static boolean isDigit(final char c) {
+    return c >= '0' && c <= '9';
+  }
+
+  private static int lengthOfMonth(final int year, final int month) {
+    if (month == 2) {
+      return year % 4 == 0 && (year % 100 != 0 || year % 400 == 0) ? 29 : 28;
+    }
+    return month == 4 || month == 6 || month == 9 || month == 11 ? 30 : 31;
+  }
+
+  /**
+   * Days since 1970-01-01 of a date in the proleptic gregorian calendar, counted in eras of 400
+   * years starting in March.
+   */
+  static long daysSinceEpoch(final int year, final int month, final int day) {
+    int y = month <= 2 ? year - 1 : year;
+    int era = (y >= 0 ? y : y - 399) / 400;
+    int yearOfEra = y - era * 400;
+    int dayOfYear = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+    int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+    return era * 146097L + dayOfEra - 719468;
+  }
+
+  private static IllegalArgumentException invalid(final CharSequence text) {
+    return new IllegalArgumentException("Not an ISO-8601 date or date-time: " + text);
+  }
+
+  private static Zone defaultZone() {
+    ZoneId id = ZoneId.systemDefault();
+    Zone zone = defaultZone;
+    // Java 8 returns a new ZoneId on every call, thus they are compared by equals
+    if (zone == null || !zone.id.equals(id)) {
+      zone = new Zone(id);
+      defaultZone = zone;
+    }
+    return zone;
+  }
+
+  /**
+   * Looks up the zone in brackets from pos up to the end of the text in a hash table of zones,
+   * which are compared with the text in place.
+   */
+  private static Zone zone(final CharSequence text, final int pos, final int length) {
+    if (length - pos < 3 || text.charAt(length - 1) != ']') {
+      throw invalid(text);
+    }
+    int hash = 0;
+    for (int i = pos + 1; i < length - 1; i++) {
+      hash = 31 * hash + text.charAt(i);
+    }
+    int slot = (hash ^ hash >>> 16) & (ZONE_CACHE_SIZE - 1);
+    Zone zone = ZONES[slot];
+    if (zone != null && zone.matches(text, pos + 1, length - 1)) {
+      return zone;
+    }
+    try {
+      zone = new Zone(ZoneId.of(text.subSequence(pos + 1, length - 1).toString()));
+    } catch (DateTimeException e) {
+      throw new IllegalArgumentException("Unknown zone in: " + text, e);
+    }
+    ZONES[slot] = zone;
+    return zone;
+  }
+
+  /**
+   * A zone and the offset of the window between two of its transitions, which was used last.
+   */
+  private static final class Zone {
+    final ZoneId id;
+    final String name;
+    final ZoneRules rules;
+    volatile Window window;
+
+    Zone(final ZoneId id) {
+      this.id = id;
+      this.name = id.getId();
+      this.rules = id.getRules();
+      if (rules.isFixedOffset()) {
+        long offset = rules.getOffset(Instant.EPOCH).getTotalSeconds() * SECOND;
+        this.window = new Window(Long.MIN_VALUE, Long.MAX_VALUE, offset);
+      } else {
+        this.window = new Window(0, 0, 0);
+      }
+    }
+
+    boolean matches(final CharSequence text, final int from, final int to) {
+      if (to - from != name.length()) {
+        return false;
+      }
+      for (int i = from; i < to; i++) {
+        if (text.charAt(i) != name.charAt(i - from)) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    long toEpochMillis(final long local) {
+      Window current = window;
+      if (local >= current.from && local < current.to) {
+        return local - current.offset;
+      }
+      return resolve(local);
+    }
+
+    /**
+     * Resolves the local date-time like {@link LocalDateTime#atZone(ZoneId)} and remembers the
+     * window around it, in which local date-times are neither in a gap nor in an overlap.
+     */
+    private long resolve(final long local) {
+      long seconds = Math.floorDiv(local, SECOND);
+      int millis = (int) Math.floorMod(local, SECOND);
+      long epochMillis = LocalDateTime.ofEpochSecond(seconds, 0, ZoneOffset.UTC).atZone(id)
+          .toEpochSecond() * SECOND + millis;
+
+      Instant instant = Instant.ofEpochMilli(epochMillis);
+      long offset = rules.getOffset(instant).getTotalSeconds() * SECOND;
+      ZoneOffsetTransition previous = rules.previousTransition(instant.plusMillis(1));
+      ZoneOffsetTransition next = rules.nextTransition(instant);
+      long from = previous == null ? Long.MIN_VALUE : previous.toEpochSecond() * SECOND
+          + Math.max(offset(previous.getOffsetBefore()), offset(previous.getOffsetAfter()));
+      long to = next == null ? Long.MAX_VALUE : next.toEpochSecond() * SECOND
+          + Math.min(offset(next.getOffsetBefore()), offset(next.getOffsetAfter()));
+      if (local >= from && local < to) {
+        window = new Window(from, to, offset);
+      }
+      return epochMillis;
+    }
+
+    private static long offset(final ZoneOffset offset) {
+      return offset.getTotalSeconds() * SECOND;
+    }
+  }
+
+  /**
+   * Local date-times from (inclusive) to (exclusive) in milliseconds since the local epoch, which
+   * have the given offset.
+   */
+  private static final class Window {
+    final long from;
+    final long to;
+    final long offset;
+
+    Window(final long from, final long to, final long offset) {
+      this.from = from;
+      this.to = to;
+      this.offset = offset;
+    }
+  }
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright (C) 2012-2015 Christian Sterzl <christian.sterzl@gmail.com>
+ *
+ * This file is part of ValidationConstraints.
+ *
+ * ValidationConstraints is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * ValidationConstraints is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with ValidationConstraints.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package com.vcollaborate.validation.constraints.temporal;
+
+import com.vcollaborate.validation.constraints.daterange.JavaTimeConverters;
+
+import org.joda.time.DateTime;
+
+/**
+ * Converts every type which can be converted into {@link DateTime}.
+ * 
+ * <p>
+ * This class is only loaded if joda-time is on the classpath and a value shows up, which is not
+ * supported by {@link EpochMillis} itself. Loading it registers the {@link JavaTimeConverters}
+ * unless they are registered already.
+ * </p>
+ * 
+ * @author Christian Sterzl
+ * @since 1.3.1
+ */
+final class JodaBackend implements TemporalBackend {
+
+  static {
+    JavaTimeConverters.register();
+  }
+
+  /**
+   * {@inheritDoc}
+   * 
+   * This backend is asked last, thus it claims every value. {@link DateTime#DateTime(Object)} throws
+   * an {@link IllegalArgumentException} if the value can't be converted.
+   */
+  @Override
+  public boolean supports(final Object value) {
+    return true;
+  }
+
+  @Override
+  public long epochMillis(final Object value) {
+    return new DateTime(value).getMillis();
+  }
+}
@@ -0,0 +1,49 @@
+/*
+ * Copyright (C) 2012-2015 Christian Sterzl <christian.sterzl@gmail.com>
+ *
+ * This file is part of ValidationConstraints.
+ *
+ * ValidationConstraints is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * ValidationConstraints is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with ValidationConstraints.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package com.vcollaborate.validation.constraints.temporal;
+
+/**
+ * Converts values of types which are not supported by {@link EpochMillis} itself into milliseconds
+ * since the epoch.
+ * 
+ * <p>
+ * Backends are registered with {@link EpochMillis#register(TemporalBackend)}.
+ * </p>
+ * 
+ * @author Christian Sterzl
+ * @since 1.3.1
+ */
+public interface TemporalBackend {
+
+  /**
+   * @param value
+   *          a value, never <code>null</code>
+   * @return true if this backend can convert the value
+   */
+  boolean supports(Object value);
+
+  /**
+   * @param value
+   *          a value, which is supported by this backend
+   * @return the milliseconds since the epoch
+   */
+  long epochMillis(Object value);
+}
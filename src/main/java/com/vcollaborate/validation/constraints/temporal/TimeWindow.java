@@ -0,0 +1,127 @@
+/*
+ * Copyright (C) 2012-2015 Christian Sterzl <christian.sterzl@gmail.com>
+ *
+ * This file is part of ValidationConstraints.
+ *
+ * ValidationConstraints is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * ValidationConstraints is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with ValidationConstraints.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.vcollaborate.validation.constraints.temporal;
+
+/**
+ * A window of instants relative to now, from now plus a lower offset up to now plus an upper
+ * offset, both inclusive.
+ * 
+ * <p>
+ * An offset of {@link Long#MIN_VALUE} or {@link Long#MAX_VALUE} leaves the window unbounded on that
+ * side. {@link #at(long)} turns the window into absolute bounds once per instant of now, thus
+ * checking a value against them takes two long compares.
+ * </p>
+ * 
+ * @author Christian Sterzl
+ * @since 1.3.1
+ */
+public final class TimeWindow {
+
+  private final long lowerOffset;
+  private final long upperOffset;
+
+  private TimeWindow(final long lowerOffset, final long upperOffset) {
+    this.lowerOffset = lowerOffset;
+    this.upperOffset = upperOffset;
+  }
+
+  /**
+   * @param lowerOffset
+   *          the milliseconds from now to the first instant of the window or {@link Long#MIN_VALUE}
+   * @param upperOffset
+   *          the milliseconds from now to the last instant of the window or {@link Long#MAX_VALUE}
+   * @return the window
+   * @throws IllegalArgumentException
+   *           if the lower offset is greater than the upper offset
+   */
+  public static TimeWindow of(final long lowerOffset, final long upperOffset) {
+    if (lowerOffset > upperOffset) {
+      throw new IllegalArgumentException("Window from " + lowerOffset + " to " + upperOffset
+          + " is empty.");
+    }
+    return new TimeWindow(lowerOffset, upperOffset);
+  }
+
+  /**
+   * @param now
+   *          now in milliseconds since the epoch
+   * @return the absolute bounds of this window
+   */
+  public Bounds at(final long now) {
+    return new Bounds(now, add(now, lowerOffset), add(now, upperOffset));
+  }
+
+  private static long add(final long now, final long offset) {
+    if (offset == Long.MIN_VALUE || offset == Long.MAX_VALUE) {
+      return offset;
+    }
+    long sum = now + offset;
+    // Saturates on overflow
+    if (((now ^ sum) & (offset ^ sum)) < 0) {
+      return offset < 0 ? Long.MIN_VALUE : Long.MAX_VALUE;
+    }
+    return sum;
+  }
+
+  /**
+   * The bounds of a {@link TimeWindow} at one instant of now.
+   */
+  public static final class Bounds {
+    private final long now;
+    private final long lower;
+    private final long upper;
+
+    Bounds(final long now, final long lower, final long upper) {
+      this.now = now;
+      this.lower = lower;
+      this.upper = upper;
+    }
+
+    /**
+     * @return now in milliseconds since the epoch, which these bounds belong to
+     */
+    public long now() {
+      return now;
+    }
+
+    /**
+     * @return the first instant within the bounds in milliseconds since the epoch
+     */
+    public long lower() {
+      return lower;
+    }
+
+    /**
+     * @return the last instant within the bounds in milliseconds since the epoch
+     */
+    public long upper() {
+      return upper;
+    }
+
+    /**
+     * @param epochMillis
+     *          an instant in milliseconds since the epoch
+     * @return true if the instant is within the bounds
+     */
+    public boolean contains(final long epochMillis) {
+      return epochMillis >= lower && epochMillis <= upper;
+    }
+  }
+}
@@ -19,6 +19,9 @@
 
 package com.vcollaborate.validation.constraints;
 
+import com.vcollaborate.validation.constraints.temporal.ClockProvider;
+import com.vcollaborate.validation.constraints.temporal.Clocks;
+
 import junit.framework.Assert;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -27,7 +30,16 @@ import org.joda.time.DateMidnight;
 import org.joda.time.DateTime;
 import org.junit.Test;
 
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
 import java.util.Date;
+import java.util.HashSet;
 import java.util.Set;
 
 import javax.validation.ConstraintViolation;
@@ -82,6 +94,120 @@ public class FutureValidatorTest {
     Assert.assertTrue(isValidAccordingToBeanValidation(fdwt));
   }
 
+  @Test
+  public void testsWithJavaTime() throws Exception {
+    Assert.assertTrue(isValidAccordingToBeanValidation(new FutureInstant(Instant.now().plus(1,
+        ChronoUnit.DAYS))));
+    Assert.assertFalse(isValidAccordingToBeanValidation(new FutureInstant(Instant.now().minus(1,
+        ChronoUnit.DAYS))));
+
+    Assert.assertTrue(isValidAccordingToBeanValidation(new FutureLocalDateWithToday(LocalDate
+        .now())));
+    Assert.assertFalse(isValidAccordingToBeanValidation(new FutureLocalDateWithToday(LocalDate
+        .now().minusDays(1))));
+  }
+
+  @Test
+  public void testsWithIsoStrings() throws Exception {
+    Assert.assertTrue(isValidAccordingToBeanValidation(new FutureString(Instant.now().plus(1,
+        ChronoUnit.DAYS).toString())));
+    Assert.assertFalse(isValidAccordingToBeanValidation(new FutureString(Instant.now().minus(1,
+        ChronoUnit.DAYS).toString())));
+    Assert.assertTrue(isValidAccordingToBeanValidation(new FutureString(null)));
+  }
+
+  @Test
+  public void testsWithFixedClock() throws Exception {
+    ZoneId vienna = ZoneId.of("Europe/Vienna");
+    Instant now = ZonedDateTime.of(2015, 3, 1, 10, 0, 0, 0, vienna).toInstant();
+    ClockProvider clock = Clocks.of(Clock.fixed(now, vienna));
+
+    FutureValidator future = new FutureValidator(false, clock);
+    Assert.assertTrue(future.isValid(now.plusMillis(1), null));
+    Assert.assertFalse(future.isValid(now, null));
+
+    FutureValidator today = new FutureValidator(true, clock);
+    Assert.assertTrue(today.isValid(ZonedDateTime.of(2015, 3, 1, 0, 0, 0, 0, vienna), null));
+    Assert.assertFalse(today.isValid(ZonedDateTime.of(2015, 2, 28, 23, 59, 59, 0, vienna), null));
+  }
+
+  @Test
+  public void testsWithDefaultClock() throws Exception {
+    Instant now = Instant.parse("2015-03-01T10:00:00Z");
+    Clocks.setDefault(Clocks.of(Clock.fixed(now, ZoneOffset.UTC)));
+    try {
+      Assert.assertTrue(isValidAccordingToBeanValidation(new FutureInstant(now.plusMillis(1))));
+      Assert.assertFalse(isValidAccordingToBeanValidation(new FutureInstant(now)));
+    } finally {
+      Clocks.setDefault(null);
+    }
+  }
+
+  @Test
+  public void testsWithArraysAndCollections() throws Exception {
+    Instant now = Instant.parse("2015-03-01T10:00:00Z");
+    FutureValidator validator = new FutureValidator(false, Clocks.of(Clock.fixed(now,
+        ZoneOffset.UTC)));
+    long millis = now.toEpochMilli();
+
+    Assert.assertTrue(validator.isValid(new long[] { millis + 1, millis + 2 }, null));
+    Assert.assertFalse(validator.isValid(new long[] { millis + 1, millis }, null));
+    Assert.assertTrue(validator.isValid(new Date[] { new Date(millis + 1), null }, null));
+    Assert.assertFalse(validator.isValid(new Date[] { new Date(millis) }, null));
+    Assert.assertTrue(validator.isValid(Arrays.asList(now.plusMillis(1), null), null));
+    Assert.assertFalse(validator.isValid(Arrays.asList(now.plusMillis(1), now), null));
+    Assert.assertFalse(validator.isValid(new HashSet<Object>(Arrays.asList(new Date(millis),
+        "2015-03-02T00:00Z")), null));
+    Assert.assertTrue(validator.isValid(new Object[] { now.plusSeconds(1),
+        "2015-03-02T00:00Z" }, null));
+    Assert.assertTrue(validator.isValid(new long[0], null));
+  }
+
+  @Test
+  public void testsWithArraysAccordingToBeanValidation() throws Exception {
+    Date tomorrow = new DateTime().plusDays(1).toDate();
+    Date yesterday = new DateTime().minusDays(1).toDate();
+
+    Assert.assertTrue(isValidAccordingToBeanValidation(new FutureDates(new Date[] { tomorrow,
+        tomorrow })));
+    Assert.assertFalse(isValidAccordingToBeanValidation(new FutureDates(new Date[] { tomorrow,
+        yesterday })));
+  }
+
+  @Test
+  public void testsWithNull() throws Exception {
+    Assert.assertTrue(isValidAccordingToBeanValidation(new FutureDate(null)));
+    Assert.assertTrue(isValidAccordingToBeanValidation(new FutureDateWithToday(null)));
+  }
+
+  @Data
+  @AllArgsConstructor
+  private class FutureInstant {
+    @Future
+    private Instant instant;
+  }
+
+  @Data
+  @AllArgsConstructor
+  private class FutureDates {
+    @Future
+    private Date[] dates;
+  }
+
+  @Data
+  @AllArgsConstructor
+  private class FutureString {
+    @Future
+    private String date;
+  }
+
+  @Data
+  @AllArgsConstructor
+  private class FutureLocalDateWithToday {
+    @Future(today = true)
+    private LocalDate date;
+  }
+
   @Data
   @AllArgsConstructor
   private class FutureDateWithToday {
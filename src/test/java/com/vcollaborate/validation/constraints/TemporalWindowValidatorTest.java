@@ -0,0 +1,172 @@
+/*
+ * Copyright (C) 2012-2015 Christian Sterzl <christian.sterzl@gmail.com>
+ *
+ * This file is part of ValidationConstraints.
+ *
+ * ValidationConstraints is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * ValidationConstraints is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with ValidationConstraints.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.vcollaborate.validation.constraints;
+
+import com.vcollaborate.validation.constraints.temporal.ClockProvider;
+import com.vcollaborate.validation.constraints.temporal.Clocks;
+import com.vcollaborate.validation.constraints.temporal.TimeWindow;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.ResourceBundle;
+import java.util.concurrent.TimeUnit;
+
+import javax.validation.Validation;
+
+public class TemporalWindowValidatorTest {
+
+  private static final Instant NOW = Instant.parse("2015-03-01T10:00:00Z");
+  private static final ClockProvider FIXED = Clocks.of(Clock.fixed(NOW, ZoneOffset.UTC));
+
+  @Test
+  public void shouldValidatePast() {
+    PastValidator validator = new PastValidator(FIXED);
+    Assert.assertTrue(validator.isValid(NOW.minusMillis(1), null));
+    Assert.assertFalse(validator.isValid(NOW, null));
+    Assert.assertTrue(validator.isValid(Long.MIN_VALUE + 1, null));
+    Assert.assertTrue(validator.isValid(null, null));
+  }
+
+  @Test
+  public void shouldValidateFutureOrPresent() {
+    FutureOrPresentValidator validator = new FutureOrPresentValidator(FIXED);
+    Assert.assertTrue(validator.isValid(NOW, null));
+    Assert.assertFalse(validator.isValid(Date.from(NOW.minusMillis(1)), null));
+    Assert.assertTrue(validator.isValid(Long.MAX_VALUE, null));
+  }
+
+  @Test
+  public void shouldValidateWithin() {
+    WithinValidator nextWeek = new WithinValidator(7, TimeUnit.DAYS, false, FIXED);
+    Assert.assertTrue(nextWeek.isValid(NOW, null));
+    Assert.assertTrue(nextWeek.isValid(NOW.plusMillis(TimeUnit.DAYS.toMillis(7)), null));
+    Assert.assertFalse(nextWeek.isValid(NOW.plusMillis(TimeUnit.DAYS.toMillis(7) + 1), null));
+    Assert.assertFalse(nextWeek.isValid(NOW.minusMillis(1), null));
+
+    WithinValidator lastHours = new WithinValidator(2, TimeUnit.HOURS, true, FIXED);
+    Assert.assertTrue(lastHours.isValid("2015-03-01T08:00:00Z", null));
+    Assert.assertFalse(lastHours.isValid("2015-03-01T07:59:59.999Z", null));
+    Assert.assertFalse(lastHours.isValid("2015-03-01T10:00:00.001Z", null));
+  }
+
+  @Test
+  public void shouldValidateAnnotatedFields() {
+    Event event = new Event();
+    event.happened = Date.from(NOW.minusSeconds(1));
+    event.scheduled = Date.from(NOW.plusSeconds(1));
+    event.received = Date.from(NOW.minusSeconds(60));
+    Assert.assertTrue(Validation.buildDefaultValidatorFactory().getValidator().validate(event)
+        .isEmpty());
+
+    event.happened = Date.from(NOW.plusSeconds(1));
+    event.scheduled = Date.from(NOW.minusSeconds(1));
+    event.received = Date.from(NOW.minusSeconds(3601));
+    Assert.assertEquals(3, Validation.buildDefaultValidatorFactory().getValidator().validate(event)
+        .size());
+  }
+
+  @Test
+  public void shouldValidateArraysAndCollections() {
+    PastValidator past = new PastValidator(FIXED);
+    Assert.assertTrue(past.isValid(new long[] { 0, NOW.toEpochMilli() - 1 }, null));
+    Assert.assertFalse(past.isValid(new long[] { 0, NOW.toEpochMilli() }, null));
+    Assert.assertTrue(past.isValid(new Date[] { Date.from(NOW.minusSeconds(1)), null }, null));
+    Assert.assertFalse(past.isValid(new Date[] { Date.from(NOW.plusSeconds(1)) }, null));
+
+    WithinValidator nextWeek = new WithinValidator(7, TimeUnit.DAYS, false, FIXED);
+    Assert.assertTrue(nextWeek.isValid(Arrays.asList(NOW, NOW.plusSeconds(60), null), null));
+    Assert.assertFalse(nextWeek.isValid(Arrays.asList(NOW, NOW.minusSeconds(60)), null));
+    Assert.assertFalse(nextWeek.isValid(new HashSet<Object>(Arrays.asList(
+        "2015-03-09T10:00:00Z")), null));
+
+    FutureOrPresentValidator future = new FutureOrPresentValidator(FIXED);
+    Assert.assertTrue(future.isValid(new Object[] { NOW, Long.valueOf(NOW.toEpochMilli()) },
+        null));
+    Assert.assertTrue(future.isValid(new long[0], null));
+  }
+
+  @Test
+  public void shouldReportInvalidElements() {
+    Events events = new Events();
+    events.happened = Arrays.asList(Date.from(NOW.minusSeconds(1)), Date.from(NOW.plusSeconds(1)),
+        Date.from(NOW.plusSeconds(2)));
+    Assert.assertEquals(2, Validation.buildDefaultValidatorFactory().getValidator().validate(
+        events).size());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void shouldRejectPrimitiveArraysOtherThanLong() {
+    new PastValidator(FIXED).isValid(new int[] { 1 }, null);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void shouldRejectNegativeWindows() {
+    new WithinValidator(-1, TimeUnit.DAYS, true, FIXED);
+  }
+
+  @Test
+  public void shouldSaturateBounds() {
+    TimeWindow.Bounds bounds = TimeWindow.of(-10, Long.MAX_VALUE - 1).at(Long.MAX_VALUE - 5);
+    Assert.assertTrue(bounds.contains(Long.MAX_VALUE));
+    Assert.assertFalse(bounds.contains(Long.MAX_VALUE - 16));
+  }
+
+  @Test
+  public void shouldShipDefaultMessages() throws Exception {
+    ResourceBundle messages = ResourceBundle.getBundle("ContributorValidationMessages");
+    for (Class<?> constraint : Arrays.asList(FutureOrPresent.class, Within.class)) {
+      String template = (String) constraint.getMethod("message").getDefaultValue();
+      Assert.assertTrue(messages.containsKey(template.substring(1, template.length() - 1)));
+    }
+    Assert.assertEquals("must be within {value} {unit} from now",
+        messages.getString(Within.class.getName() + ".message"));
+  }
+
+  private static class Event {
+    @Past(clock = FixedClock.class)
+    private Date happened;
+
+    @FutureOrPresent(clock = FixedClock.class)
+    private Date scheduled;
+
+    @Within(value = 1, unit = TimeUnit.HOURS, past = true, clock = FixedClock.class)
+    private Date received;
+  }
+
+  private static class Events {
+    @Past(clock = FixedClock.class)
+    private List<Date> happened;
+  }
+
+  public static class FixedClock implements ClockProvider {
+    @Override
+    public Clock getClock() {
+      return Clock.fixed(NOW, ZoneOffset.UTC);
+    }
+  }
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright (C) 2012-2015 Christian Sterzl <christian.sterzl@gmail.com>
+ *
+ * This file is part of ValidationConstraints.
+ *
+ * ValidationConstraints is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * ValidationConstraints is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with ValidationConstraints.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.vcollaborate.validation.constraints.daterange;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+public class AllowedDayRangesTest {
+
+  @Test
+  public void shouldBeEmptyWithoutRanges() {
+    Assert.assertSame(AllowedDayRanges.NONE, AllowedDayRanges.of());
+    Assert.assertTrue(AllowedDayRanges.of().isEmpty());
+    Assert.assertFalse(AllowedDayRanges.of(0).isEmpty());
+    Assert.assertFalse(AllowedDayRanges.NONE.contains(0));
+  }
+
+  @Test
+  public void shouldMatchProgressions() {
+    AllowedDayRanges weeks = AllowedDayRanges.of(28, 7, 21, 14, 7);
+    Assert.assertTrue(weeks.toString().contains("step 7"));
+    for (long days = -10; days < 40; days++) {
+      Assert.assertEquals(days >= 7 && days <= 28 && days % 7 == 0, weeks.contains(days));
+    }
+
+    AllowedDayRanges single = AllowedDayRanges.of(5);
+    Assert.assertTrue(single.contains(5));
+    Assert.assertFalse(single.contains(4));
+    Assert.assertFalse(single.contains(6));
+  }
+
+  @Test
+  public void shouldMatchDenseRangesWithBits() {
+    AllowedDayRanges dense = AllowedDayRanges.of(1, 2, 3, 5, 8, 13, 21, 34, 55, 89);
+    Assert.assertTrue(dense.toString().contains("bits"));
+    assertSameAsLinearScan(dense, new long[] { 1, 2, 3, 5, 8, 13, 21, 34, 55, 89 });
+    Assert.assertFalse(dense.contains(Long.MIN_VALUE));
+    Assert.assertFalse(dense.contains(Long.MAX_VALUE));
+  }
+
+  @Test
+  public void shouldMatchSparseRangesWithBinarySearch() {
+    long[] sparse = { 1, 365, 3650, 36500, Long.MAX_VALUE };
+    AllowedDayRanges ranges = AllowedDayRanges.of(sparse);
+    Assert.assertFalse(ranges.toString().contains("bits"));
+    assertSameAsLinearScan(ranges, sparse);
+    Assert.assertTrue(ranges.contains(Long.MAX_VALUE));
+  }
+
+  @Test
+  public void shouldMatchLinearScanForRandomRanges() {
+    Random random = new Random(42);
+    for (int run = 0; run < 200; run++) {
+      long[] values = new long[1 + random.nextInt(20)];
+      int bound = 1 + random.nextInt(run < 100 ? 100 : 100000);
+      for (int i = 0; i < values.length; i++) {
+        values[i] = random.nextInt(bound);
+      }
+      assertSameAsLinearScan(AllowedDayRanges.of(values), values);
+    }
+  }
+
+  private static void assertSameAsLinearScan(final AllowedDayRanges ranges, final long[] values) {
+    for (long value : values) {
+      for (long days = value - 70; days <= value + 70; days++) {
+        boolean expected = false;
+        for (long allowed : values) {
+          expected |= allowed == days;
+        }
+        Assert.assertEquals(ranges + " " + Arrays.toString(values) + " " + days, expected,
+            ranges.contains(days));
+      }
+    }
+  }
+}
@@ -0,0 +1,160 @@
+/*
+ * Copyright (C) 2012-2015 Christian Sterzl <christian.sterzl@gmail.com>
+ *
+ * This file is part of ValidationConstraints.
+ *
+ * ValidationConstraints is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * ValidationConstraints is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with ValidationConstraints.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.vcollaborate.validation.constraints.daterange;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+public class BusinessCalendarTest {
+
+  @Test
+  public void shouldCountWeekdays() {
+    BusinessCalendar calendar = BusinessCalendar.WEEKENDS;
+    LocalDate monday = LocalDate.of(2015, 6, 1);
+    Assert.assertEquals(5, businessDays(calendar, monday, monday.plusDays(7)));
+    // Friday to Monday
+    Assert.assertEquals(1, businessDays(calendar, monday.plusDays(4), monday.plusDays(7)));
+    Assert.assertEquals(0, businessDays(calendar, monday.plusDays(5), monday.plusDays(7)));
+    Assert.assertEquals(-5, businessDays(calendar, monday.plusDays(7), monday));
+  }
+
+  @Test
+  public void shouldCountLikeCountingDayByDay() {
+    Random random = new Random(42);
+    Set<LocalDate> holidays = new HashSet<LocalDate>();
+    for (int i = 0; i < 100; i++) {
+      holidays.add(LocalDate.of(2014 + random.nextInt(3), 1 + random.nextInt(12),
+          1 + random.nextInt(28)));
+    }
+    Set<DayOfWeek> weekend = EnumSet.of(DayOfWeek.FRIDAY, DayOfWeek.SATURDAY);
+    BusinessCalendar calendar = BusinessCalendar.of(weekend, holidays);
+
+    LocalDate origin = LocalDate.of(2013, 6, 1);
+    for (int run = 0; run < 2000; run++) {
+      LocalDate start = origin.plusDays(random.nextInt(1500));
+      LocalDate end = start.plusDays(random.nextInt(400));
+      long expected = 0;
+      for (LocalDate day = start; day.isBefore(end); day = day.plusDays(1)) {
+        if (!weekend.contains(day.getDayOfWeek()) && !holidays.contains(day)) {
+          expected++;
+        }
+      }
+      Assert.assertEquals(start + " - " + end, expected, businessDays(calendar, start, end));
+    }
+  }
+
+  @Test
+  public void shouldLoadFromFile() throws IOException {
+    File file = File.createTempFile("holidays", ".txt");
+    file.deleteOnExit();
+    write(file, Arrays.asList("# Austria", "", "2015-12-24", "2015-12-25", "weekend=SUNDAY"));
+
+    BusinessCalendar calendar = BusinessCalendars.load("at", file.toPath());
+    Assert.assertSame(calendar, BusinessCalendars.get("at"));
+    // Monday 2015-12-21 to Monday 2015-12-28, only Sunday is weekend
+    Assert.assertEquals(4, businessDays(calendar, LocalDate.of(2015, 12, 21),
+        LocalDate.of(2015, 12, 28)));
+  }
+
+  @Test
+  public void shouldValidateMinimumBusinessDays() {
+    BusinessCalendars.register("christmas", BusinessCalendar.of(EnumSet.of(DayOfWeek.SATURDAY,
+        DayOfWeek.SUNDAY), Arrays.asList(LocalDate.of(2015, 12, 24), LocalDate.of(2015, 12, 25))));
+    DateRangeValidator validator = new DateRangeValidator();
+
+    // Monday to Monday, 5 business days with weekends only
+    Assert.assertTrue(validator.isValid(new Delivery(date(2015, 6, 1), date(2015, 6, 8)), null));
+    Assert.assertFalse(validator.isValid(new Delivery(date(2015, 6, 1), date(2015, 6, 5)), null));
+
+    // Monday to Monday, 3 business days over Christmas
+    Assert.assertTrue(validator.isValid(new ChristmasDelivery(date(2015, 12, 21),
+        date(2015, 12, 28)), null));
+    // Wednesday to Monday, 3 business days with weekends only, but 1 over Christmas
+    Assert.assertTrue(validator.isValid(new Delivery(date(2015, 12, 23), date(2015, 12, 30)),
+        null));
+    Assert.assertFalse(validator.isValid(new ChristmasDelivery(date(2015, 12, 23),
+        date(2015, 12, 28)), null));
+  }
+
+  private static long businessDays(final BusinessCalendar calendar, final LocalDate start,
+      final LocalDate end) {
+    return calendar.businessDays(start.toEpochDay(), end.toEpochDay());
+  }
+
+  private static Date date(final int year, final int month, final int day) {
+    return Date.from(LocalDate.of(year, month, day).atStartOfDay(ZoneId.systemDefault())
+        .toInstant());
+  }
+
+  private static void write(final File file, final List<String> lines) throws IOException {
+    Writer writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8);
+    try {
+      for (String line : lines) {
+        writer.write(line + "\n");
+      }
+    } finally {
+      writer.close();
+    }
+  }
+
+  @DateRange
+  private static class Delivery {
+    @StartDate
+    private final Date ordered;
+
+    @EndDate(minimumDaysRange = 0, minimumBusinessDays = 5)
+    private final Date delivered;
+
+    Delivery(final Date ordered, final Date delivered) {
+      this.ordered = ordered;
+      this.delivered = delivered;
+    }
+  }
+
+  @DateRange
+  private static class ChristmasDelivery {
+    @StartDate
+    private final Date ordered;
+
+    @EndDate(minimumDaysRange = 0, minimumBusinessDays = 3, businessCalendar = "christmas")
+    private final Date delivered;
+
+    ChristmasDelivery(final Date ordered, final Date delivered) {
+      this.ordered = ordered;
+      this.delivered = delivered;
+    }
+  }
+}
@@ -23,9 +23,16 @@ import org.joda.time.DateTime;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.lang.management.ManagementFactory;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
+import java.util.Calendar;
 import java.util.Date;
+import java.util.GregorianCalendar;
 import java.util.Set;
 
 import javax.validation.ConstraintViolation;
@@ -338,6 +345,216 @@ public class DateRangeValidatorTest {
 	  Assert.assertFalse(isValid(testDate2));
   }
 
+  @Test
+  public void shouldScanEachClassOnlyOnce() throws Exception {
+    MetadataCacheCase instance = new MetadataCacheCase();
+    instance.startDate = datesToTest[0].toDate();
+    instance.endDate = datesToTest[0].plusDays(1).toDate();
+
+    long misses = DateRangeValidator.metadataCacheMisses();
+    long hits = DateRangeValidator.metadataCacheHits();
+
+    Assert.assertTrue(isValid(instance));
+    Assert.assertEquals(misses + 1, DateRangeValidator.metadataCacheMisses());
+
+    Assert.assertTrue(isValid(instance));
+    Assert.assertTrue(isValid(new MetadataCacheCase()));
+    Assert.assertEquals(misses + 1, DateRangeValidator.metadataCacheMisses());
+    Assert.assertEquals(hits + 2, DateRangeValidator.metadataCacheHits());
+  }
+
+  @Test
+  public void shouldValidateInheritedFields() throws Exception {
+    long misses = DateRangeValidator.metadataCacheMisses();
+
+    ShortStay shortStay = new ShortStay();
+    shortStay.arrival = datesToTest[0].toDate();
+    shortStay.departure = datesToTest[0].plusDays(1).toDate();
+    Assert.assertTrue(isValid(shortStay));
+    Assert.assertTrue(isValidAccordingToBeanValidation(shortStay));
+
+    LongStay longStay = new LongStay();
+    longStay.arrival = datesToTest[0].toDate();
+    longStay.departure = datesToTest[0].plusDays(1).toDate();
+    Assert.assertFalse(isValid(longStay));
+    Assert.assertFalse(isValidAccordingToBeanValidation(longStay));
+
+    longStay.departure = datesToTest[0].plusDays(7).toDate();
+    Assert.assertTrue(isValid(longStay));
+
+    // Stay, ShortStay and LongStay are scanned once each
+    Assert.assertEquals(misses + 3, DateRangeValidator.metadataCacheMisses());
+    Assert.assertSame(DateRangeMetadata.forClass(ShortStay.class).startDateFields()[0],
+        DateRangeMetadata.forClass(LongStay.class).startDateFields()[0]);
+  }
+
+  @Test
+  public void shouldNotCountSuperclassLookupsAsHits() throws Exception {
+    Visit visit = new Visit();
+    visit.arrival = datesToTest[0].toDate();
+    visit.departure = datesToTest[0].plusDays(1).toDate();
+
+    long misses = DateRangeValidator.metadataCacheMisses();
+    long hits = DateRangeValidator.metadataCacheHits();
+
+    // Visit and its superclass Trip are scanned, neither lookup is a hit
+    Assert.assertTrue(isValid(visit));
+    Assert.assertEquals(misses + 2, DateRangeValidator.metadataCacheMisses());
+    Assert.assertEquals(hits, DateRangeValidator.metadataCacheHits());
+
+    Assert.assertTrue(isValid(visit));
+    Assert.assertEquals(misses + 2, DateRangeValidator.metadataCacheMisses());
+    Assert.assertEquals(hits + 1, DateRangeValidator.metadataCacheHits());
+
+    // Lookups of the range constraints are no validations
+    DateRangeMetadata.forClass(Visit.class);
+    Assert.assertEquals(hits + 1, DateRangeValidator.metadataCacheHits());
+  }
+
+  @Test
+  public void shouldReadAnnotatedGetters() throws Exception {
+    GetterCase instance = new GetterCase(datesToTest[0].toDate(), datesToTest[0].plusDays(1)
+        .toDate());
+    Assert.assertFalse(isValid(instance));
+    Assert.assertFalse(isValidAccordingToBeanValidation(instance));
+
+    instance = new GetterCase(datesToTest[0].toDate(), datesToTest[0].plusDays(3).toDate());
+    Assert.assertTrue(isValid(instance));
+    Assert.assertTrue(isValidAccordingToBeanValidation(instance));
+  }
+
+  @Test
+  public void shouldReadGettersOfProxies() throws Exception {
+    // Like a lazily loaded proxy, the fields of the proxy itself are never set
+    final GetterCase target = new GetterCase(datesToTest[0].toDate(), datesToTest[0].plusDays(1)
+        .toDate());
+    GetterCase proxy = new GetterCase(null, null) {
+      @Override
+      public Date getStartDate() {
+        return target.getStartDate();
+      }
+
+      @Override
+      public Date getEndDate() {
+        return target.getEndDate();
+      }
+    };
+
+    Assert.assertFalse(isValid(proxy));
+  }
+
+  @Test
+  public void shouldPreferAccessorsOverFields() throws Exception {
+    Assert.assertEquals(1, DateRangeMetadata.forClass(RecordLikeCase.class).pairs().length);
+    Assert.assertTrue(isValid(new RecordLikeCase(datesToTest[0].toDate(), datesToTest[1]
+        .toDate())));
+    Assert.assertFalse(isValid(new RecordLikeCase(datesToTest[1].toDate(), datesToTest[0]
+        .toDate())));
+  }
+
+  @Test
+  public void shouldValidateTemporalTypesWithoutConversion() throws Exception {
+    ZonedDateTime start = ZonedDateTime.of(2011, 1, 10, 12, 0, 0, 0, ZoneId.of("Europe/Vienna"));
+
+    Assert.assertTrue(isValid(new TemporalTypesCase(start, start.plusDays(3))));
+    Assert.assertTrue(isValidAccordingToBeanValidation(new TemporalTypesCase(start, start
+        .plusDays(3))));
+
+    Assert.assertFalse(isValid(new TemporalTypesCase(start, start.plusDays(1))));
+    Assert.assertFalse(isValidAccordingToBeanValidation(new TemporalTypesCase(start, start
+        .plusDays(1))));
+
+    Assert.assertFalse(isValid(new TemporalTypesCase(start, start.minusDays(3))));
+  }
+
+  @Test
+  public void shouldValidateLocalDatesWithoutJoda() throws Exception {
+    LocalDate start = LocalDate.of(2011, 1, 10);
+
+    LocalDatesCase valid = new LocalDatesCase(start, start.plusDays(5).atStartOfDay());
+    Assert.assertTrue(isValid(valid));
+    Assert.assertTrue(isValidAccordingToBeanValidation(valid));
+
+    LocalDatesCase invalid = new LocalDatesCase(start, start.plusDays(4).atTime(11, 0));
+    Assert.assertFalse(isValid(invalid));
+    Assert.assertFalse(isValidAccordingToBeanValidation(invalid));
+  }
+
+  @Test
+  public void shouldValidateIsoStrings() throws Exception {
+    IsoStringsCase valid = new IsoStringsCase("2011-01-10T12:00:00+01:00",
+        "2011-01-15T11:00:00Z");
+    Assert.assertTrue(isValid(valid));
+    Assert.assertTrue(isValidAccordingToBeanValidation(valid));
+
+    IsoStringsCase invalid = new IsoStringsCase("2011-01-10T12:00:00+01:00",
+        "2011-01-14T11:00:00.000Z");
+    Assert.assertFalse(isValid(invalid));
+    Assert.assertFalse(isValidAccordingToBeanValidation(invalid));
+
+    Assert.assertTrue(isValid(new IsoStringsCase("2011-01-10", "")));
+  }
+
+  @Test
+  public void shouldStopAtFirstInvalidPair() throws Exception {
+    // The second pair can not be converted, thus it must not be read
+    FailFastCase instance = new FailFastCase();
+    instance.firstStart = datesToTest[1].toDate();
+    instance.firstEnd = datesToTest[0].toDate();
+
+    Assert.assertFalse(isValid(instance));
+  }
+
+  @Test
+  public void shouldReportEachInvalidId() throws Exception {
+    ReportEachIdCase instance = new ReportEachIdCase();
+    instance.firstStart = datesToTest[0].toDate();
+    instance.firstEnd = datesToTest[1].toDate();
+    instance.secondStart = datesToTest[1].toDate();
+    instance.secondEnd = datesToTest[0].toDate();
+    instance.thirdStart = datesToTest[2].toDate();
+    instance.thirdEnd = datesToTest[1].toDate();
+
+    Set<ConstraintViolation<Object>> errors = Validation.buildDefaultValidatorFactory()
+        .getValidator().validate((Object) instance);
+    Assert.assertEquals(2, errors.size());
+
+    instance.secondEnd = datesToTest[2].toDate();
+    instance.thirdEnd = datesToTest[2].toDate();
+    Assert.assertTrue(isValidAccordingToBeanValidation(instance));
+  }
+
+  @Test
+  public void shouldNotAllocateWhileValidating() throws Exception {
+    java.lang.management.ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+    if (!(threadBean instanceof com.sun.management.ThreadMXBean)) {
+      return;
+    }
+    com.sun.management.ThreadMXBean allocationBean = (com.sun.management.ThreadMXBean) threadBean;
+    if (!allocationBean.isThreadAllocatedMemorySupported()
+        || !allocationBean.isThreadAllocatedMemoryEnabled()) {
+      return;
+    }
+
+    ZonedDateTime start = ZonedDateTime.of(2011, 1, 10, 12, 0, 0, 0, ZoneId.of("Europe/Vienna"));
+    TemporalTypesCase instance = new TemporalTypesCase(start, start.plusDays(3));
+    DateRangeValidator validator = new DateRangeValidator();
+
+    for (int i = 0; i < 50000; i++) {
+      Assert.assertTrue(validator.isValid(instance, null));
+    }
+
+    long threadId = Thread.currentThread().getId();
+    long before = allocationBean.getThreadAllocatedBytes(threadId);
+    for (int i = 0; i < 10000; i++) {
+      validator.isValid(instance, null);
+    }
+    long allocated = allocationBean.getThreadAllocatedBytes(threadId) - before;
+
+    // Leaves some room for the allocations of the measurement itself.
+    Assert.assertTrue("Allocated " + allocated + " bytes", allocated < 1024);
+  }
+
   @DateRange
   class NoEndDateCase {
     @StartDate
@@ -492,6 +709,188 @@ public class DateRangeValidatorTest {
     }
   }  
 
+  @DateRange
+  private class TemporalTypesCase {
+    @StartDate
+    private Date date;
+
+    @EndDate(minimumDaysRange = 2)
+    @StartDate(id = 1)
+    private Calendar calendar;
+
+    @EndDate(id = 1, minimumDaysRange = 0)
+    @StartDate(id = 2)
+    private Instant instant;
+
+    @EndDate(id = 2, minimumDaysRange = 0)
+    @StartDate(id = 3)
+    private ZonedDateTime zonedDateTime;
+
+    @EndDate(id = 3, minimumDaysRange = 0)
+    @StartDate(id = 4)
+    private OffsetDateTime offsetDateTime;
+
+    @EndDate(id = 4, minimumDaysRange = 0)
+    private long epochMillis;
+
+    public TemporalTypesCase(ZonedDateTime start, ZonedDateTime end) {
+      this.date = Date.from(start.toInstant());
+      this.calendar = GregorianCalendar.from(end);
+      this.instant = end.toInstant();
+      this.zonedDateTime = end;
+      this.offsetDateTime = end.toOffsetDateTime();
+      this.epochMillis = end.toInstant().toEpochMilli();
+    }
+  }
+
+  @DateRange
+  private class LocalDatesCase {
+    @StartDate
+    private LocalDate startDate;
+
+    @EndDate(minimumDaysRange = 5)
+    private LocalDateTime endDate;
+
+    public LocalDatesCase(LocalDate startDate, LocalDateTime endDate) {
+      this.startDate = startDate;
+      this.endDate = endDate;
+    }
+  }
+
+  @DateRange
+  private class IsoStringsCase {
+    @StartDate
+    private String start;
+
+    @EndDate(minimumDaysRange = 5)
+    private CharSequence end;
+
+    public IsoStringsCase(String start, CharSequence end) {
+      this.start = start;
+      this.end = end;
+    }
+  }
+
+  @DateRange
+  private class FailFastCase {
+    @StartDate
+    private Date firstStart;
+
+    @EndDate(minimumDaysRange = 1)
+    private Date firstEnd;
+
+    @StartDate(id = 1)
+    private Object secondStart = new Object();
+
+    @EndDate(id = 1, minimumDaysRange = 1)
+    private Object secondEnd = new Object();
+  }
+
+  @DateRange(reportEachId = true)
+  private class ReportEachIdCase {
+    @StartDate
+    private Date firstStart;
+
+    @EndDate(minimumDaysRange = 1)
+    private Date firstEnd;
+
+    @StartDate(id = 1)
+    private Date secondStart;
+
+    @EndDate(id = 1, minimumDaysRange = 1)
+    private Date secondEnd;
+
+    @StartDate(id = 2)
+    private Date thirdStart;
+
+    @EndDate(id = 2, minimumDaysRange = 0)
+    private Date thirdEnd;
+  }
+
+  @DateRange
+  private static class GetterCase {
+    private final Date startDate;
+    private final Date endDate;
+
+    GetterCase(final Date startDate, final Date endDate) {
+      this.startDate = startDate;
+      this.endDate = endDate;
+    }
+
+    @StartDate
+    public Date getStartDate() {
+      return startDate;
+    }
+
+    @EndDate(minimumDaysRange = 2)
+    public Date getEndDate() {
+      return endDate;
+    }
+  }
+
+  /**
+   * The annotations of a record component are on its field and its accessor.
+   */
+  @DateRange
+  private static final class RecordLikeCase {
+    @StartDate
+    private final Date start;
+    @EndDate(minimumDaysRange = 0)
+    private final Date end;
+
+    RecordLikeCase(final Date start, final Date end) {
+      this.start = start;
+      this.end = end;
+    }
+
+    @StartDate
+    public Date start() {
+      return start;
+    }
+
+    @EndDate(minimumDaysRange = 0)
+    public Date end() {
+      return end;
+    }
+  }
+
+  private abstract static class Stay {
+    @StartDate
+    protected Date arrival;
+  }
+
+  @DateRange
+  private static class ShortStay extends Stay {
+    @EndDate(minimumDaysRange = 1)
+    private Date departure;
+  }
+
+  @DateRange
+  private static class LongStay extends Stay {
+    @EndDate(minimumDaysRange = 7)
+    private Date departure;
+  }
+
+  private abstract static class Trip {
+    @StartDate
+    protected Date arrival;
+  }
+
+  @DateRange
+  private static class Visit extends Trip {
+    @EndDate(minimumDaysRange = 1)
+    private Date departure;
+  }
+
+  @DateRange
+  private class MetadataCacheCase {
+    @StartDate
+    private Date startDate;
+
+    @EndDate(minimumDaysRange = 1)
+    private Date endDate;
+  }
+
   private boolean isValid(Object instance) {
     return new DateRangeValidator().isValid(instance, null);
   }
@@ -0,0 +1,136 @@
+/*
+ * Copyright (C) 2012-2015 Christian Sterzl <christian.sterzl@gmail.com>
+ *
+ * This file is part of ValidationConstraints.
+ *
+ * ValidationConstraints is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * ValidationConstraints is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with ValidationConstraints.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.vcollaborate.validation.constraints.daterange;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Date;
+
+import javax.validation.Validation;
+import javax.validation.Validator;
+
+public class DateSequenceValidatorTest {
+
+  private static final long DAY = 86400000L;
+
+  @Test
+  public void shouldValidateLegsInOrderOfTheirIds() {
+    Itinerary itinerary = new Itinerary(0, 2, 3, 5, 5, 6);
+    Assert.assertTrue(isValid(itinerary));
+    Assert.assertTrue(validate(itinerary));
+
+    // The second leg starts before the first ends
+    itinerary = new Itinerary(0, 2, 1, 5, 5, 6);
+    Assert.assertFalse(isValid(itinerary));
+    Assert.assertFalse(validate(itinerary));
+  }
+
+  @Test
+  public void shouldValidateMinimumsOfEachLeg() {
+    // The third leg has to last at least one day
+    Assert.assertFalse(isValid(new Itinerary(0, 2, 3, 5, 5, 5)));
+  }
+
+  @Test
+  public void shouldValidateMaximumGap() {
+    Assert.assertTrue(isValid(new Itinerary(0, 2, 4, 5, 5, 6)));
+    Assert.assertFalse(isValid(new Itinerary(0, 2, 5, 6, 6, 7)));
+  }
+
+  @Test
+  public void shouldValidateContiguousLegs() {
+    Assert.assertTrue(isValid(new ContiguousItinerary(0, 2, 2, 5)));
+    Assert.assertFalse(isValid(new ContiguousItinerary(0, 2, 3, 5)));
+  }
+
+  @Test
+  public void shouldSkipLegsWithNullDates() {
+    Itinerary itinerary = new Itinerary(0, 2, 3, 5, 5, 6);
+    itinerary.secondStart = null;
+    Assert.assertTrue(isValid(itinerary));
+
+    itinerary.thirdStart = new Date(3 * DAY);
+    Assert.assertTrue(isValid(itinerary));
+  }
+
+  private static boolean isValid(final Object instance) {
+    DateSequenceValidator validator = new DateSequenceValidator();
+    validator.initialize(instance.getClass().getAnnotation(DateSequence.class));
+    return validator.isValid(instance, null);
+  }
+
+  private static boolean validate(final Object instance) {
+    Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+    return validator.validate(instance).isEmpty();
+  }
+
+  private static Date day(final int day) {
+    return new Date(day * DAY);
+  }
+
+  @DateSequence(maximumGapDays = 2)
+  private static class Itinerary {
+    // Declared out of order, the ids define the sequence
+    @StartDate(id = 3)
+    private Date thirdStart;
+    @EndDate(id = 3, minimumDaysRange = 1)
+    private Date thirdEnd;
+
+    @StartDate(id = 1)
+    private Date firstStart;
+    @EndDate(id = 1, minimumDaysRange = 1)
+    private Date firstEnd;
+
+    @StartDate(id = 2)
+    private Date secondStart;
+    @EndDate(id = 2, minimumDaysRange = 1)
+    private Date secondEnd;
+
+    Itinerary(final int... days) {
+      firstStart = day(days[0]);
+      firstEnd = day(days[1]);
+      secondStart = day(days[2]);
+      secondEnd = day(days[3]);
+      thirdStart = day(days[4]);
+      thirdEnd = day(days[5]);
+    }
+  }
+
+  @DateSequence(contiguous = true)
+  private static class ContiguousItinerary {
+    @StartDate
+    private Date firstStart;
+    @EndDate(minimumDaysRange = 0)
+    private Date firstEnd;
+
+    @StartDate(id = 1)
+    private Date secondStart;
+    @EndDate(id = 1, minimumDaysRange = 0)
+    private Date secondEnd;
+
+    ContiguousItinerary(final int... days) {
+      firstStart = day(days[0]);
+      firstEnd = day(days[1]);
+      secondStart = day(days[2]);
+      secondEnd = day(days[3]);
+    }
+  }
+}
@@ -0,0 +1,328 @@
+/*
+ * Copyright (C) 2012-2015 Christian Sterzl <christian.sterzl@gmail.com>
+ *
+ * This file is part of ValidationConstraints.
+ *
+ * ValidationConstraints is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * ValidationConstraints is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with ValidationConstraints.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package com.vcollaborate.validation.constraints.daterange;
+
+import com.vcollaborate.validation.constraints.daterange.DateRangeMetadata.DateField;
+import com.vcollaborate.validation.constraints.daterange.DateRangeMetadata.DateRangePair;
+import com.vcollaborate.validation.constraints.daterange.DateRangeMetadata.EndDateField;
+import com.vcollaborate.validation.constraints.daterange.DateRangeMetadata.StartDateField;
+
+import org.joda.time.DateTime;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares reading the {@link StartDate} and {@link EndDate} fields through
+ * {@link Field#setAccessible(boolean)}, {@link Field#get(Object)} and {@link DateTime} on every call
+ * with the cached accessors of {@link DateRangeMetadata}, and a loop over the pairs with the handle
+ * composed by {@link DateRangeHandles}. {@link #cachedGetterAccess(Getters, Blackhole)} reads
+ * annotated getters instead of fields.
+ * 
+ * <p>
+ * Run {@link #main(String[])} with the test classpath.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FieldAccessBenchmark {
+
+  private static final Date START = new Date(0L);
+  private static final Date END = new Date(TimeUnit.DAYS.toMillis(2));
+
+  @Param({ "2", "10", "50" })
+  private int fields;
+
+  private Object bean;
+  private Field[] reflectiveFields;
+  private DateField[] cachedFields;
+  private DateRangeMetadata metadata;
+
+  @Setup
+  public void setUp() {
+    switch (fields) {
+      case 2:
+        bean = new TwoFields();
+        break;
+      case 10:
+        bean = new TenFields();
+        break;
+      default:
+        bean = new FiftyFields();
+        break;
+    }
+
+    List<Field> annotated = new ArrayList<Field>();
+    for (Field field : bean.getClass().getDeclaredFields()) {
+      if (field.getAnnotation(StartDate.class) != null
+          || field.getAnnotation(EndDate.class) != null) {
+        annotated.add(field);
+      }
+    }
+    reflectiveFields = annotated.toArray(new Field[annotated.size()]);
+
+    metadata = DateRangeMetadata.forClass(bean.getClass());
+    List<DateField> accessors = new ArrayList<DateField>();
+    for (StartDateField field : metadata.startDateFields()) {
+      accessors.add(field);
+    }
+    for (EndDateField field : metadata.endDateFields()) {
+      accessors.add(field);
+    }
+    cachedFields = accessors.toArray(new DateField[accessors.size()]);
+  }
+
+  @Benchmark
+  public void reflectiveFieldAccess(final Blackhole blackhole) throws IllegalAccessException {
+    for (Field field : reflectiveFields) {
+      field.setAccessible(true);
+      blackhole.consume(new DateTime(field.get(bean)).getMillis());
+    }
+  }
+
+  @Benchmark
+  public void cachedMethodHandleAccess(final Blackhole blackhole) {
+    for (DateField field : cachedFields) {
+      blackhole.consume(field.millisOf(bean));
+    }
+  }
+
+  @Benchmark
+  public void cachedGetterAccess(final Getters getters, final Blackhole blackhole) {
+    for (DateField field : getters.fields) {
+      blackhole.consume(field.millisOf(getters.bean));
+    }
+  }
+
+  @Benchmark
+  public boolean pairLoop() {
+    for (DateRangePair pair : metadata.pairs()) {
+      if (!DateRangeValidator.isValidRange(pair.start.millisOf(bean), pair.end.millisOf(bean),
+          pair.end.minimumDaysRange, pair.end.allowedDayRanges)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Benchmark
+  public boolean composedHandle() {
+    return metadata.isValid(bean);
+  }
+
+  @Benchmark
+  public boolean validate() {
+    return new DateRangeValidator().isValid(bean, null);
+  }
+
+  /**
+   * The bean with two annotated getters, to be compared with {@link TwoFields}.
+   */
+  @State(Scope.Benchmark)
+  public static class Getters {
+    private final Object bean = new TwoGetters();
+    private DateField[] fields;
+
+    @Setup
+    public void setUp() {
+      DateRangeMetadata metadata = DateRangeMetadata.forClass(bean.getClass());
+      fields = new DateField[] { metadata.startDateFields()[0], metadata.endDateFields()[0] };
+    }
+  }
+
+  @DateRange
+  public static class TwoGetters {
+    private Date start0 = START;
+    private Date end0 = END;
+
+    @StartDate(id = 0)
+    public Date getStart0() {
+      return start0;
+    }
+
+    @EndDate(id = 0, minimumDaysRange = 1)
+    public Date getEnd0() {
+      return end0;
+    }
+  }
+
+  @DateRange
+  public static class TwoFields {
+    @StartDate(id = 0)
+    private Date start0 = START;
+    @EndDate(id = 0, minimumDaysRange = 1)
+    private Date end0 = END;
+  }
+
+  @DateRange
+  public static class TenFields {
+    @StartDate(id = 0)
+    private Date start0 = START;
+    @EndDate(id = 0, minimumDaysRange = 1)
+    private Date end0 = END;
+    @StartDate(id = 1)
+    private Date start1 = START;
+    @EndDate(id = 1, minimumDaysRange = 1)
+    private Date end1 = END;
+    @StartDate(id = 2)
+    private Date start2 = START;
+    @EndDate(id = 2, minimumDaysRange = 1)
+    private Date end2 = END;
+    @StartDate(id = 3)
+    private Date start3 = START;
+    @EndDate(id = 3, minimumDaysRange = 1)
+    private Date end3 = END;
+    @StartDate(id = 4)
+    private Date start4 = START;
+    @EndDate(id = 4, minimumDaysRange = 1)
+    private Date end4 = END;
+  }
+
+  @DateRange
+  public static class FiftyFields {
+    @StartDate(id = 0)
+    private Date start0 = START;
+    @EndDate(id = 0, minimumDaysRange = 1)
+    private Date end0 = END;
+    @StartDate(id = 1)
+    private Date start1 = START;
+    @EndDate(id = 1, minimumDaysRange = 1)
+    private Date end1 = END;
+    @StartDate(id = 2)
+    private Date start2 = START;
+    @EndDate(id = 2, minimumDaysRange = 1)
+    private Date end2 = END;
+    @StartDate(id = 3)
+    private Date start3 = START;
+    @EndDate(id = 3, minimumDaysRange = 1)
+    private Date end3 = END;
+    @StartDate(id = 4)
+    private Date start4 = START;
+    @EndDate(id = 4, minimumDaysRange = 1)
+    private Date end4 = END;
+    @StartDate(id = 5)
+    private Date start5 = START;
+    @EndDate(id = 5, minimumDaysRange = 1)
+    private Date end5 = END;
+    @StartDate(id = 6)
+    private Date start6 = START;
+    @EndDate(id = 6, minimumDaysRange = 1)
+    private Date end6 = END;
+    @StartDate(id = 7)
+    private Date start7 = START;
+    @EndDate(id = 7, minimumDaysRange = 1)
+    private Date end7 = END;
+    @StartDate(id = 8)
+    private Date start8 = START;
+    @EndDate(id = 8, minimumDaysRange = 1)
+    private Date end8 = END;
+    @StartDate(id = 9)
+    private Date start9 = START;
+    @EndDate(id = 9, minimumDaysRange = 1)
+    private Date end9 = END;
+    @StartDate(id = 10)
+    private Date start10 = START;
+    @EndDate(id = 10, minimumDaysRange = 1)
+    private Date end10 = END;
+    @StartDate(id = 11)
+    private Date start11 = START;
+    @EndDate(id = 11, minimumDaysRange = 1)
+    private Date end11 = END;
+    @StartDate(id = 12)
+    private Date start12 = START;
+    @EndDate(id = 12, minimumDaysRange = 1)
+    private Date end12 = END;
+    @StartDate(id = 13)
+    private Date start13 = START;
+    @EndDate(id = 13, minimumDaysRange = 1)
+    private Date end13 = END;
+    @StartDate(id = 14)
+    private Date start14 = START;
+    @EndDate(id = 14, minimumDaysRange = 1)
+    private Date end14 = END;
+    @StartDate(id = 15)
+    private Date start15 = START;
+    @EndDate(id = 15, minimumDaysRange = 1)
+    private Date end15 = END;
+    @StartDate(id = 16)
+    private Date start16 = START;
+    @EndDate(id = 16, minimumDaysRange = 1)
+    private Date end16 = END;
+    @StartDate(id = 17)
+    private Date start17 = START;
+    @EndDate(id = 17, minimumDaysRange = 1)
+    private Date end17 = END;
+    @StartDate(id = 18)
+    private Date start18 = START;
+    @EndDate(id = 18, minimumDaysRange = 1)
+    private Date end18 = END;
+    @StartDate(id = 19)
+    private Date start19 = START;
+    @EndDate(id = 19, minimumDaysRange = 1)
+    private Date end19 = END;
+    @StartDate(id = 20)
+    private Date start20 = START;
+    @EndDate(id = 20, minimumDaysRange = 1)
+    private Date end20 = END;
+    @StartDate(id = 21)
+    private Date start21 = START;
+    @EndDate(id = 21, minimumDaysRange = 1)
+    private Date end21 = END;
+    @StartDate(id = 22)
+    private Date start22 = START;
+    @EndDate(id = 22, minimumDaysRange = 1)
+    private Date end22 = END;
+    @StartDate(id = 23)
+    private Date start23 = START;
+    @EndDate(id = 23, minimumDaysRange = 1)
+    private Date end23 = END;
+    @StartDate(id = 24)
+    private Date start24 = START;
+    @EndDate(id = 24, minimumDaysRange = 1)
+    private Date end24 = END;
+  }
+
+  public static void main(final String[] args) throws Exception {
+    new Runner(new OptionsBuilder().include(FieldAccessBenchmark.class.getSimpleName()).build())
+        .run();
+  }
+}
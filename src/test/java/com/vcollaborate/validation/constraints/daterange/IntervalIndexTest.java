@@ -0,0 +1,141 @@
+/*
+ * Copyright (C) 2012-2015 Christian Sterzl <christian.sterzl@gmail.com>
+ *
+ * This file is part of ValidationConstraints.
+ *
+ * ValidationConstraints is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * ValidationConstraints is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with ValidationConstraints.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.vcollaborate.validation.constraints.daterange;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import javax.validation.Validation;
+import javax.validation.Validator;
+
+public class IntervalIndexTest {
+
+  private static final IntervalIndex<Reservation> RESERVATIONS = new IntervalIndex<Reservation>();
+
+  @Test
+  public void shouldFindCollisions() {
+    Reservation first = new Reservation(0, 10);
+    Reservation second = new Reservation(20, 30);
+    IntervalIndex<Reservation> index = IntervalIndex.of(Arrays.asList(first, second), 0);
+
+    Assert.assertEquals(2, index.size());
+    Assert.assertTrue(index.collides(5, 25));
+    Assert.assertTrue(index.collides(9, 11));
+    Assert.assertFalse(index.collides(10, 20));
+    Assert.assertFalse(index.collides(30, 40));
+    Assert.assertEquals(Arrays.asList(first, second), index.collisions(5, 25));
+    Assert.assertEquals(Arrays.asList(second), index.collisions(10, 21));
+  }
+
+  @Test
+  public void shouldIgnoreTheBeanItself() {
+    Reservation reservation = new Reservation(0, 10);
+    IntervalIndex<Reservation> index = IntervalIndex.of(Arrays.asList(reservation), 0);
+
+    Assert.assertFalse(index.collides(reservation));
+    Assert.assertTrue(index.collides(new Reservation(0, 10)));
+    Assert.assertFalse(index.add(reservation));
+  }
+
+  @Test
+  public void shouldNotIndexNullBoundaries() {
+    IntervalIndex<Reservation> index = new IntervalIndex<Reservation>();
+    Reservation open = new Reservation(0, 10);
+    open.end = null;
+
+    Assert.assertFalse(index.add(open));
+    Assert.assertFalse(index.collides(open));
+    Assert.assertEquals(0, index.size());
+  }
+
+  @Test
+  public void shouldAddAndRemoveLikeComparingAllRanges() {
+    Random random = new Random(42);
+    IntervalIndex<Reservation> index = new IntervalIndex<Reservation>();
+    List<Reservation> indexed = new ArrayList<Reservation>();
+
+    for (int run = 0; run < 5000; run++) {
+      if (!indexed.isEmpty() && random.nextInt(3) == 0) {
+        Reservation removed = indexed.remove(random.nextInt(indexed.size()));
+        Assert.assertTrue(index.remove(removed));
+        Assert.assertFalse(index.remove(removed));
+      } else {
+        int start = random.nextInt(1000);
+        Reservation added = new Reservation(start, start + random.nextInt(10));
+        Assert.assertTrue(index.add(added));
+        indexed.add(added);
+      }
+
+      long start = random.nextInt(1000);
+      long end = start + random.nextInt(20);
+      List<Reservation> expected = new ArrayList<Reservation>();
+      for (Reservation reservation : indexed) {
+        if (reservation.start < end && start < reservation.end) {
+          expected.add(reservation);
+        }
+      }
+      List<Reservation> collisions = index.collisions(start, end);
+      Assert.assertEquals(expected.size(), collisions.size());
+      Assert.assertTrue(collisions.containsAll(expected));
+      Assert.assertEquals(!expected.isEmpty(), index.collides(start, end));
+    }
+    Assert.assertEquals(indexed.size(), index.size());
+  }
+
+  @Test
+  public void shouldValidateAgainstProvidedIndex() {
+    Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+    Reservation existing = new Reservation(100, 200);
+    RESERVATIONS.add(existing);
+    try {
+      Assert.assertTrue(validator.validate(existing).isEmpty());
+      Assert.assertTrue(validator.validate(new Reservation(200, 300)).isEmpty());
+      Assert.assertFalse(validator.validate(new Reservation(150, 250)).isEmpty());
+    } finally {
+      RESERVATIONS.remove(existing);
+    }
+  }
+
+  public static class Reservations implements IntervalIndexProvider {
+    @Override
+    public IntervalIndex<?> indexFor(final Object bean) {
+      return RESERVATIONS;
+    }
+  }
+
+  @AvailableIn(indexProvider = Reservations.class)
+  private static class Reservation {
+    @StartDate
+    private Long start;
+
+    @EndDate
+    private Long end;
+
+    Reservation(final long start, final long end) {
+      this.start = start;
+      this.end = end;
+    }
+  }
+}
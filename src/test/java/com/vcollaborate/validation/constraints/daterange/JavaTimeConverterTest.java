@@ -0,0 +1,100 @@
+/*
+ * Copyright (C) 2012-2015 Christian Sterzl <christian.sterzl@gmail.com>
+ *
+ * This file is part of ValidationConstraints.
+ *
+ * ValidationConstraints is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * ValidationConstraints is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with ValidationConstraints.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.vcollaborate.validation.constraints.daterange;
+
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+import org.joda.time.convert.ConverterManager;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+
+public class JavaTimeConverterTest {
+
+  @BeforeClass
+  public static void loadValidator() {
+    // Loading the validator registers the converters
+    new DateRangeValidator();
+  }
+
+  @Test
+  public void shouldRegisterConvertersOnce() {
+    int count = ConverterManager.getInstance().getInstantConverters().length;
+    JavaTimeConverters.register();
+    Assert.assertEquals(count, ConverterManager.getInstance().getInstantConverters().length);
+    Assert.assertSame(ZonedDateTimeConverter.class, ConverterManager.getInstance()
+        .getInstantConverter(ZonedDateTime.now()).getClass());
+  }
+
+  @Test
+  public void shouldConvertZonedDateTime() {
+    ZonedDateTime value = ZonedDateTime.of(2015, 3, 29, 12, 30, 0, 0, ZoneId.of("Europe/Vienna"));
+    DateTime converted = new DateTime(value);
+
+    Assert.assertEquals(value.toInstant().toEpochMilli(), converted.getMillis());
+    Assert.assertEquals(DateTimeZone.forID("Europe/Vienna"), converted.getZone());
+  }
+
+  @Test
+  public void shouldConvertOffsetDateTime() {
+    OffsetDateTime value = OffsetDateTime.of(2015, 3, 29, 12, 30, 0, 0, ZoneOffset.ofHours(5));
+    DateTime converted = new DateTime(value);
+
+    Assert.assertEquals(value.toInstant().toEpochMilli(), converted.getMillis());
+    Assert.assertEquals(DateTimeZone.forOffsetHours(5), converted.getZone());
+  }
+
+  @Test
+  public void shouldConvertLocalTypesInDefaultZone() {
+    LocalDateTime dateTime = LocalDateTime.of(2015, 3, 29, 12, 30);
+    Assert.assertEquals(dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli(),
+        new DateTime(dateTime).getMillis());
+
+    LocalDate date = LocalDate.of(2015, 3, 29);
+    Assert.assertEquals(date.atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli(),
+        new DateTime(date).getMillis());
+  }
+
+  @Test
+  public void shouldConvertInstant() {
+    Instant value = Instant.ofEpochMilli(1427625000123L);
+    Assert.assertEquals(1427625000123L, new DateTime(value).getMillis());
+  }
+
+  @Test
+  public void shouldCacheZones() {
+    ZoneId zoneId = ZoneId.of("America/New_York");
+    DateTimeZone zone = DateTimeZones.of(zoneId);
+
+    Assert.assertEquals(DateTimeZone.forID("America/New_York"), zone);
+    Assert.assertSame(zone, DateTimeZones.of(ZoneId.of("America/New_York")));
+    Assert.assertEquals(DateTimeZone.forOffsetHours(2), DateTimeZones.of(ZoneId.of("GMT+02:00")));
+    Assert.assertEquals(DateTimeZone.UTC, DateTimeZones.of(ZoneOffset.UTC));
+    Assert.assertTrue(DateTimeZones.size() <= DateTimeZones.MAX_SIZE);
+  }
+}
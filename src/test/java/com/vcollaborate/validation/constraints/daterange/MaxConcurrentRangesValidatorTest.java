@@ -0,0 +1,143 @@
+/*
+ * Copyright (C) 2012-2015 Christian Sterzl <christian.sterzl@gmail.com>
+ *
+ * This file is part of ValidationConstraints.
+ *
+ * ValidationConstraints is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * ValidationConstraints is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with ValidationConstraints.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.vcollaborate.validation.constraints.daterange;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.Validation;
+import javax.validation.Validator;
+import javax.validation.ValidatorFactory;
+
+public class MaxConcurrentRangesValidatorTest {
+
+  private static final long DAY = 86400000L;
+
+  @Test
+  public void shouldBeValidUpToMaximum() {
+    List<Rental> rentals = Arrays.asList(rental(0, 4), rental(1, 5), rental(2, 3), rental(3, 6));
+
+    Assert.assertEquals(3, RangeList.of(rentals, 0).peak());
+    Assert.assertTrue(isValid(rentals));
+  }
+
+  @Test
+  public void shouldBeValidIfEmptyOrNull() {
+    Assert.assertTrue(isValid(null));
+    Assert.assertTrue(isValid(Collections.emptyList()));
+    Assert.assertTrue(validate(new Fleet()).isEmpty());
+  }
+
+  @Test
+  public void shouldNotCountTouchingOrEmptyRanges() {
+    List<Rental> rentals = Arrays.asList(rental(0, 2), rental(0, 2), rental(0, 2), rental(2, 4),
+        rental(2, 4), rental(2, 4), rental(2, 2), null, new Rental(null, new Date(DAY)));
+
+    Assert.assertEquals(3, RangeList.of(rentals, 0).peak());
+    Assert.assertTrue(isValid(rentals));
+  }
+
+  @Test
+  public void shouldReportFirstExceedingRange() {
+    Rental[] rentals = { rental(5, 9), rental(0, 10), rental(6, 7), rental(1, 7), rental(8, 9) };
+
+    RangeList ranges = RangeList.of(rentals, 0);
+    int exceeding = ranges.firstExceeding(3);
+    Assert.assertEquals(6 * DAY, ranges.start(exceeding));
+    Assert.assertEquals(2, ranges.index(exceeding));
+    Assert.assertFalse(isValid(rentals));
+
+    Set<ConstraintViolation<Fleet>> violations = validate(new Fleet(rentals));
+    Assert.assertEquals(1, violations.size());
+  }
+
+  @Test
+  public void shouldFindPeakLikeCountingEachInstant() {
+    Random random = new Random(42);
+    for (int run = 0; run < 200; run++) {
+      List<Rental> rentals = new ArrayList<Rental>();
+      int size = random.nextInt(50);
+      for (int i = 0; i < size; i++) {
+        int start = random.nextInt(100);
+        rentals.add(rental(start, start + random.nextInt(run % 2 == 0 ? 3 : 20)));
+      }
+
+      int peak = 0;
+      for (Rental instant : rentals) {
+        int active = 0;
+        for (Rental rental : rentals) {
+          active += !rental.start.after(instant.start) && rental.end.after(instant.start) ? 1 : 0;
+        }
+        peak = Math.max(peak, active);
+      }
+      Assert.assertEquals(peak, RangeList.of(rentals, 0).peak());
+      Assert.assertEquals(peak <= 3, isValid(rentals));
+    }
+  }
+
+  private static Rental rental(final int startDay, final int endDay) {
+    return new Rental(new Date(startDay * DAY), new Date(endDay * DAY));
+  }
+
+  private static boolean isValid(final Object elements) {
+    MaxConcurrentRangesValidator validator = new MaxConcurrentRangesValidator();
+    validator.initialize(Fleet.class.getDeclaredFields()[0]
+        .getAnnotation(MaxConcurrentRanges.class));
+    return validator.isValid(elements, null);
+  }
+
+  private static Set<ConstraintViolation<Fleet>> validate(final Fleet fleet) {
+    ValidatorFactory factory = Validation.buildDefaultValidatorFactory();
+    Validator validator = factory.getValidator();
+    return validator.validate(fleet);
+  }
+
+  private static class Fleet {
+    @MaxConcurrentRanges(3)
+    private final Rental[] rentals;
+
+    Fleet(final Rental... rentals) {
+      this.rentals = rentals;
+    }
+  }
+
+  @DateRange
+  private static class Rental {
+    @StartDate
+    private final Date start;
+
+    @EndDate(minimumDaysRange = 0)
+    private final Date end;
+
+    Rental(final Date start, final Date end) {
+      this.start = start;
+      this.end = end;
+    }
+  }
+}
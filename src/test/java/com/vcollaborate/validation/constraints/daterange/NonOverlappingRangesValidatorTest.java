@@ -0,0 +1,162 @@
+/*
+ * Copyright (C) 2012-2015 Christian Sterzl <christian.sterzl@gmail.com>
+ *
+ * This file is part of ValidationConstraints.
+ *
+ * ValidationConstraints is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * ValidationConstraints is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with ValidationConstraints.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.vcollaborate.validation.constraints.daterange;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.Validation;
+import javax.validation.Validator;
+import javax.validation.ValidatorFactory;
+
+public class NonOverlappingRangesValidatorTest {
+
+  private static final long DAY = 86400000L;
+
+  @Test
+  public void shouldBeValidWithoutOverlaps() {
+    Schedule schedule = new Schedule(booking(0, 2), booking(2, 5), booking(7, 8));
+
+    Assert.assertTrue(isValid(schedule.bookings));
+    Assert.assertTrue(validate(schedule).isEmpty());
+  }
+
+  @Test
+  public void shouldBeValidIfEmptyOrNull() {
+    Assert.assertTrue(isValid(null));
+    Assert.assertTrue(isValid(Collections.emptyList()));
+    Assert.assertTrue(validate(new Schedule()).isEmpty());
+  }
+
+  @Test
+  public void shouldIgnoreNullElementsAndBoundaries() {
+    List<Booking> bookings = Arrays.asList(booking(0, 5), null, new Booking(null, new Date(DAY)),
+        new Booking(new Date(DAY), null), booking(5, 6));
+
+    Assert.assertTrue(isValid(bookings));
+  }
+
+  @Test
+  public void shouldReportIndicesOfOverlappingPairs() {
+    List<Booking> bookings = Arrays.asList(booking(10, 20), booking(0, 5), booking(4, 8),
+        booking(15, 16));
+
+    Assert.assertFalse(isValid(bookings));
+    Assert.assertArrayEquals(new int[] { 1, 2, 0, 3 }, RangeList.of(bookings, 0).overlaps());
+    Assert.assertEquals(2, validate(new Schedule(bookings.toArray(new Booking[4]))).size());
+  }
+
+  @Test
+  public void shouldValidateArrays() {
+    Booking[] bookings = { booking(0, 2), booking(1, 3) };
+
+    Assert.assertFalse(isValid(bookings));
+    Assert.assertArrayEquals(new int[] { 0, 1 }, RangeList.of(bookings, 0).overlaps());
+  }
+
+  @Test
+  public void shouldNotSortSortedRanges() {
+    List<Booking> sorted = Arrays.asList(booking(0, 2), booking(0, 1), booking(2, 3));
+    Assert.assertNull(RangeList.of(sorted, 0).order());
+
+    List<Booking> unsorted = Arrays.asList(booking(2, 3), booking(0, 1), booking(0, 2));
+    Assert.assertArrayEquals(new int[] { 1, 2, 0 }, RangeList.of(unsorted, 0).order());
+  }
+
+  @Test
+  public void shouldFindOverlapsLikeComparingAllPairs() {
+    Random random = new Random(42);
+    for (int run = 0; run < 200; run++) {
+      List<Booking> bookings = new ArrayList<Booking>();
+      int size = random.nextInt(50);
+      for (int i = 0; i < size; i++) {
+        int start = random.nextInt(400);
+        bookings.add(booking(start, start + 1 + random.nextInt(run % 2 == 0 ? 3 : 20)));
+      }
+      if (run % 3 == 0) {
+        Collections.sort(bookings, new Comparator<Booking>() {
+          @Override
+          public int compare(final Booking left, final Booking right) {
+            return left.start.compareTo(right.start);
+          }
+        });
+      }
+
+      boolean overlapping = false;
+      for (int i = 0; i < size; i++) {
+        for (int j = i + 1; j < size; j++) {
+          overlapping |= bookings.get(i).start.before(bookings.get(j).end)
+              && bookings.get(j).start.before(bookings.get(i).end);
+        }
+      }
+      Assert.assertEquals(!overlapping, isValid(bookings));
+    }
+  }
+
+  private static Booking booking(final int startDay, final int endDay) {
+    return new Booking(new Date(startDay * DAY), new Date(endDay * DAY));
+  }
+
+  private static boolean isValid(final Object elements) {
+    NonOverlappingRangesValidator validator = new NonOverlappingRangesValidator();
+    validator.initialize(Schedule.class.getDeclaredFields()[0]
+        .getAnnotation(NonOverlappingRanges.class));
+    return validator.isValid(elements, null);
+  }
+
+  private static Set<ConstraintViolation<Schedule>> validate(final Schedule schedule) {
+    ValidatorFactory factory = Validation.buildDefaultValidatorFactory();
+    Validator validator = factory.getValidator();
+    return validator.validate(schedule);
+  }
+
+  private static class Schedule {
+    @NonOverlappingRanges
+    private final Booking[] bookings;
+
+    Schedule(final Booking... bookings) {
+      this.bookings = bookings;
+    }
+  }
+
+  @DateRange
+  private static class Booking {
+    @StartDate
+    private final Date start;
+
+    @EndDate(minimumDaysRange = 0)
+    private final Date end;
+
+    Booking(final Date start, final Date end) {
+      this.start = start;
+      this.end = end;
+    }
+  }
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright (C) 2012-2015 Christian Sterzl <christian.sterzl@gmail.com>
+ *
+ * This file is part of ValidationConstraints.
+ *
+ * ValidationConstraints is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * ValidationConstraints is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with ValidationConstraints.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.vcollaborate.validation.constraints.daterange;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the constraints on collections of ranges, which are either sorted by their start and
+ * swept in one pass or shuffled and sorted first. The sizes show the linearithmic scaling of the
+ * sweep.
+ * 
+ * <p>
+ * {@link NonOverlappingRangesValidator} checks one hour ranges starting every two hours,
+ * {@link MaxConcurrentRangesValidator} checks eight hour ranges starting every hour, thus eight of
+ * them are active at the same time.
+ * </p>
+ * 
+ * <p>
+ * Run {@link #main(String[])} with the test classpath.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RangeConstraintsBenchmark {
+
+  private static final long HOUR = 3600000L;
+
+  @Param({ "1000", "10000", "100000", "1000000" })
+  private int size;
+
+  @Param({ "true", "false" })
+  private boolean sorted;
+
+  @NonOverlappingRanges
+  private List<Slot> slots;
+  private NonOverlappingRangesValidator nonOverlapping;
+
+  @MaxConcurrentRanges(8)
+  private List<Slot> shifts;
+  private MaxConcurrentRangesValidator maxConcurrent;
+
+  @Setup
+  public void setUp() throws NoSuchFieldException {
+    slots = ranges(1, 2);
+    nonOverlapping = new NonOverlappingRangesValidator();
+    nonOverlapping.initialize(RangeConstraintsBenchmark.class.getDeclaredField("slots")
+        .getAnnotation(NonOverlappingRanges.class));
+
+    shifts = ranges(8, 1);
+    maxConcurrent = new MaxConcurrentRangesValidator();
+    maxConcurrent.initialize(RangeConstraintsBenchmark.class.getDeclaredField("shifts")
+        .getAnnotation(MaxConcurrentRanges.class));
+  }
+
+  /**
+   * @return {@link #size} ranges of the given hours, one starting every step hours
+   */
+  private List<Slot> ranges(final int hours, final int step) {
+    List<Slot> ranges = new ArrayList<Slot>(size);
+    for (int i = 0; i < size; i++) {
+      ranges.add(new Slot(new Date(step * i * HOUR), new Date((step * i + hours) * HOUR)));
+    }
+    if (!sorted) {
+      Collections.shuffle(ranges, new Random(42));
+    }
+    return ranges;
+  }
+
+  @Benchmark
+  public boolean nonOverlappingRanges() {
+    return nonOverlapping.isValid(slots, null);
+  }
+
+  @Benchmark
+  public boolean maxConcurrentRanges() {
+    return maxConcurrent.isValid(shifts, null);
+  }
+
+  @DateRange
+  public static class Slot {
+    @StartDate
+    private final Date start;
+    @EndDate(minimumDaysRange = 0)
+    private final Date end;
+
+    Slot(final Date start, final Date end) {
+      this.start = start;
+      this.end = end;
+    }
+  }
+
+  public static void main(final String[] args) throws Exception {
+    new Runner(new OptionsBuilder().include(RangeConstraintsBenchmark.class.getSimpleName())
+        .build()).run();
+  }
+}
@@ -0,0 +1,148 @@
+/*
+ * Copyright (C) 2012-2015 Christian Sterzl <christian.sterzl@gmail.com>
+ *
+ * This file is part of ValidationConstraints.
+ *
+ * ValidationConstraints is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * ValidationConstraints is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with ValidationConstraints.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.vcollaborate.validation.constraints.email;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+public class BulkEmailValidatorTest {
+
+  private static final String[] LINES = { "test@v-collaborate.com", "test@v-collaborate",
+      "a@[127.0.0.1]", "j\u00fcrgen@m\u00fcller.de", "a..b@c.d", "", "\r",
+      "crlf@v-collaborate.com\r", "crlf@v-collaborate\r",
+      "christian.sterzl+newsletter@v-collaborate.com", "a@b@c.d", "x@y.z",
+      "aaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaa@b.c" };
+
+  private ForkJoinPool pool;
+  private Path directory;
+
+  @Before
+  public void setUp() throws IOException {
+    pool = new ForkJoinPool(4);
+    directory = Files.createTempDirectory("bulk");
+  }
+
+  @After
+  public void tearDown() throws IOException {
+    pool.shutdown();
+    try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+      for (Path file : files) {
+        Files.delete(file);
+      }
+    }
+    Files.delete(directory);
+  }
+
+  @Test
+  public void shouldSplitLinesByValidity() throws IOException {
+    Random random = new Random(7);
+    StringBuilder input = new StringBuilder();
+    StringBuilder valid = new StringBuilder();
+    StringBuilder invalid = new StringBuilder();
+    long blank = 0;
+    for (int i = 0; i < 5000; i++) {
+      String line = LINES[random.nextInt(LINES.length)];
+      String content = line.endsWith("\r") ? line.substring(0, line.length() - 1) : line;
+      input.append(line).append('\n');
+      if (content.isEmpty()) {
+        blank++;
+      } else if (EmailScanner.isValid(content, true)) {
+        valid.append(content).append('\n');
+      } else {
+        invalid.append(content).append('\n');
+      }
+    }
+    input.append("last@line.de");
+    valid.append("last@line.de\n");
+
+    Path in = directory.resolve("in.txt");
+    Path validOut = directory.resolve("valid.txt");
+    Path invalidOut = directory.resolve("invalid.txt");
+    Files.write(in, input.toString().getBytes(StandardCharsets.UTF_8));
+
+    BulkEmailValidator.Summary summary = new BulkEmailValidator(EmailRules.of(true), pool, 100,
+        1).validate(in, validOut, invalidOut);
+
+    Assert.assertEquals(valid.toString(), read(validOut));
+    Assert.assertEquals(invalid.toString(), read(invalidOut));
+    Assert.assertEquals(5001, summary.getLines());
+    Assert.assertEquals(blank, summary.getBlank());
+    Assert.assertEquals(5001 - blank, summary.getValid() + summary.getInvalid());
+    Assert.assertTrue(summary.getInvalid(InvalidReason.MISSING_SUFFIX) > 0);
+    Assert.assertTrue(summary.getInvalid(InvalidReason.SYNTAX) > 0);
+    Assert.assertTrue(summary.getInvalid(InvalidReason.LOCAL_PART_TOO_LONG) > 0);
+    Assert.assertEquals(0, summary.getInvalid(InvalidReason.REGEXP));
+    // Only the input and the two outputs are left, the parts are deleted.
+    Assert.assertEquals(3, count(directory));
+  }
+
+  @Test
+  public void shouldHandleEmptyInput() throws IOException {
+    Path in = Files.createFile(directory.resolve("in.txt"));
+    BulkEmailValidator.Summary summary = new BulkEmailValidator(EmailRules.of(true), pool, 100)
+        .validate(in, directory.resolve("valid.txt"), directory.resolve("invalid.txt"));
+    Assert.assertEquals(0, summary.getLines());
+    Assert.assertEquals("", read(directory.resolve("valid.txt")));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void shouldRejectCommonPool() {
+    new BulkEmailValidator(EmailRules.of(true), ForkJoinPool.commonPool(), 100);
+  }
+
+  @Test
+  public void shouldFindNewlinesWordWise() {
+    byte[] bytes = "0123456789abcdef0123456789".getBytes(StandardCharsets.US_ASCII);
+    for (int newline = 0; newline < bytes.length; newline++) {
+      byte[] copy = bytes.clone();
+      copy[newline] = '\n';
+      ByteBuffer buffer = ByteBuffer.wrap(copy);
+      for (int from = 0; from <= newline; from++) {
+        Assert.assertEquals(newline, BulkEmailValidator.indexOfNewline(buffer, from, copy.length));
+      }
+      Assert.assertEquals(newline, BulkEmailValidator.indexOfNewline(buffer, 0, newline));
+    }
+  }
+
+  private static String read(final Path path) throws IOException {
+    return new String(Files.readAllBytes(path), StandardCharsets.UTF_8);
+  }
+
+  private static int count(final Path directory) throws IOException {
+    int count = 0;
+    try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+      for (Path file : files) {
+        count++;
+      }
+    }
+    return count;
+  }
+}
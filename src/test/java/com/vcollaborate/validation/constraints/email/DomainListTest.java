@@ -0,0 +1,163 @@
+/*
+ * Copyright (C) 2012-2015 Christian Sterzl <christian.sterzl@gmail.com>
+ *
+ * This file is part of ValidationConstraints.
+ *
+ * ValidationConstraints is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * ValidationConstraints is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with ValidationConstraints.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.vcollaborate.validation.constraints.email;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+public class DomainListTest {
+
+  private static final String BLOCKED =
+      "com/vcollaborate/validation/constraints/email/blocked-domains.txt";
+
+  @Test
+  public void shouldContainListedDomainsAndSubdomains() throws IOException {
+    DomainList list = DomainList.read(new StringReader("example.com\n  Mail.Example.ORG \n"
+        + "# comment\n\n*.co.uk\nm\u00fcller.de\n"));
+    Assert.assertEquals(4, list.size());
+    Assert.assertTrue(list.contains("example.com"));
+    Assert.assertTrue(list.contains("EXAMPLE.com"));
+    Assert.assertTrue(list.contains("a.b.example.com"));
+    Assert.assertTrue(list.contains("mail.example.org"));
+    Assert.assertTrue(list.contains("x.co.uk"));
+    Assert.assertTrue(list.contains("co.uk"));
+    Assert.assertTrue(list.contains("xn--mller-kva.de"));
+    Assert.assertTrue(list.contains("office@example.com", 7, 18));
+
+    Assert.assertFalse(list.contains("example.org"));
+    Assert.assertFalse(list.contains("org"));
+    Assert.assertFalse(list.contains("com"));
+    Assert.assertFalse(list.contains("myexample.com"));
+    Assert.assertFalse(list.contains("example.com.evil.net"));
+    Assert.assertFalse(list.contains("uk"));
+    Assert.assertFalse(list.contains(""));
+    Assert.assertFalse(list.contains("example.com."));
+  }
+
+  @Test
+  public void shouldDropSubdomainsOfListedDomains() throws IOException {
+    DomainList list = DomainList.read(new StringReader("a.example.com\nb.a.example.com\n"
+        + "example.com\nc.example.com\nexample.com\n"));
+    Assert.assertEquals(1, list.size());
+    Assert.assertTrue(list.contains("z.example.com"));
+  }
+
+  @Test
+  public void shouldAgreeWithSetOfDomains() throws IOException {
+    Random random = new Random(11);
+    Set<String> domains = new HashSet<String>();
+    StringBuilder text = new StringBuilder();
+    for (int i = 0; i < 20000; i++) {
+      String domain = randomDomain(random);
+      domains.add(domain);
+      text.append(domain).append('\n');
+    }
+    DomainList list = DomainList.read(new StringReader(text.toString()));
+    for (int i = 0; i < 100000; i++) {
+      String domain = randomDomain(random);
+      boolean expected = false;
+      for (String parent = domain; parent != null && !expected;) {
+        expected = domains.contains(parent);
+        int dot = parent.indexOf('.');
+        parent = dot < 0 ? null : parent.substring(dot + 1);
+      }
+      Assert.assertEquals(domain, expected, list.contains(domain));
+    }
+  }
+
+  @Test
+  public void shouldShareListsOfResources() {
+    DomainList list = DomainList.of(BLOCKED);
+    Assert.assertSame(list, DomainList.of(BLOCKED));
+    Assert.assertEquals(3, list.size());
+    Assert.assertTrue(list.contains("guerrillamail.com"));
+    Assert.assertTrue(list.contains("x.trashmail.net"));
+  }
+
+  @Test
+  public void shouldSeparateListsOfClassLoaders() throws IOException {
+    Path first = Files.createTempDirectory("first");
+    Path second = Files.createTempDirectory("second");
+    try {
+      Files.write(first.resolve("app-domains.txt"), "first.com\n".getBytes(
+          StandardCharsets.US_ASCII));
+      Files.write(second.resolve("app-domains.txt"), "second.com\n".getBytes(
+          StandardCharsets.US_ASCII));
+      ClassLoader firstLoader = new URLClassLoader(new URL[] { first.toUri().toURL() }, null);
+      ClassLoader secondLoader = new URLClassLoader(new URL[] { second.toUri().toURL() }, null);
+
+      DomainList firstList = DomainList.of("app-domains.txt", firstLoader);
+      DomainList secondList = DomainList.of("app-domains.txt", secondLoader);
+      Assert.assertSame(firstList, DomainList.of("app-domains.txt", firstLoader));
+      Assert.assertTrue(firstList.contains("first.com"));
+      Assert.assertFalse(firstList.contains("second.com"));
+      Assert.assertTrue(secondList.contains("second.com"));
+      Assert.assertFalse(secondList.contains("first.com"));
+
+      EmailRules firstRules = EmailRules.of(true, EmailRules.ANY, 0, "app-domains.txt",
+          EmailRules.NONE, firstLoader);
+      EmailRules secondRules = EmailRules.of(true, EmailRules.ANY, 0, "app-domains.txt",
+          EmailRules.NONE, secondLoader);
+      Assert.assertSame(firstRules, EmailRules.of(true, EmailRules.ANY, 0, "app-domains.txt",
+          EmailRules.NONE, firstLoader));
+      Assert.assertTrue(firstRules.isValid("a@first.com"));
+      Assert.assertFalse(secondRules.isValid("a@first.com"));
+      Assert.assertTrue(secondRules.isValid("a@second.com"));
+    } finally {
+      Files.delete(first.resolve("app-domains.txt"));
+      Files.delete(second.resolve("app-domains.txt"));
+      Files.delete(first);
+      Files.delete(second);
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void shouldRejectMissingResource() {
+    DomainList.of("missing-domains.txt");
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void shouldRejectInvalidDomain() throws IOException {
+    DomainList.read(new StringReader("example.com\nexample..com\n"));
+  }
+
+  private static String randomDomain(final Random random) {
+    StringBuilder domain = new StringBuilder();
+    int labels = 1 + random.nextInt(4);
+    for (int i = 0; i < labels; i++) {
+      domain.append(i == 0 ? "" : ".").append("abcde".charAt(random.nextInt(5)));
+      if (random.nextBoolean()) {
+        domain.append("xy".charAt(random.nextInt(2)));
+      }
+    }
+    return domain.toString();
+  }
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright (C) 2012-2015 Christian Sterzl <christian.sterzl@gmail.com>
+ *
+ * This file is part of ValidationConstraints.
+ *
+ * ValidationConstraints is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * ValidationConstraints is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with ValidationConstraints.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.vcollaborate.validation.constraints.email;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.regex.Pattern;
+
+public class EmailRulesTest {
+
+  @Test
+  public void shouldShareRulesOfEqualConfigurations() {
+    assertSame(EmailRules.of(true), EmailRules.of(true, EmailRules.ANY, 0));
+    assertSame(EmailRules.of(false), EmailRules.of(false, EmailRules.ANY, Pattern.DOTALL));
+    assertNotSame(EmailRules.of(true), EmailRules.of(false));
+
+    EmailRules rules = EmailRules.of(true, new String(".*\\.at"), Pattern.CASE_INSENSITIVE);
+    assertSame(rules, EmailRules.of(true, ".*\\.at", Pattern.CASE_INSENSITIVE));
+    assertNotSame(rules, EmailRules.of(false, ".*\\.at", Pattern.CASE_INSENSITIVE));
+    assertNotSame(rules, EmailRules.of(true, ".*\\.at", 0));
+    assertEquals(".*\\.at", rules.getRegexp());
+    assertEquals(Pattern.CASE_INSENSITIVE, rules.getFlags());
+    assertTrue(rules.requiresSuffix());
+  }
+
+  @Test
+  public void shouldMatchAdditionalRegexp() {
+    EmailRules rules = EmailRules.of(true, ".*\\.at", Pattern.CASE_INSENSITIVE);
+    assertTrue(rules.isValid(null));
+    assertTrue(rules.isValid("office@v-collaborate.AT"));
+    assertFalse(rules.isValid("office@v-collaborate.com"));
+    assertFalse(rules.isValid("office@v-collaborate..at"));
+    assertFalse(rules.isValid(""));
+
+    assertEquals(InvalidReason.REGEXP, rules.reason("office@v-collaborate.com"));
+    assertEquals(InvalidReason.SYNTAX, rules.reason("office@v-collaborate..at"));
+    assertEquals(null, rules.reason("office@v-collaborate.at"));
+
+    assertTrue(EmailRules.of(true).isValid(""));
+    assertFalse(EmailRules.of(true).isValid("office@v-collaborate"));
+    assertTrue(EmailRules.of(false).isValid("office@v-collaborate"));
+  }
+
+  @Test
+  public void shouldValidateBytes() {
+    byte[] bytes = "x office@v-collaborate.at j\u00fc@b.at \u00fc@b.com".getBytes(
+        StandardCharsets.UTF_8);
+    ByteBuffer buffer = ByteBuffer.wrap(bytes);
+    EmailRules rules = EmailRules.of(true, ".*\\.at", 0);
+    assertTrue(rules.isValid(buffer, 2, 23));
+    assertTrue(rules.isValid(buffer, 26, 8));
+    assertFalse(rules.isValid(buffer, 35, 8));
+    assertEquals(InvalidReason.REGEXP, rules.reason(buffer, 35, 8));
+    assertEquals(InvalidReason.ENCODING, rules.reason(buffer, 26, 2));
+    assertTrue(EmailRules.of(true).isValid(buffer, 35, 8));
+    assertTrue(EmailRules.of(true).isValid(buffer, 0, 0));
+    assertEquals(0, buffer.position());
+  }
+
+  @Test
+  public void shouldCheckDomainLists() {
+    String blocked = "com/vcollaborate/validation/constraints/email/blocked-domains.txt";
+    String partners = "com/vcollaborate/validation/constraints/email/partner-domains.txt";
+    EmailRules rules = EmailRules.of(true, EmailRules.ANY, 0, EmailRules.NONE, blocked);
+    assertSame(rules, EmailRules.of(true, EmailRules.ANY, 0, EmailRules.NONE, blocked));
+    assertTrue(rules.isValid("office@v-collaborate.com"));
+    assertFalse(rules.isValid("someone@mailinator.com"));
+    assertFalse(rules.isValid("someone@eu.TRASHMAIL.net"));
+    assertEquals(InvalidReason.DOMAIN_BLOCKED, rules.reason("someone@mailinator.com"));
+    assertEquals(InvalidReason.SYNTAX, rules.reason("someone@@mailinator.com"));
+    assertEquals(InvalidReason.DOMAIN_BLOCKED, rules.reason("someone\uff20mailinator.com"));
+    assertEquals(InvalidReason.DOMAIN_BLOCKED, rules.reason("j\u00fcrgen@mailinator\u3002com"));
+
+    rules = EmailRules.of(true, EmailRules.ANY, 0, partners, blocked);
+    assertTrue(rules.isValid("office@v-collaborate.com"));
+    assertTrue(rules.isValid("office@sales.v-collaborate.com"));
+    assertTrue(rules.isValid("j\u00fcrgen@m\u00fcller.de"));
+    assertFalse(rules.isValid("office@example.com"));
+    assertEquals(InvalidReason.DOMAIN_NOT_ALLOWED, rules.reason("office@example.com"));
+
+    byte[] bytes = "office@v-collaborate.com someone@mailinator.com".getBytes(
+        StandardCharsets.UTF_8);
+    ByteBuffer buffer = ByteBuffer.wrap(bytes);
+    assertTrue(rules.isValid(buffer, 0, 24));
+    assertFalse(rules.isValid(buffer, 25, 22));
+    assertEquals(InvalidReason.DOMAIN_NOT_ALLOWED, rules.reason(buffer, 25, 22));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void shouldRejectMissingDomainList() {
+    EmailRules.of(true, EmailRules.ANY, 0, "missing-domains.txt", EmailRules.NONE);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void shouldRejectInvalidRegexp() {
+    EmailRules.of(true, "(", 0);
+  }
+}
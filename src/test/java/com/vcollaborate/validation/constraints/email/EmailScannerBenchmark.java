@@ -0,0 +1,106 @@
+/*
+ * Copyright (C) 2012-2015 Christian Sterzl <christian.sterzl@gmail.com>
+ *
+ * This file is part of ValidationConstraints.
+ *
+ * ValidationConstraints is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * ValidationConstraints is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with ValidationConstraints.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.vcollaborate.validation.constraints.email;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.net.IDN;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Compares {@link EmailScanner} with the conversion by {@link IDN} and the regular expression the
+ * {@link com.vcollaborate.validation.constraints.EmailValidator} used before.
+ * 
+ * <p>
+ * Run {@link #main(String[])} with the test classpath.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EmailScannerBenchmark {
+
+  private static final String ATOM = "[a-z0-9!#$%&'*+/=?^_`{|}~-]";
+  private static final Pattern PATTERN_WITH_SUFFIX = Pattern.compile("^" + ATOM + "+(\\." + ATOM
+      + "+)*@(" + ATOM + "+(\\." + ATOM + "+)+|"
+      + "\\[[0-9]{1,3}\\.[0-9]{1,3}\\.[0-9]{1,3}\\.[0-9]{1,3}\\])$", Pattern.CASE_INSENSITIVE);
+
+  @Param({ "christian.sterzl+newsletter@v-collaborate.com", "j\u00fcrgen@m\u00fcller.de",
+      "no.at.sign.in.this.rather.long.address.v-collaborate.com" })
+  private String email;
+
+  private byte[] bytes;
+  private ByteBuffer buffer;
+
+  @Setup
+  public void setUp() {
+    bytes = email.getBytes(StandardCharsets.UTF_8);
+    buffer = ByteBuffer.allocateDirect(bytes.length);
+    buffer.put(bytes);
+  }
+
+  @Benchmark
+  public boolean scanner() {
+    return EmailScanner.isValid(email, true);
+  }
+
+  @Benchmark
+  public boolean bytes() {
+    return EmailScanner.isValid(bytes, 0, bytes.length, true);
+  }
+
+  @Benchmark
+  public boolean buffer() {
+    return EmailScanner.isValid(buffer, 0, bytes.length, true);
+  }
+
+  @Benchmark
+  public boolean decodedBytes() {
+    return EmailScanner.isValid(new String(bytes, StandardCharsets.UTF_8), true);
+  }
+
+  @Benchmark
+  public boolean regex() {
+    return PATTERN_WITH_SUFFIX.matcher(IDN.toASCII(email)).matches();
+  }
+
+  public static void main(final String[] args) throws Exception {
+    new Runner(new OptionsBuilder().include(EmailScannerBenchmark.class.getSimpleName()).build())
+        .run();
+  }
+}
@@ -0,0 +1,298 @@
+/*
+ * Copyright (C) 2012-2015 Christian Sterzl <christian.sterzl@gmail.com>
+ *
+ * This file is part of ValidationConstraints.
+ *
+ * ValidationConstraints is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * ValidationConstraints is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with ValidationConstraints.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.vcollaborate.validation.constraints.email;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import java.net.IDN;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.regex.Pattern;
+
+public class EmailScannerTest {
+
+  // The regular expressions of the EmailValidator before the scanner
+  private static final String ATOM = "[a-z0-9!#$%&'*+/=?^_`{|}~-]";
+  private static final String DOMAIN = "(" + ATOM + "+(\\." + ATOM + "+)*";
+  private static final String DOMAIN_WITHSUFFIX = "(" + ATOM + "+(\\." + ATOM + "+)+";
+  private static final String IP_DOMAIN =
+      "\\[[0-9]{1,3}\\.[0-9]{1,3}\\.[0-9]{1,3}\\.[0-9]{1,3}\\]";
+
+  private static final Pattern PATTERN = Pattern.compile("^" + ATOM + "+(\\." + ATOM + "+)*@"
+      + DOMAIN + "|" + IP_DOMAIN + ")$", Pattern.CASE_INSENSITIVE);
+  private static final Pattern PATTERN_WITH_SUFFIX = Pattern.compile("^" + ATOM + "+(\\." + ATOM
+      + "+)*@" + DOMAIN_WITHSUFFIX + "|" + IP_DOMAIN + ")$", Pattern.CASE_INSENSITIVE);
+
+  private static final String ALPHABET = "aZ09.@@..[]-_!~+ \"(),:;<>\\\u00fc\u00e4\u3002\u00ad";
+
+  @Test
+  public void shouldAcceptValidAddresses() {
+    String[] valid = { "test@v-collaborate.com", "Test.User+tag@Example.COM",
+        "!#$%&'*+/=?^_`{|}~-@a.b", "a@[127.0.0.1]", "a@[1.22.333.4]", "a.b.c@d.e.f",
+        "j\u00fcrgen@m\u00fcller.de", "a@b\u3002com" };
+    for (String value : valid) {
+      Assert.assertTrue(value, EmailScanner.isValid(value, true));
+    }
+    Assert.assertTrue(EmailScanner.isValid("test@v-collaborate", false));
+    Assert.assertTrue(EmailScanner.isValid(new StringBuilder("a@b.c"), true));
+    // IDN turns it into xn--@aaa-3ra
+    Assert.assertTrue(EmailScanner.isValid("@aaa\u00fc", false));
+  }
+
+  @Test
+  public void shouldRejectInvalidAddresses() {
+    String[] invalid = { "test@v-collaborate", "@a.b", "a@", "a", ".a@b.c", "a.@b.c", "a..b@c.d",
+        "a@b..c", "a@.b.c", "a@b.c.", "a@b@c.d", "a b@c.d", "a@[1.2.3]", "a@[1.2.3.4.5]",
+        "a@[1234.1.1.1]", "a@[1.2.3.4]x", "a@[1.2.3.4", "\"a\"@b.c", "a@b.c\n" };
+    for (String value : invalid) {
+      Assert.assertFalse(value, EmailScanner.isValid(value, true));
+    }
+  }
+
+  @Test
+  public void shouldRejectInputsOverLimits() {
+    String local = repeat('a', 64);
+    String label = repeat('b', 63);
+    Assert.assertTrue(EmailScanner.isValid(local + "@" + label + ".com", true));
+    Assert.assertFalse(EmailScanner.isValid(local + "a@" + label + ".com", true));
+    Assert.assertFalse(EmailScanner.isValid(local + "@" + label + "b.com", true));
+    Assert.assertFalse(EmailScanner.isValid(local + "@" + label + ".c" + repeat('o', 63), true));
+
+    String domain = label + "." + label + "." + label + "." + repeat('c', 60);
+    Assert.assertEquals(254, ("a@" + domain).length());
+    Assert.assertTrue(EmailScanner.isValid("a@" + domain, true));
+    Assert.assertFalse(EmailScanner.isValid("ab@" + domain, true));
+  }
+
+  @Test
+  public void shouldExplainInvalidAddresses() {
+    String local = repeat('a', 64);
+    String label = repeat('b', 63);
+    Assert.assertNull(EmailScanner.reason(local + "@" + label + ".com", true));
+    Assert.assertEquals(InvalidReason.LOCAL_PART_TOO_LONG,
+        EmailScanner.reason(local + "a@b.com", true));
+    Assert.assertEquals(InvalidReason.LABEL_TOO_LONG,
+        EmailScanner.reason("a@" + label + "b.com", true));
+    Assert.assertEquals(InvalidReason.LABEL_TOO_LONG,
+        EmailScanner.reason("a@b.c" + label, true));
+    Assert.assertEquals(InvalidReason.TOO_LONG,
+        EmailScanner.reason(repeat('a', 250) + "@b.com", true));
+    Assert.assertEquals(InvalidReason.MISSING_SUFFIX, EmailScanner.reason("a@b", true));
+    Assert.assertNull(EmailScanner.reason("a@b", false));
+    Assert.assertEquals(InvalidReason.SYNTAX, EmailScanner.reason("a..b@c.d", true));
+    Assert.assertEquals(InvalidReason.SYNTAX, EmailScanner.reason("a@[1.2.3]", true));
+    Assert.assertEquals(InvalidReason.IDN, EmailScanner.reason("\u00fc@" + label + "b", false));
+  }
+
+  @Test
+  public void shouldAcceptSameLanguageAsRegularExpressions() {
+    Random random = new Random(42);
+    int compared = 0;
+    for (int run = 0; run < 200000; run++) {
+      String value = run % 2 == 0 ? randomText(random) : randomAddress(random);
+      for (boolean requiresSuffix : new boolean[] { true, false }) {
+        Assert.assertEquals(value, EmailScanner.isValid(value, requiresSuffix),
+            EmailScanner.reason(value, requiresSuffix) == null);
+        Boolean expected = regex(value, requiresSuffix);
+        if (expected != null) {
+          Assert.assertEquals(value, expected.booleanValue(),
+              EmailScanner.isValid(value, requiresSuffix));
+          compared++;
+        } else if (!isAscii(value)) {
+          // IDN rejects the input, thus the scanner does too
+          Assert.assertFalse(value, EmailScanner.isValid(value, requiresSuffix));
+        }
+      }
+    }
+    Assert.assertTrue(compared > 200000);
+  }
+
+  @Test
+  public void shouldValidateUtf8LikeCharacters() {
+    Random random = new Random(4711);
+    byte[] bytes = new byte[1024];
+    ByteBuffer direct = ByteBuffer.allocateDirect(1024);
+    for (int run = 0; run < 100000; run++) {
+      String value = run % 2 == 0 ? randomText(random) : randomAddress(random);
+      if (value.isEmpty()) {
+        continue;
+      }
+      byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+      int offset = random.nextInt(bytes.length - utf8.length);
+      System.arraycopy(utf8, 0, bytes, offset, utf8.length);
+      direct.clear();
+      direct.position(offset);
+      direct.put(utf8);
+      for (boolean requiresSuffix : new boolean[] { true, false }) {
+        boolean expected = EmailScanner.isValid(value, requiresSuffix);
+        Assert.assertEquals(value, expected,
+            EmailScanner.isValid(bytes, offset, utf8.length, requiresSuffix));
+        Assert.assertEquals(value, expected,
+            EmailScanner.isValid(direct, offset, utf8.length, requiresSuffix));
+      }
+    }
+  }
+
+  @Test
+  public void shouldRejectMalformedUtf8() {
+    byte[] bytes = { 'j', (byte) 0xc3, '@', 'b', '.', 'c' };
+    Assert.assertFalse(EmailScanner.isValid(bytes, 0, bytes.length, true));
+    Assert.assertFalse(EmailScanner.isValid(bytes, 2, 0, true));
+    byte[] umlaut = "j\u00fc@b.c".getBytes(StandardCharsets.UTF_8);
+    Assert.assertTrue(EmailScanner.isValid(umlaut, 0, umlaut.length, true));
+    Assert.assertFalse(EmailScanner.isValid(umlaut, 0, 2, true));
+  }
+
+  @Test(expected = IndexOutOfBoundsException.class)
+  public void shouldRejectSliceOutsideOfBuffer() {
+    ByteBuffer buffer = ByteBuffer.wrap("a@b.c".getBytes(StandardCharsets.UTF_8));
+    buffer.limit(4);
+    EmailScanner.isValid(buffer, 0, 5, true);
+  }
+
+  @Test
+  public void shouldNotAllocateForAsciiBytes() {
+    java.lang.management.ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+    if (!(threadBean instanceof com.sun.management.ThreadMXBean)) {
+      return;
+    }
+    com.sun.management.ThreadMXBean allocationBean = (com.sun.management.ThreadMXBean) threadBean;
+    if (!allocationBean.isThreadAllocatedMemorySupported()
+        || !allocationBean.isThreadAllocatedMemoryEnabled()) {
+      return;
+    }
+
+    byte[] bytes = "christian.sterzl+newsletter@v-collaborate.com;a@[127.0.0.1]"
+        .getBytes(StandardCharsets.US_ASCII);
+    ByteBuffer buffer = ByteBuffer.allocateDirect(bytes.length);
+    buffer.put(bytes);
+    int valid = 0;
+    for (int i = 0; i < 50000; i++) {
+      valid += validate(bytes, buffer);
+    }
+
+    long threadId = Thread.currentThread().getId();
+    long before = allocationBean.getThreadAllocatedBytes(threadId);
+    for (int i = 0; i < 10000; i++) {
+      valid += validate(bytes, buffer);
+    }
+    long allocated = allocationBean.getThreadAllocatedBytes(threadId) - before;
+
+    // Leaves some room for the allocations of the measurement itself.
+    Assert.assertTrue("Allocated " + allocated + " bytes", allocated < 1024);
+    Assert.assertEquals(60000 * 4, valid);
+  }
+
+  private static int validate(final byte[] bytes, final ByteBuffer buffer) {
+    int valid = EmailScanner.isValid(bytes, 0, 45, true) ? 1 : 0;
+    valid += EmailScanner.isValid(bytes, 46, 13, true) ? 1 : 0;
+    valid += EmailScanner.isValid(buffer, 0, 45, true) ? 1 : 0;
+    return valid + (EmailScanner.isValid(buffer, 46, 13, true) ? 1 : 0);
+  }
+
+  private static Boolean regex(final String value, final boolean requiresSuffix) {
+    String ascii;
+    try {
+      ascii = IDN.toASCII(value);
+    } catch (IllegalArgumentException e) {
+      return null;
+    }
+    if (!(requiresSuffix ? PATTERN_WITH_SUFFIX : PATTERN).matcher(ascii).matches()) {
+      return false;
+    }
+    int at = ascii.indexOf('@');
+    for (String label : ascii.substring(at + 1).split("\\.")) {
+      if (label.length() > EmailScanner.MAX_LABEL_LENGTH) {
+        return false;
+      }
+    }
+    return value.length() <= EmailScanner.MAX_LENGTH && at <= EmailScanner.MAX_LOCAL_LENGTH;
+  }
+
+  /**
+   * IDN rejects ASCII inputs only for their label lengths, which count the local part and the first
+   * label of the domain as one.
+   */
+  private static boolean isAscii(final String value) {
+    for (int i = 0; i < value.length(); i++) {
+      if (value.charAt(i) >= 0x80) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static String randomText(final Random random) {
+    StringBuilder text = new StringBuilder();
+    int length = random.nextInt(12);
+    for (int i = 0; i < length; i++) {
+      text.append(ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+    }
+    return text.toString();
+  }
+
+  private static String randomAddress(final Random random) {
+    StringBuilder address = new StringBuilder();
+    int parts = 1 + random.nextInt(3);
+    for (int i = 0; i < parts; i++) {
+      address.append(i == 0 ? "" : ".").append(randomAtoms(random));
+    }
+    address.append(random.nextInt(20) == 0 ? "" : "@");
+    if (random.nextInt(8) == 0) {
+      address.append('[');
+      int octets = 3 + random.nextInt(3);
+      for (int i = 0; i < octets; i++) {
+        address.append(i == 0 ? "" : ".").append(random.nextInt(random.nextInt(3) == 0 ? 10000
+            : 256));
+      }
+      address.append(random.nextInt(10) == 0 ? "" : "]");
+    } else {
+      int labels = random.nextInt(4);
+      for (int i = 0; i < labels; i++) {
+        address.append(i == 0 ? "" : ".").append(randomAtoms(random));
+      }
+    }
+    if (random.nextInt(10) == 0) {
+      address.insert(random.nextInt(address.length() + 1), ALPHABET.charAt(random
+          .nextInt(ALPHABET.length())));
+    }
+    return address.toString();
+  }
+
+  private static String randomAtoms(final Random random) {
+    int length = random.nextInt(20) == 0 ? 60 + random.nextInt(10) : random.nextInt(6);
+    StringBuilder atoms = new StringBuilder();
+    for (int i = 0; i < length; i++) {
+      atoms.append("abcXYZ019-_+'~".charAt(random.nextInt(14)));
+    }
+    return atoms.toString();
+  }
+
+  private static String repeat(final char c, final int count) {
+    StringBuilder text = new StringBuilder();
+    for (int i = 0; i < count; i++) {
+      text.append(c);
+    }
+    return text.toString();
+  }
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright (C) 2012-2015 Christian Sterzl <christian.sterzl@gmail.com>
+ *
+ * This file is part of ValidationConstraints.
+ *
+ * ValidationConstraints is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * ValidationConstraints is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with ValidationConstraints.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.vcollaborate.validation.constraints.temporal;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+
+public class DayBoundaryTest {
+
+  @Test
+  public void shouldFindStartOfDayLikeJavaTime() {
+    ZoneId zone = ZoneId.of("America/Sao_Paulo");
+    DayBoundary boundary = DayBoundary.of(zone);
+    Assert.assertSame(boundary, DayBoundary.of(zone));
+
+    ZonedDateTime time = ZonedDateTime.of(2014, 1, 1, 0, 0, 0, 0, zone);
+    for (int i = 0; i < 5000; i++) {
+      // Midnight doesn't exist on some days in Sao Paulo
+      long expected = time.toLocalDate().atStartOfDay(zone).toInstant().toEpochMilli();
+      Assert.assertEquals(time.toString(), expected, boundary.startOfDay(time.toInstant()
+          .toEpochMilli()));
+      time = time.plusMinutes(7 * 60 + 13);
+    }
+  }
+
+  @Test
+  public void shouldKeepDayUntilItChanges() {
+    ZoneId zone = ZoneId.of("Europe/Vienna");
+    DayBoundary boundary = DayBoundary.of(zone);
+    long start = LocalDate.of(2015, 3, 29).atStartOfDay(zone).toInstant().toEpochMilli();
+    long end = LocalDate.of(2015, 3, 30).atStartOfDay(zone).toInstant().toEpochMilli();
+
+    Assert.assertEquals(start, boundary.startOfDay(start));
+    Assert.assertEquals(start, boundary.startOfDay(end - 1));
+    Assert.assertEquals(end, boundary.startOfDay(end));
+    Assert.assertEquals(start, boundary.startOfDay(start + 23 * 3600000L - 1));
+  }
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright (C) 2012-2015 Christian Sterzl <christian.sterzl@gmail.com>
+ *
+ * This file is part of ValidationConstraints.
+ *
+ * ValidationConstraints is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * ValidationConstraints is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with ValidationConstraints.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.vcollaborate.validation.constraints.temporal;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.Random;
+
+public class IsoDateTimeTest {
+
+  @Test
+  public void shouldParseInstantsAndOffsets() {
+    assertParsed("2015-03-01T10:15:30Z", "2015-03-01T10:15:30Z");
+    assertParsed("2015-03-01T10:15:30.123Z", "2015-03-01T10:15:30.123Z");
+    assertParsed("2015-03-01T10:15:30.1Z", "2015-03-01T10:15:30.100Z");
+    assertParsed("2015-03-01T10:15:30.123Z", "2015-03-01T10:15:30.123456789Z");
+    assertParsed("1969-12-31T23:59:59.999Z", "1969-12-31t23:59:59.999z");
+    assertParsed("2015-03-01T09:15:00Z", "2015-03-01T10:15+01:00");
+    assertParsed("2015-03-01T12:45:00Z", "2015-03-01 10:15-0230");
+    assertParsed("2015-03-01T05:15:00Z", "2015-03-01T10:15+05");
+    assertParsed("2016-02-29T09:15:00Z", "2016-02-29T10:15+01:00[Europe/Vienna]");
+  }
+
+  @Test
+  public void shouldParseLocalDateTimesInDefaultZone() {
+    ZoneId zone = ZoneId.systemDefault();
+    Assert.assertEquals(LocalDate.of(2015, 3, 1).atStartOfDay(zone).toInstant().toEpochMilli(),
+        IsoDateTime.parse("2015-03-01"));
+    Assert.assertEquals(LocalDateTime.of(2015, 3, 1, 10, 15).atZone(zone).toInstant()
+        .toEpochMilli(), IsoDateTime.parse("2015-03-01T10:15"));
+  }
+
+  @Test
+  public void shouldParseLikeJavaTimeAcrossTransitions() {
+    ZoneId vienna = ZoneId.of("Europe/Vienna");
+    Random random = new Random(42);
+    LocalDateTime local = LocalDateTime.of(1995, 1, 1, 0, 0);
+    for (int i = 0; i < 20000; i++) {
+      local = local.plusMinutes(random.nextInt(60 * 24));
+      ZonedDateTime expected = local.atZone(vienna);
+      Assert.assertEquals(local.toString(), expected.toInstant().toEpochMilli(),
+          IsoDateTime.parse(local + "[Europe/Vienna]"));
+      Assert.assertEquals(expected.toString(), expected.toInstant().toEpochMilli(),
+          IsoDateTime.parse(expected.toString()));
+    }
+  }
+
+  @Test
+  public void shouldParseLikeJavaTimeForAllDays() {
+    for (LocalDate day = LocalDate.of(1600, 1, 1); day.getYear() < 2400; day = day.plusDays(1)) {
+      Assert.assertEquals(day.toEpochDay(), IsoDateTime.daysSinceEpoch(day.getYear(), day
+          .getMonthValue(), day.getDayOfMonth()));
+    }
+  }
+
+  @Test
+  public void shouldTreatEmptyAsNull() {
+    Assert.assertEquals(EpochMillis.NULL, IsoDateTime.parse(""));
+    Assert.assertEquals(EpochMillis.NULL, IsoDateTime.parse(null));
+    Assert.assertEquals(EpochMillis.NULL, EpochMillis.of(""));
+    Assert.assertEquals(1000L, EpochMillis.of(new StringBuilder("1970-01-01T00:00:01Z")));
+  }
+
+  @Test
+  public void shouldRejectMalformedTexts() {
+    String[] malformed = { "2015", "2015-3-01", "2015-02-29", "2015-13-01", "2015-01-01X10:00",
+        "2015-01-01T24:00", "2015-01-01T10:60", "2015-01-01T10:00:00.", "2015-01-01T10:00Q",
+        "2015-01-01T10:00+1", "2015-01-01T10:00+19:00", "2015-01-01T10:00[Europe/Vienna",
+        "2015-01-01T10:00[Nowhere/Nothing]", "2015-01-01T10:00Zjunk" };
+    for (String text : malformed) {
+      try {
+        IsoDateTime.parse(text);
+        Assert.fail(text);
+      } catch (IllegalArgumentException e) {
+        // expected
+      }
+    }
+  }
+
+  @Test
+  public void shouldNotAllocateWhileParsing() {
+    java.lang.management.ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+    if (!(threadBean instanceof com.sun.management.ThreadMXBean)) {
+      return;
+    }
+    com.sun.management.ThreadMXBean allocationBean = (com.sun.management.ThreadMXBean) threadBean;
+    if (!allocationBean.isThreadAllocatedMemorySupported()
+        || !allocationBean.isThreadAllocatedMemoryEnabled()) {
+      return;
+    }
+
+    String[] texts = { "2015-03-01T10:15:30.123Z", "2015-03-01T10:15:30+01:00",
+        "2015-03-01T10:15:30[Europe/Vienna]", "2015-03-02T10:15:30[Europe/Vienna]" };
+    String zoneless = "2015-03-01T10:15:30";
+    long sum = 0;
+    for (int i = 0; i < 50000; i++) {
+      sum += IsoDateTime.parse(texts[i & 3]) + IsoDateTime.parse(zoneless);
+    }
+
+    long threadId = Thread.currentThread().getId();
+    long before = allocationBean.getThreadAllocatedBytes(threadId);
+    for (int i = 0; i < 10000; i++) {
+      sum += IsoDateTime.parse(texts[i & 3]);
+    }
+    long allocated = allocationBean.getThreadAllocatedBytes(threadId) - before;
+
+    // Leaves some room for the allocations of the measurement itself.
+    Assert.assertTrue("Allocated " + allocated + " bytes", allocated < 1024);
+
+    // ZoneId.systemDefault() copies the default TimeZone, but the cached zone is not rebuilt
+    before = allocationBean.getThreadAllocatedBytes(threadId);
+    for (int i = 0; i < 10000; i++) {
+      sum += ZoneId.systemDefault().hashCode();
+    }
+    long lookups = allocationBean.getThreadAllocatedBytes(threadId) - before;
+
+    before = allocationBean.getThreadAllocatedBytes(threadId);
+    for (int i = 0; i < 10000; i++) {
+      sum += IsoDateTime.parse(zoneless);
+    }
+    allocated = allocationBean.getThreadAllocatedBytes(threadId) - before;
+
+    Assert.assertTrue("Allocated " + allocated + " bytes", allocated < lookups + 1024);
+    Assert.assertTrue(sum != 0);
+  }
+
+  private static void assertParsed(final String expected, final String text) {
+    Assert.assertEquals(text, Instant.parse(expected).toEpochMilli(), IsoDateTime.parse(text));
+  }
+}